@@ -1,5 +1,6 @@
 package heaps;
 
+import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 
@@ -17,19 +18,28 @@ public class BinaryHeap<E extends Comparable<E>> implements IPriorityQueue<E> {
 
     // constructor
     public BinaryHeap() {
-        heap = (E[]) new Comparable[INITIAL_CAPACITY + 1];
+        heap = newArray(INITIAL_CAPACITY + 1);
     }
 
+    // builds the heap in O(n) with Floyd's method
     public BinaryHeap(E[] elements) {
-        heap = (E[]) new Comparable[elements.length + 1];
+        heap = newArray(Math.max(elements.length, 1) + 1);
 
         // copy the elements to our heap
         for (int i = 0; i < elements.length; i++) {
+            if (elements[i] == null) {
+                throw new IllegalArgumentException("Cannot add null element to the heap!");
+            }
             heap[i + 1] = elements[i];
         }
+        size = elements.length;
         buildHeap();
     }
 
+    public BinaryHeap(Collection<? extends E> elements) {
+        this(elements.toArray(BinaryHeap.<E>newArray(0)));
+    }
+
     @Override
     public void insert(E element) {
         if (element == null) {
@@ -46,10 +56,60 @@ public class BinaryHeap<E extends Comparable<E>> implements IPriorityQueue<E> {
         modcount++;
     }
 
+    /**
+     * Inserts every element of elements.  A batch smaller than the heap
+     * is swum in one element at a time; a larger one is appended and the
+     * whole heap rebuilt with Floyd's method, which is O(n + k) however
+     * the elements are ordered.
+     */
+    public void insertAll(Collection<? extends E> elements) {
+        int oldSize = size;
+        int needed = size + elements.size() + 1;
+        if (needed > heap.length) {
+            E[] oldHeap = heap;
+            heap = newArray(Math.max(needed, oldHeap.length * RESIZE_FACTOR));
+            System.arraycopy(oldHeap, 0, heap, 0, oldHeap.length);
+        }
+
+        boolean rebuild = elements.size() > oldSize;
+        for (E element : elements) {
+            if (element == null) {
+                // keep what was added so far, in heap order
+                if (rebuild) buildHeap();
+                modcount++;
+                throw new IllegalArgumentException("Cannot add null element to the heap!");
+            }
+            heap[++size] = element;
+            if (!rebuild) swim(size);
+        }
+        if (rebuild) buildHeap();
+        modcount++;
+    }
+
+    /**
+     * Removes up to max of the smallest elements, in order, and adds them
+     * to target.
+     * @return  the number of elements moved
+     */
+    public int drainTo(Collection<? super E> target, int max) {
+        int count = 0;
+        while (count < max && size > 0) {
+            target.add(heap[MIN_INDEX]);
+
+            // move the last leaf to the root
+            heap[MIN_INDEX] = heap[size];
+            heap[size--] = null;  // be a good citizen for my garbage collector
+            sink(MIN_INDEX);
+            count++;
+        }
+        if (count > 0) modcount++;
+        return count;
+    }
+
     private void resize() {
         // create a new heap that is larger
         E[] oldHeap = heap;
-        heap = (E[]) new Comparable[oldHeap.length * RESIZE_FACTOR];
+        heap = newArray(oldHeap.length * RESIZE_FACTOR);
 
         // copy elements from old heap to new heap
         for (int i = 0; i < oldHeap.length; i++) {
@@ -57,6 +117,12 @@ public class BinaryHeap<E extends Comparable<E>> implements IPriorityQueue<E> {
         }
     }
 
+    // arrays of E can't be created directly; the heap only ever stores Es
+    @SuppressWarnings("unchecked")
+    private static <E extends Comparable<E>> E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
     // percolates the value up to its correct place
     // according to heap-order property
     private void swim(int index) {
@@ -141,7 +207,7 @@ public class BinaryHeap<E extends Comparable<E>> implements IPriorityQueue<E> {
     @Override
     public void clear() {
         size = 0;
-        heap = (E[]) new Comparable[INITIAL_CAPACITY + 1];
+        heap = newArray(INITIAL_CAPACITY + 1);
         modcount++;
     }
 
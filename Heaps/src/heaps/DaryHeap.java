@@ -0,0 +1,220 @@
+package heaps;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-heap in which every node has d = 2, 4 or 8 children.  A wider node
+ * makes the heap shallower (log base d of n levels), so sink visits fewer
+ * levels -- each a likely cache miss once the heap is large -- at the cost
+ * of comparing d children per level; swim gets cheaper outright.
+ * <p>
+ * The root is stored at index d - 1, which places every group of siblings
+ * at an index that is a multiple of d: the d children of a node are one
+ * aligned run of the array, so finding the smallest child reads one block
+ * rather than straddling two.  With d = 2 this is the usual 1-indexed
+ * layout of BinaryHeap.
+ */
+public class DaryHeap<E extends Comparable<E>> implements IPriorityQueue<E> {
+
+    // constants
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int DEFAULT_ARITY = 4;
+
+    // instance variables
+    private final int arity;
+    private final int shift;  // log2(arity)
+    private final int root;  // index of the root
+    private E[] heap;
+    private int size; // represents the number of element in the heap
+    private int modcount;
+
+    // constructor
+    public DaryHeap() {
+        this(DEFAULT_ARITY);
+    }
+
+    public DaryHeap(int arity) {
+        this(arity, INITIAL_CAPACITY);
+    }
+
+    public DaryHeap(int arity, int capacity) {
+        if (arity != 2 && arity != 4 && arity != 8) {
+            throw new IllegalArgumentException("Arity must be 2, 4 or 8");
+        }
+        this.arity = arity;
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.root = arity - 1;
+        heap = newArray(root + Math.max(capacity, 1));
+    }
+
+    public int getArity() {
+        return arity;
+    }
+
+    // index of the first of the node's children
+    private int firstChild(int index) {
+        return (index - arity + 2) << shift;
+    }
+
+    private int parent(int index) {
+        return (index >> shift) + arity - 2;
+    }
+
+    @Override
+    public void insert(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot add null element to the heap!");
+        }
+
+        // is heap full?  if so, resize it
+        if (root + size == heap.length) {
+            resize();
+        }
+
+        swim(root + size++, element);
+        modcount++;
+    }
+
+    private void resize() {
+        E[] oldHeap = heap;
+        heap = newArray(oldHeap.length * RESIZE_FACTOR);
+        System.arraycopy(oldHeap, 0, heap, 0, oldHeap.length);
+    }
+
+    // arrays of E can't be created directly; the heap only ever stores Es
+    @SuppressWarnings("unchecked")
+    private static <E extends Comparable<E>> E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    // moves the hole at index up until element fits there, then fills it
+    private void swim(int index, E element) {
+        while (index > root) {
+            int parent = parent(index);
+            if (element.compareTo(heap[parent]) >= 0) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    @Override
+    public E deleteMin() {
+        // if heap is empty, return null
+        if (isEmpty()) {
+            return null;
+        }
+
+        E returnElement = heap[root];
+
+        // sink the last leaf from the root
+        int last = root + --size;
+        E element = heap[last];
+        heap[last] = null;  // be a good citizen for my garbage collector
+        if (size > 0) sink(root, element);
+        modcount++;
+
+        return returnElement;
+    }
+
+    // moves the hole at index down, past the smallest child at each level,
+    // until element fits there, then fills it
+    private void sink(int index, E element) {
+        int end = root + size;  // one past the last element
+        while (true) {
+            int child = firstChild(index);
+            if (child >= end) break;
+
+            // smallest child: one compare for two children, else a scan
+            int smallest = child;
+            if (arity == 2) {
+                if (child + 1 < end && heap[child + 1].compareTo(heap[child]) < 0) smallest++;
+            } else {
+                smallest = smallestOf(child, Math.min(child + arity, end));
+            }
+            E min = heap[smallest];
+
+            if (min.compareTo(element) >= 0) break;  // done
+            heap[index] = min;
+            index = smallest;
+        }
+        heap[index] = element;
+    }
+
+    // smallest of the children in [first, end), keeping the smallest so
+    // far in a local rather than reloading it from the array
+    private int smallestOf(int first, int end) {
+        int smallest = first;
+        E min = heap[first];
+        for (int i = first + 1; i < end; i++) {
+            E candidate = heap[i];
+            if (candidate.compareTo(min) < 0) {
+                smallest = i;
+                min = candidate;
+            }
+        }
+        return smallest;
+    }
+
+    @Override
+    public E findMin() {
+        return (size == 0) ? null : heap[root];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        heap = newArray(root + INITIAL_CAPACITY);
+        modcount++;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        for (int i = root; i < root + size; i++) {
+            if (heap[i].equals(element)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new HeapIterator();
+    }
+
+    private class HeapIterator implements Iterator<E> {
+
+        private int nextIndex = root;
+        private int origModCount;
+
+        public HeapIterator() {
+            origModCount = modcount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < root + size;
+        }
+
+        @Override
+        public E next() {
+            if (modcount != origModCount) {
+                throw new ConcurrentModificationException("Cannot modify heap during iteration");
+            }
+            if (!hasNext()) throw new NoSuchElementException();
+            return heap[nextIndex++];
+        }
+    }
+}
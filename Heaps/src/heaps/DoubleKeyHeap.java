@@ -0,0 +1,78 @@
+package heaps;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap ordered by a double key given with each element.  Keys
+ * are stored in a LongKeyHeap as longs whose signed order is the order of
+ * Double.compare, so comparisons stay single primitive compares: -0.0
+ * comes before 0.0, and NaN comes after positive infinity.
+ */
+public class DoubleKeyHeap<E> implements Iterable<E> {
+
+    // instance variables
+    private final LongKeyHeap<E> heap;
+
+    // constructor
+    public DoubleKeyHeap() {
+        heap = new LongKeyHeap<>();
+    }
+
+    public DoubleKeyHeap(int capacity) {
+        heap = new LongKeyHeap<>(capacity);
+    }
+
+    // flips the magnitude bits of negative doubles so that the bits sort
+    // as signed longs; NaNs collapse to the single canonical NaN
+    private static long toSortable(double key) {
+        long bits = Double.doubleToLongBits(key);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static double fromSortable(long sortable) {
+        return Double.longBitsToDouble(sortable ^ ((sortable >> 63) & Long.MAX_VALUE));
+    }
+
+    public void insert(double key, E element) {
+        heap.insert(toSortable(key), element);
+    }
+
+    /**
+     * Removes the element with the smallest key.
+     * @return  the element, or null if the heap is empty
+     */
+    public E deleteMin() {
+        return heap.deleteMin();
+    }
+
+    // the element with the smallest key, or null if the heap is empty
+    public E findMin() {
+        return heap.findMin();
+    }
+
+    /**
+     * The smallest key in the heap.
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public double findMinKey() {
+        return fromSortable(heap.findMinKey());
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    public void clear() {
+        heap.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return heap.iterator();
+    }
+}
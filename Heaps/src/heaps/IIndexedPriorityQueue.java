@@ -0,0 +1,23 @@
+package heaps;
+
+/**
+ * Priority queue that can find any element it holds, so an element's
+ * priority can change, and the element can leave, while it is queued.
+ * Elements must be distinct (by equals), and their hashCode must not
+ * depend on the fields that decide their order.
+ */
+public interface IIndexedPriorityQueue<T extends Comparable<T>> extends IPriorityQueue<T> {
+
+    // element now compares lower than before; it moves toward the front
+    public void decreaseKey(T element);
+
+    // element now compares higher than before; it moves toward the back
+    public void increaseKey(T element);
+
+    // puts replacement in element's place, for elements that can't change
+    public void replace(T element, T replacement);
+
+    // removes element; false if it isn't queued
+    public boolean remove(T element);
+
+}
@@ -8,9 +8,8 @@ public interface IPriorityQueue<T extends Comparable<T>> extends Iterable<T> {
     public void insert(T element);
     public T deleteMin();
     public T findMin();  // peek()
-    // decrease(T element, int amount);
-    // increase(T element, int amount);
-    // remove(T element);
+    // decreaseKey, increaseKey and remove need to find the element in
+    // the heap: see IIndexedPriorityQueue
 
     // other standard methods
     public int size();
@@ -0,0 +1,266 @@
+package heaps;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary heap that knows where each element is.  Every element has a Slot
+ * recording its current index; a map from element to Slot finds it, and
+ * swim and sink update the slots as they move elements, so moving never
+ * touches the map.  decreaseKey, increaseKey, replace and remove are
+ * O(log n), and contains is O(1).
+ * <p>
+ * So that a changed priority is updated in place rather than queued
+ * again, inserting an element that is already queued is an error.
+ */
+public class IndexedBinaryHeap<E extends Comparable<E>> implements IIndexedPriorityQueue<E> {
+
+    // constants
+    private static final int INITIAL_CAPACITY = 10;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int MIN_INDEX = 1;
+
+    // instance variables
+    private E[] heap;
+    private Slot[] slots;  // slots[i] belongs to heap[i]
+    private Map<E, Slot> positions;
+    private int size; // represents the number of element in the heap
+    private int modcount;
+
+    // constructor
+    public IndexedBinaryHeap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    // presizes the heap and the position map for capacity elements
+    public IndexedBinaryHeap(int capacity) {
+        heap = newArray(Math.max(capacity, 1) + 1);
+        slots = new Slot[heap.length];
+        positions = new HashMap<>((int) (capacity / 0.75f) + 1);
+    }
+
+    @Override
+    public void insert(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot add null element to the heap!");
+        }
+        Slot slot = new Slot();
+        if (positions.putIfAbsent(element, slot) != null) {
+            throw new IllegalArgumentException("Element is already in the heap");
+        }
+
+        // is heap full?  if so, resize it
+        if (size == heap.length - 1) {
+            resize();
+        }
+
+        swim(++size, element, slot);
+        modcount++;
+    }
+
+    private void resize() {
+        E[] oldHeap = heap;
+        Slot[] oldSlots = slots;
+        heap = newArray(oldHeap.length * RESIZE_FACTOR);
+        slots = new Slot[heap.length];
+        System.arraycopy(oldHeap, 0, heap, 0, oldHeap.length);
+        System.arraycopy(oldSlots, 0, slots, 0, oldSlots.length);
+    }
+
+    // arrays of E can't be created directly; the heap only ever stores Es
+    @SuppressWarnings("unchecked")
+    private static <E extends Comparable<E>> E[] newArray(int length) {
+        return (E[]) new Comparable<?>[length];
+    }
+
+    // stores element and its slot at index
+    private void place(int index, E element, Slot slot) {
+        heap[index] = element;
+        slots[index] = slot;
+        slot.index = index;
+    }
+
+    // moves the hole at index up until element fits there, then fills it
+    private void swim(int index, E element, Slot slot) {
+        while (index > MIN_INDEX && element.compareTo(heap[index / 2]) < 0) {
+            place(index, heap[index / 2], slots[index / 2]);
+            index /= 2;
+        }
+        place(index, element, slot);
+    }
+
+    // moves the hole at index down until element fits there, then fills it
+    private void sink(int index, E element, Slot slot) {
+        while (index * 2 <= size) {
+            int child = 2 * index;
+
+            // check if the right child is smaller
+            if (child + 1 <= size && heap[child + 1].compareTo(heap[child]) < 0) child++;
+
+            if (heap[child].compareTo(element) >= 0) break;  // done
+            place(index, heap[child], slots[child]);
+            index = child;
+        }
+        place(index, element, slot);
+    }
+
+    @Override
+    public E deleteMin() {
+        // if heap is empty, return null
+        if (isEmpty()) {
+            return null;
+        }
+
+        E returnElement = heap[MIN_INDEX];
+        positions.remove(returnElement);
+        removeAt(MIN_INDEX);
+        return returnElement;
+    }
+
+    // fills index with the last leaf and restores the heap-order property
+    private void removeAt(int index) {
+        E last = heap[size];
+        Slot lastSlot = slots[size];
+        heap[size] = null;  // be a good citizen for my garbage collector
+        slots[size] = null;
+        size--;
+        if (index <= size) {
+            if (index > MIN_INDEX && last.compareTo(heap[index / 2]) < 0) {
+                swim(index, last, lastSlot);
+            } else {
+                sink(index, last, lastSlot);
+            }
+        }
+        modcount++;
+    }
+
+    /**
+     * Restores heap order after element's priority was lowered in place.
+     * @param element  an element in the heap
+     */
+    @Override
+    public void decreaseKey(E element) {
+        Slot slot = slotOf(element);
+        swim(slot.index, heap[slot.index], slot);
+        modcount++;
+    }
+
+    /**
+     * Restores heap order after element's priority was raised in place.
+     * @param element  an element in the heap
+     */
+    @Override
+    public void increaseKey(E element) {
+        Slot slot = slotOf(element);
+        sink(slot.index, heap[slot.index], slot);
+        modcount++;
+    }
+
+    /**
+     * Puts replacement where element was and moves it up or down as its
+     * priority requires.
+     * @param element  an element in the heap
+     * @param replacement  an element not in the heap
+     */
+    @Override
+    public void replace(E element, E replacement) {
+        if (replacement == null) {
+            throw new IllegalArgumentException("Cannot add null element to the heap!");
+        }
+        Slot slot = slotOf(element);
+        if (!element.equals(replacement) && positions.containsKey(replacement)) {
+            throw new IllegalArgumentException("Element is already in the heap");
+        }
+        positions.remove(element);
+        positions.put(replacement, slot);
+
+        int index = slot.index;
+        if (replacement.compareTo(element) < 0) {
+            swim(index, replacement, slot);
+        } else {
+            sink(index, replacement, slot);
+        }
+        modcount++;
+    }
+
+    @Override
+    public boolean remove(E element) {
+        if (element == null) return false;
+        Slot slot = positions.remove(element);
+        if (slot == null) return false;
+        removeAt(slot.index);
+        return true;
+    }
+
+    private Slot slotOf(E element) {
+        Slot slot = (element == null) ? null : positions.get(element);
+        if (slot == null) throw new NoSuchElementException("Element is not in the heap");
+        return slot;
+    }
+
+    @Override
+    public E findMin() {
+        return heap[MIN_INDEX];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        heap = newArray(INITIAL_CAPACITY + 1);
+        slots = new Slot[INITIAL_CAPACITY + 1];
+        positions = new HashMap<>();
+        modcount++;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        return element != null && positions.containsKey(element);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new HeapIterator();
+    }
+
+    // where an element is in the heap
+    private static class Slot {
+        private int index;
+    }
+
+    private class HeapIterator implements Iterator<E> {
+
+        private int nextIndex = MIN_INDEX;
+        private int origModCount;
+
+        public HeapIterator() {
+            origModCount = modcount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex <= size;
+        }
+
+        @Override
+        public E next() {
+            if (modcount != origModCount) {
+                throw new ConcurrentModificationException("Cannot modify heap during iteration");
+            }
+            if (!hasNext()) throw new NoSuchElementException();
+            return heap[nextIndex++];
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package heaps;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap ordered by a long key given with each element.  The keys
+ * live in a long[] next to the element array, so every comparison is one
+ * primitive compare: the elements are never asked to compare themselves,
+ * and need not be Comparable.  Elements may be null, for callers that only
+ * want the keys.
+ */
+public class LongKeyHeap<E> implements Iterable<E> {
+
+    // constants
+    private static final int INITIAL_CAPACITY = 10;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int MIN_INDEX = 1;
+
+    // instance variables
+    private long[] keys;  // keys[i] is the key of elements[i]
+    private E[] elements;
+    private int size; // represents the number of element in the heap
+    private int modcount;
+
+    // constructor
+    public LongKeyHeap() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public LongKeyHeap(int capacity) {
+        keys = new long[Math.max(capacity, 1) + 1];
+        elements = newElements(keys.length);
+    }
+
+    public void insert(long key, E element) {
+        // is heap full?  if so, resize it
+        if (size == keys.length - 1) {
+            resize();
+        }
+        swim(++size, key, element);
+        modcount++;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        E[] oldElements = elements;
+        keys = new long[oldKeys.length * RESIZE_FACTOR];
+        elements = newElements(keys.length);
+        System.arraycopy(oldKeys, 0, keys, 0, oldKeys.length);
+        System.arraycopy(oldElements, 0, elements, 0, oldElements.length);
+    }
+
+    // arrays of E can't be created directly; elements only ever stores Es
+    @SuppressWarnings("unchecked")
+    private static <E> E[] newElements(int length) {
+        return (E[]) new Object[length];
+    }
+
+    // moves the hole at index up until key fits there, then fills it
+    private void swim(int index, long key, E element) {
+        while (index > MIN_INDEX && key < keys[index / 2]) {
+            keys[index] = keys[index / 2];
+            elements[index] = elements[index / 2];
+            index /= 2;
+        }
+        keys[index] = key;
+        elements[index] = element;
+    }
+
+    // moves the hole at index down until key fits there, then fills it
+    private void sink(int index, long key, E element) {
+        while (index * 2 <= size) {
+            int child = 2 * index;
+
+            // check if the right child is smaller
+            if (child + 1 <= size && keys[child + 1] < keys[child]) child++;
+
+            if (keys[child] >= key) break;  // done
+            keys[index] = keys[child];
+            elements[index] = elements[child];
+            index = child;
+        }
+        keys[index] = key;
+        elements[index] = element;
+    }
+
+    /**
+     * Removes the element with the smallest key.
+     * @return  the element, or null if the heap is empty
+     */
+    public E deleteMin() {
+        // if heap is empty, return null
+        if (isEmpty()) {
+            return null;
+        }
+
+        E returnElement = elements[MIN_INDEX];
+        long lastKey = keys[size];
+        E last = elements[size];
+        elements[size--] = null;  // be a good citizen for my garbage collector
+        if (size > 0) {
+            sink(MIN_INDEX, lastKey, last);
+        }
+        modcount++;
+        return returnElement;
+    }
+
+    // the element with the smallest key, or null if the heap is empty
+    public E findMin() {
+        return elements[MIN_INDEX];
+    }
+
+    /**
+     * The smallest key in the heap.
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long findMinKey() {
+        if (isEmpty()) throw new NoSuchElementException("Heap is empty");
+        return keys[MIN_INDEX];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        keys = new long[INITIAL_CAPACITY + 1];
+        elements = newElements(INITIAL_CAPACITY + 1);
+        modcount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new HeapIterator();
+    }
+
+    private class HeapIterator implements Iterator<E> {
+
+        private int nextIndex = MIN_INDEX;
+        private int origModCount;
+
+        public HeapIterator() {
+            origModCount = modcount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex <= size;
+        }
+
+        @Override
+        public E next() {
+            if (modcount != origModCount) {
+                throw new ConcurrentModificationException("Cannot modify heap during iteration");
+            }
+            if (!hasNext()) throw new NoSuchElementException();
+            return elements[nextIndex++];
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package heaps;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Relaxed concurrent priority queue: c * p BinaryHeap shards, each behind
+ * its own lock, for p threads.  insert adds to a random shard.  deleteMin
+ * looks at the minimum of two random shards and deletes from the one with
+ * the smaller minimum, so threads seldom wait on the same lock.
+ * <p>
+ * The price is that deleteMin returns a small element rather than the
+ * smallest: the expected rank of the returned element among all queued
+ * elements is O(c * p), and it grows with the number of shards.  c trades
+ * contention (larger c) against rank error (smaller c).  A thread only
+ * gets null from deleteMin when every shard it checked was empty, so null
+ * means the queue was empty at some point during the call.
+ * <p>
+ * findMin, contains and the iterator lock one shard at a time, so they
+ * see a mix of states while other threads change the queue.  size counts
+ * an element from the start of its insert, so it can briefly include
+ * elements that deleteMin can't see yet, but is never negative.
+ */
+public class MultiQueue<E extends Comparable<E>> implements IPriorityQueue<E> {
+
+    // constants
+    private static final int DEFAULT_C = 2;
+    private static final int MAX_ATTEMPTS = 4;  // two-choice tries before scanning
+
+    // instance variables
+    private final Shard<E>[] shards;
+    private final AtomicInteger size = new AtomicInteger();
+
+    // constructor
+    public MultiQueue() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_C);
+    }
+
+    /**
+     * @param threads  the number of threads expected to use the queue
+     * @param c  shards per thread; at least 1
+     */
+    public MultiQueue(int threads, int c) {
+        if (threads < 1 || c < 1) {
+            throw new IllegalArgumentException("Need at least one thread and one shard per thread");
+        }
+        // two shards at least, so that deleteMin has two to choose from;
+        // every slot is filled with a Shard<E> below
+        @SuppressWarnings("unchecked")
+        Shard<E>[] created = (Shard<E>[]) new Shard<?>[Math.max(2, threads * c)];
+        for (int i = 0; i < created.length; i++) created[i] = new Shard<>();
+        shards = created;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    @Override
+    public void insert(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot add null element to the heap!");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<E> shard = shards[random.nextInt(shards.length)];
+        int attempt = 1;
+        while (!shard.lock.tryLock()) {  // taken: try somewhere else
+            shard = shards[random.nextInt(shards.length)];
+            if (++attempt == MAX_ATTEMPTS) {
+                shard.lock.lock();
+                break;
+            }
+        }
+        // counted before a deleteMin can see it, so size never goes below 0
+        size.incrementAndGet();
+        boolean inserted = false;
+        try {
+            shard.heap.insert(element);
+            shard.top = shard.heap.findMin();
+            inserted = true;
+        } finally {
+            if (!inserted) size.decrementAndGet();
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public E deleteMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Shard<E> first = shards[random.nextInt(shards.length)];
+            Shard<E> second = shards[random.nextInt(shards.length)];
+            Shard<E> better = isBetter(second.top, first.top) ? second : first;
+            if (better.top == null) continue;  // both look empty
+            if (!better.lock.tryLock()) continue;
+            try {
+                E element = better.poll();
+                if (element != null) {
+                    size.decrementAndGet();
+                    return element;
+                }
+            } finally {
+                better.lock.unlock();
+            }
+        }
+        return deleteFromAny();
+    }
+
+    // true if a is a smaller minimum than b; an empty shard's null is largest
+    private boolean isBetter(E a, E b) {
+        return a != null && (b == null || a.compareTo(b) < 0);
+    }
+
+    // slow path: waits for each shard's lock in turn, so an element that
+    // was queued throughout the call is found
+    private E deleteFromAny() {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Shard<E> shard = shards[(start + i) % shards.length];
+            if (shard.top == null) continue;
+            shard.lock.lock();
+            try {
+                E element = shard.poll();
+                if (element != null) {
+                    size.decrementAndGet();
+                    return element;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    // the smallest shard minimum, read without locking
+    @Override
+    public E findMin() {
+        E min = null;
+        for (Shard<E> shard : shards) {
+            E top = shard.top;
+            if (isBetter(top, min)) min = top;
+        }
+        return min;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                size.addAndGet(-shard.heap.size());
+                shard.heap.clear();
+                shard.top = null;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(E element) {
+        if (element == null) return false;
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                if (shard.heap.contains(element)) return true;
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    // iterates over a copy, taken one shard at a time; never throws
+    // ConcurrentModificationException
+    @Override
+    public Iterator<E> iterator() {
+        List<E> copy = new ArrayList<>(Math.max(size.get(), 0));
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                for (E e : shard.heap) copy.add(e);
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return copy.iterator();
+    }
+
+    // one BinaryHeap and its lock; top caches the heap's minimum so that
+    // deleteMin can choose between shards without locking them
+    private static class Shard<E extends Comparable<E>> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final BinaryHeap<E> heap = new BinaryHeap<>();
+        private volatile E top;
+
+        // call with the lock held
+        private E poll() {
+            E element = heap.deleteMin();
+            top = heap.findMin();
+            return element;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package heaps;
+
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pairing heap: a tree where every node is no larger than its children,
+ * each node keeping its children as a linked list.  insert and meld link
+ * two trees with one comparison, O(1).  deleteMin links the root's
+ * children in pairs left to right, then folds the pairs right to left,
+ * amortized O(log n).  decreaseKey cuts a node from its parent and links
+ * it to the root, and needs the Handle that insertHandle returned.
+ * <p>
+ * Nodes of deleted elements are kept on a free list and reused by insert,
+ * so a heap that is filled and drained over and over stops allocating.
+ * Nodes behind a Handle are never reused, so an old handle can't
+ * reach somebody else's element.
+ * <p>
+ * Each handle records the heap it belongs to through an Owner: clear
+ * retires the heap's Owner, and meld forwards the emptied heap's Owner to
+ * the receiving heap's.  decreaseKey and remove reject a handle whose
+ * Owner doesn't lead to this heap, so a handle from before a clear, or
+ * from another heap, can't reach into the tree.
+ */
+public class PairingHeap<E extends Comparable<E>> implements IPriorityQueue<E> {
+
+    // constants
+    private static final int MAX_POOL_SIZE = 1 << 16;
+
+    // instance variables
+    private Handle<E> root;
+    private Owner owner = new Owner();  // of the handles handed out since the last clear
+    private Handle<E> pool;  // free nodes, chained through sibling
+    private int poolSize;
+    private int size; // represents the number of element in the heap
+    private int modcount;
+
+    @Override
+    public void insert(E element) {
+        insert(element, false);
+    }
+
+    /**
+     * Inserts element and returns its handle, for decreaseKey and remove.
+     * The handle is valid until element leaves the heap, or the heap is
+     * cleared.
+     */
+    public Handle<E> insertHandle(E element) {
+        return insert(element, true);
+    }
+
+    private Handle<E> insert(E element, boolean pinned) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot add null element to the heap!");
+        }
+        Handle<E> node;
+        if (pool != null && !pinned) {
+            node = pool;
+            pool = node.sibling;
+            node.sibling = null;
+            poolSize--;
+        } else {
+            node = new Handle<>();
+            node.pinned = pinned;
+            if (pinned) node.owner = owner;
+        }
+        node.element = element;
+        root = (root == null) ? node : link(root, node);
+        size++;
+        modcount++;
+        return node;
+    }
+
+    /**
+     * Moves every element of other into this heap in O(1), leaving other
+     * empty.  Handles from other stay valid and now belong to this heap.
+     */
+    public void meld(PairingHeap<E> other) {
+        if (other == this || other.root == null) return;
+        root = (root == null) ? other.root : link(root, other.root);
+        size += other.size;
+        if (pool == null) {  // other's free nodes are only worth taking whole
+            pool = other.pool;
+            poolSize = other.poolSize;
+        }
+        other.owner.forward = owner;  // other's handles now belong here
+        other.owner = new Owner();
+        other.root = null;
+        other.pool = null;
+        other.size = 0;
+        other.poolSize = 0;
+        other.modcount++;
+        modcount++;
+    }
+
+    // makes the larger root the first child of the smaller and returns the
+    // smaller; both must be roots, with no siblings
+    private Handle<E> link(Handle<E> a, Handle<E> b) {
+        if (b.element.compareTo(a.element) < 0) {
+            Handle<E> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.sibling = a.child;
+        if (a.child != null) a.child.prev = b;
+        b.prev = a;
+        a.child = b;
+        return a;
+    }
+
+    // links a list of siblings into one tree: pairs left to right, then the
+    // pairs right to left
+    private Handle<E> mergePairs(Handle<E> first) {
+        if (first == null) return null;
+
+        // first pass: the linked pairs are pushed onto a stack through
+        // sibling, so the rightmost pair ends up on top
+        Handle<E> pairs = null;
+        Handle<E> a = first;
+        while (a != null) {
+            Handle<E> b = a.sibling;
+            a.prev = null;
+            if (b == null) {
+                a.sibling = pairs;
+                pairs = a;
+                break;
+            }
+            Handle<E> next = b.sibling;
+            a.sibling = null;
+            b.sibling = null;
+            b.prev = null;
+            Handle<E> pair = link(a, b);
+            pair.sibling = pairs;
+            pairs = pair;
+            a = next;
+        }
+
+        // second pass: fold the pairs from right to left
+        Handle<E> result = pairs;
+        pairs = pairs.sibling;
+        result.sibling = null;
+        while (pairs != null) {
+            Handle<E> next = pairs.sibling;
+            pairs.sibling = null;
+            result = link(result, pairs);
+            pairs = next;
+        }
+        return result;
+    }
+
+    @Override
+    public E deleteMin() {
+        // if heap is empty, return null
+        if (isEmpty()) {
+            return null;
+        }
+
+        Handle<E> min = root;
+        E returnElement = min.element;
+        root = mergePairs(min.child);
+        release(min);
+        size--;
+        modcount++;
+        return returnElement;
+    }
+
+    // returns a node that has left the heap to the pool
+    private void release(Handle<E> node) {
+        node.element = null;  // be a good citizen for my garbage collector
+        node.child = null;
+        node.sibling = null;
+        node.prev = null;
+        if (!node.pinned && poolSize < MAX_POOL_SIZE) {
+            node.sibling = pool;
+            pool = node;
+            poolSize++;
+        }
+    }
+
+    /**
+     * Restores heap order after the handle's element was lowered in place.
+     * @throws IllegalStateException if the element has left the heap, or
+     *         the handle belongs to another heap
+     */
+    public void decreaseKey(Handle<E> handle) {
+        checkQueued(handle);
+        if (handle != root) {
+            cut(handle);
+            root = link(root, handle);
+        }
+        modcount++;
+    }
+
+    /**
+     * Removes the handle's element from the heap.
+     * @return  false if it had already left the heap, or the handle belongs
+     *          to another heap
+     */
+    public boolean remove(Handle<E> handle) {
+        if (!isQueued(handle)) return false;
+        if (handle == root) {
+            deleteMin();
+            return true;
+        }
+        cut(handle);
+        Handle<E> children = mergePairs(handle.child);
+        if (children != null) root = link(root, children);
+        release(handle);
+        size--;
+        modcount++;
+        return true;
+    }
+
+    private void checkQueued(Handle<E> handle) {
+        if (!isQueued(handle)) {
+            throw new IllegalStateException("Element is not in the heap");
+        }
+    }
+
+    // is the handle's element in this heap, not deleted or cleared?
+    private boolean isQueued(Handle<E> handle) {
+        return handle.element != null && handle.owner() == owner;
+    }
+
+    // detaches node, with its subtree, from its parent and siblings
+    private void cut(Handle<E> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.sibling;
+        } else {
+            node.prev.sibling = node.sibling;
+        }
+        if (node.sibling != null) node.sibling.prev = node.prev;
+        node.sibling = null;
+        node.prev = null;
+    }
+
+    @Override
+    public E findMin() {
+        return (root == null) ? null : root.element;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        owner.retired = true;  // every handle handed out so far is stale
+        owner = new Owner();
+        root = null;
+        size = 0;
+        modcount++;
+    }
+
+    @Override
+    public boolean contains(E element) {
+        for (E e : this) {
+            if (e.equals(element)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new HeapIterator();
+    }
+
+    /**
+     * A queued element's node.  Its links are private to the heap.
+     */
+    public static final class Handle<E> {
+        private E element;
+        private Handle<E> child;    // leftmost child
+        private Handle<E> sibling;  // next sibling to the right
+        private Handle<E> prev;     // left sibling, or parent if leftmost
+        private boolean pinned;     // handed out: never reused
+        private Owner owner;        // set when pinned
+
+        private Handle() {
+        }
+
+        // the element, or null once it has left the heap (cleared included)
+        public E getElement() {
+            return (element == null || owner().retired) ? null : element;
+        }
+
+        // the Owner at the end of the forwarding chain; shortens the chain
+        // as it goes, so repeated melds stay cheap to follow
+        private Owner owner() {
+            while (owner.forward != null) {
+                if (owner.forward.forward != null) owner.forward = owner.forward.forward;
+                owner = owner.forward;
+            }
+            return owner;
+        }
+    }
+
+    // identifies the handles of one heap between clears; a melded-away
+    // heap's Owner forwards to the heap that took its elements
+    private static final class Owner {
+        private Owner forward;
+        private boolean retired;
+    }
+
+    // visits the tree depth first; the order is not sorted
+    private class HeapIterator implements Iterator<E> {
+
+        private Deque<Handle<E>> stack = new ArrayDeque<>();
+        private int origModCount;
+
+        public HeapIterator() {
+            origModCount = modcount;
+            if (root != null) stack.push(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (modcount != origModCount) {
+                throw new ConcurrentModificationException("Cannot modify heap during iteration");
+            }
+            if (!hasNext()) throw new NoSuchElementException();
+            Handle<E> node = stack.pop();
+            if (node.sibling != null) stack.push(node.sibling);
+            if (node.child != null) stack.push(node.child);
+            return node.element;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package heaps;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strict, lock-free concurrent priority queue on a ConcurrentSkipListSet.
+ * deleteMin always returns the smallest element, unlike MultiQueue, but
+ * every deleteMin by every thread competes for the head of the same list.
+ * Equal elements are kept apart by an insertion sequence number, so they
+ * come out first in, first out.
+ * <p>
+ * The iterator is weakly consistent, as the skip list's is: it returns
+ * elements in order and never throws ConcurrentModificationException.
+ * size and isEmpty read one counter, which counts an element from the
+ * start of its insert; it is never negative.
+ */
+public class SkipListPriorityQueue<E extends Comparable<E>> implements IPriorityQueue<E> {
+
+    // instance variables
+    private final ConcurrentSkipListSet<Entry<E>> entries = new ConcurrentSkipListSet<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();  // the set's size() is O(n)
+
+    @Override
+    public void insert(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot add null element to the heap!");
+        }
+        // counted before a deleteMin can see it, so size never goes below 0
+        size.incrementAndGet();
+        boolean added = false;
+        try {
+            added = entries.add(new Entry<>(element, sequence.getAndIncrement()));
+        } finally {
+            if (!added) size.decrementAndGet();
+        }
+    }
+
+    @Override
+    public E deleteMin() {
+        Entry<E> entry = entries.pollFirst();
+        if (entry == null) return null;
+        size.decrementAndGet();
+        return entry.element;
+    }
+
+    @Override
+    public E findMin() {
+        for (Entry<E> entry : entries) return entry.element;  // first() throws when empty
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public void clear() {
+        Entry<E> entry;
+        while ((entry = entries.pollFirst()) != null) size.decrementAndGet();
+    }
+
+    @Override
+    public boolean contains(E element) {
+        if (element == null) return false;
+        for (Entry<E> entry : entries) {
+            if (element.equals(entry.element)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Entry<E>> it = entries.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next().element;
+            }
+        };
+    }
+
+    // an element and its insertion number, which breaks ties
+    private static class Entry<E extends Comparable<E>> implements Comparable<Entry<E>> {
+        private final E element;
+        private final long sequence;
+
+        public Entry(E element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+
+        public int compareTo(Entry<E> other) {
+            int result = element.compareTo(other.element);
+            return (result != 0) ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
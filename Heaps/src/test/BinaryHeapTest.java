@@ -5,8 +5,10 @@ import heaps.BinaryHeap;
 import static org.junit.Assert.*;
 import org.junit.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
+import java.util.List;
 
 public class BinaryHeapTest {
 
@@ -80,6 +82,78 @@ public class BinaryHeapTest {
         assertNull("findMin returned non-null value", heap.findMin());
     }
 
+    @Test
+    public void testArrayConstructor() {
+        heap = new BinaryHeap<>(tasks);
+        assertEquals("Heap built from array has wrong size", tasks.length, heap.size());
+        assertDrainsInOrder(tasks.length);
+    }
+
+    @Test
+    public void testCollectionConstructor() {
+        heap = new BinaryHeap<>(Arrays.asList(tasks));
+        assertEquals("Heap built from collection has wrong size", tasks.length, heap.size());
+        heap.insert(tasks[0]);  // resizes the exactly-sized array
+        assertDrainsInOrder(tasks.length + 1);
+    }
+
+    @Test
+    public void testEmptyArrayConstructor() {
+        heap = new BinaryHeap<>(new Task[0]);
+        assertTrue("Heap built from empty array is not empty", heap.isEmpty());
+        heap.insert(tasks[0]);
+        assertSame("Task was not inserted", tasks[0], heap.findMin());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testArrayConstructorBadTask() {
+        heap = new BinaryHeap<>(new Task[]{tasks[0], null});
+    }
+
+    @Test
+    public void testInsertAllSmallBatch() {
+        for (int i = 0; i < 6; i++) heap.insert(tasks[i]);
+        heap.insertAll(Arrays.asList(tasks).subList(6, tasks.length));  // swum in
+        assertEquals("Tasks were not inserted", tasks.length, heap.size());
+        assertDrainsInOrder(tasks.length);
+    }
+
+    @Test
+    public void testInsertAllLargeBatch() {
+        heap.insert(tasks[8]);
+        heap.insertAll(Arrays.asList(tasks).subList(0, 8));  // heap rebuilt
+        assertEquals("Tasks were not inserted", tasks.length, heap.size());
+        assertDrainsInOrder(tasks.length);
+    }
+
+    @Test
+    public void testDrainTo() {
+        for (Task t : tasks) heap.insert(t);
+        List<Task> drained = new ArrayList<>();
+        assertEquals("Wrong number drained", 4, heap.drainTo(drained, 4));
+        assertEquals("Wrong size after drain", tasks.length - 4, heap.size());
+        for (int i = 1; i < drained.size(); i++) {
+            assertTrue("Drained out of order", drained.get(i - 1).compareTo(drained.get(i)) <= 0);
+        }
+        assertTrue("Drained tasks are not the smallest", drained.get(3).compareTo(heap.findMin()) <= 0);
+        assertEquals("Wrong number drained", tasks.length - 4, heap.drainTo(drained, 100));
+        assertTrue("Drained heap is not empty", heap.isEmpty());
+        assertEquals("Tasks were lost", tasks.length, drained.size());
+    }
+
+    // empties the heap, checking tasks come out in order
+    private void assertDrainsInOrder(int expected) {
+        Task previous = null;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            Task next = heap.deleteMin();
+            if (previous != null) assertTrue("Heap order violated", previous.compareTo(next) <= 0);
+            previous = next;
+            count++;
+        }
+        assertEquals("Tasks were lost", expected, count);
+    }
+
     @Test
     public void clear() {
     }
@@ -0,0 +1,104 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import heaps.BinaryHeap;
+
+/**
+ * BinaryHeap bulk operations against one element at a time:
+ * <ul>
+ * <li>build: new BinaryHeap(array) against n inserts into an empty heap</li>
+ * <li>insertAll: a batch of k added to a heap of n, against k inserts, for
+ *     batches from much smaller to much larger than the heap</li>
+ * <li>drainTo: all elements drained in batches against n deleteMins</li>
+ * </ul>
+ * Elements are random Integers, or descending ones with the "sorted" argument
+ * (the worst case for insert, which then swims every element to the root).
+ * Usage: BulkHeapBenchmark [elements] [sorted]
+ */
+public class BulkHeapBenchmark {
+
+    private static final int WARMUP_RUNS = 100;
+    private static final int WARMUP_SIZE = 20000;
+    private static final int DRAIN_BATCH = 256;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+        boolean sorted = args.length > 1 && args[1].equals("sorted");
+
+        Random random = new Random(23);
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) values[i] = sorted ? -i : random.nextInt();  // descending: each new value is the min
+        Integer[] warmup = Arrays.copyOf(values, Math.min(n, WARMUP_SIZE));
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            build(false, warmup);
+            batch(false, warmup, warmup.length / 2);
+            drain(false, warmup);
+        }
+
+        System.out.printf("%-30s %12s %12s%n", "operation", "bulk ms", "single ms");
+        build(true, values);
+        for (int divisor : new int[]{64, 8, 2, 1}) {
+            batch(true, values, values.length / (divisor + 1));  // heap is divisor times the batch
+        }
+        for (int multiple : new int[]{2, 8}) {
+            batch(true, values, values.length * multiple / (multiple + 1));
+        }
+        drain(true, values);
+    }
+
+    private static void build(boolean print, Integer[] values) {
+        long start = System.nanoTime();
+        BinaryHeap<Integer> bulk = new BinaryHeap<>(values);
+        long built = System.nanoTime();
+        BinaryHeap<Integer> single = new BinaryHeap<>();
+        for (Integer v : values) single.insert(v);
+        long inserted = System.nanoTime();
+        check(bulk, single);
+        if (print) report("build " + values.length, built - start, inserted - built);
+    }
+
+    // a heap of values.length - k, then k more
+    private static void batch(boolean print, Integer[] values, int k) {
+        int n = values.length - k;
+        List<Integer> batch = new ArrayList<>(Arrays.asList(values).subList(n, values.length));
+        BinaryHeap<Integer> bulk = new BinaryHeap<>(Arrays.copyOf(values, n));
+        BinaryHeap<Integer> single = new BinaryHeap<>(Arrays.copyOf(values, n));
+        long start = System.nanoTime();
+        bulk.insertAll(batch);
+        long added = System.nanoTime();
+        for (Integer v : batch) single.insert(v);
+        long inserted = System.nanoTime();
+        check(bulk, single);
+        if (print) report("insertAll " + k + " into " + n, added - start, inserted - added);
+    }
+
+    private static void drain(boolean print, Integer[] values) {
+        BinaryHeap<Integer> bulk = new BinaryHeap<>(values);
+        BinaryHeap<Integer> single = new BinaryHeap<>(values);
+        List<Integer> out = new ArrayList<>(DRAIN_BATCH);
+        long check = 0;
+        long start = System.nanoTime();
+        while (bulk.drainTo(out, DRAIN_BATCH) > 0) {
+            for (Integer v : out) check += v;
+            out.clear();
+        }
+        long drained = System.nanoTime();
+        while (!single.isEmpty()) check -= single.deleteMin();
+        long deleted = System.nanoTime();
+        if (check != 0) throw new IllegalStateException("drainTo and deleteMin differ");
+        if (print) report("drainTo " + values.length, drained - start, deleted - drained);
+    }
+
+    private static void check(BinaryHeap<Integer> a, BinaryHeap<Integer> b) {
+        if (a.size() != b.size() || !a.findMin().equals(b.findMin())) {
+            throw new IllegalStateException("Bulk and single heaps differ");
+        }
+    }
+
+    private static void report(String name, long bulkNanos, long singleNanos) {
+        System.out.printf("%-30s %12.1f %12.1f%n", name, bulkNanos / 1e6, singleNanos / 1e6);
+    }
+}
@@ -0,0 +1,92 @@
+package test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import heaps.BinaryHeap;
+import heaps.MultiQueue;
+import heaps.SkipListPriorityQueue;
+
+/**
+ * Throughput of concurrent priority queues under a mixed load: each of p
+ * threads repeatedly inserts a random Integer and then deletes the
+ * minimum, on a queue prefilled with a million elements.  Compares a
+ * BinaryHeap behind one lock, PriorityBlockingQueue, SkipListPriorityQueue
+ * and MultiQueue with c = 2 and c = 4 shards per thread.  Throughput only
+ * means something with as many cores as threads.
+ * Usage: ConcurrentHeapBenchmark [threads] [operations per thread]
+ */
+public class ConcurrentHeapBenchmark {
+
+    private static final int PREFILL = 1000000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = (args.length > 0) ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int operations = (args.length > 1) ? Integer.parseInt(args[1]) : 1000000;
+
+        System.out.printf("%d threads, %d cores%n", threads, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-26s %14s%n", "queue", "Mops/s");
+        for (int round = 0; round < 2; round++) {  // first round is warm-up
+            boolean print = round > 0;
+            run(print, "synchronized BinaryHeap", threads, operations, new Queue() {
+                private final BinaryHeap<Integer> heap = new BinaryHeap<>();
+                public synchronized void insert(Integer value) { heap.insert(value); }
+                public synchronized Integer deleteMin() { return heap.deleteMin(); }
+            });
+            run(print, "PriorityBlockingQueue", threads, operations, new Queue() {
+                private final PriorityBlockingQueue<Integer> queue = new PriorityBlockingQueue<>();
+                public void insert(Integer value) { queue.add(value); }
+                public Integer deleteMin() { return queue.poll(); }
+            });
+            run(print, "SkipListPriorityQueue", threads, operations, new Queue() {
+                private final SkipListPriorityQueue<Integer> queue = new SkipListPriorityQueue<>();
+                public void insert(Integer value) { queue.insert(value); }
+                public Integer deleteMin() { return queue.deleteMin(); }
+            });
+            for (int c : new int[]{2, 4}) {
+                MultiQueue<Integer> multi = new MultiQueue<>(threads, c);
+                run(print, "MultiQueue c=" + c, threads, operations, new Queue() {
+                    public void insert(Integer value) { multi.insert(value); }
+                    public Integer deleteMin() { return multi.deleteMin(); }
+                });
+            }
+        }
+    }
+
+    private static void run(boolean print, String name, int threads, int operations, Queue queue)
+            throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < PREFILL; i++) queue.insert(random.nextInt());
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            workers[w] = new Thread(() -> {
+                ThreadLocalRandom r = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    queue.insert(r.nextInt());
+                    queue.deleteMin();
+                }
+            });
+            workers[w].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        long elapsed = System.nanoTime() - begin;
+        if (print) {
+            System.out.printf("%-26s %14.2f%n", name, 2.0 * threads * operations * 1e3 / elapsed);
+        }
+    }
+
+    // the two operations under test, whatever queue is behind them
+    private interface Queue {
+        void insert(Integer value);
+        Integer deleteMin();
+    }
+}
@@ -0,0 +1,66 @@
+package test;
+
+import java.util.Random;
+import heaps.BinaryHeap;
+import heaps.DaryHeap;
+import heaps.IPriorityQueue;
+
+/**
+ * insert and deleteMin throughput of DaryHeap at arity 2, 4 and 8, against
+ * BinaryHeap: n random Integers are inserted, then all are deleted.  Each
+ * heap is first warmed up on many small runs so that insert and deleteMin
+ * are fully compiled before the timed run.  Run with a heap of a few GB
+ * (for example -Xmx4g) for the default 10M elements.
+ * Usage: DaryHeapBenchmark [elements] [heap: binary, 2, 4 or 8]
+ */
+public class DaryHeapBenchmark {
+
+    private static final int WARMUP_RUNS = 200;
+    private static final int WARMUP_SIZE = 20000;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 10000000;
+        String only = (args.length > 1) ? args[1] : null;
+
+        Random random = new Random(3);
+        Integer[] values = new Integer[n];
+        for (int i = 0; i < n; i++) values[i] = random.nextInt();
+        Integer[] warmup = new Integer[WARMUP_SIZE];
+        System.arraycopy(values, 0, warmup, 0, Math.min(n, WARMUP_SIZE));
+        for (int i = n; i < WARMUP_SIZE; i++) warmup[i] = random.nextInt();
+
+        System.out.printf("%-14s %16s %16s%n", "heap", "insert Mops/s", "deleteMin Mops/s");
+        for (String heap : new String[]{"binary", "2", "4", "8"}) {
+            if (only != null && !only.equals(heap)) continue;
+            for (int i = 0; i < WARMUP_RUNS; i++) run(false, heap, warmup);
+            run(true, heap, values);
+        }
+    }
+
+    private static IPriorityQueue<Integer> newHeap(String heap) {
+        return heap.equals("binary") ? new BinaryHeap<>() : new DaryHeap<>(Integer.parseInt(heap));
+    }
+
+    private static void run(boolean print, String name, Integer[] values) {
+        IPriorityQueue<Integer> heap = newHeap(name);
+        long start = System.nanoTime();
+        insertAll(heap, values);
+        long inserted = System.nanoTime();
+        long check = deleteAll(heap);
+        long deleted = System.nanoTime();
+        if (print) {
+            System.out.printf("%-14s %16.2f %16.2f   (%d)%n", name.equals("binary") ? "BinaryHeap" : "DaryHeap d=" + name,
+                    values.length * 1e3 / (inserted - start), values.length * 1e3 / (deleted - inserted), check);
+        }
+    }
+
+    private static void insertAll(IPriorityQueue<Integer> heap, Integer[] values) {
+        for (Integer value : values) heap.insert(value);
+    }
+
+    private static long deleteAll(IPriorityQueue<Integer> heap) {
+        long check = 0;
+        while (!heap.isEmpty()) check += heap.deleteMin();
+        return check;
+    }
+}
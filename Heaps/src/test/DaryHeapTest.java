@@ -0,0 +1,126 @@
+package test;
+
+import heaps.DaryHeap;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Random;
+
+public class DaryHeapTest {
+
+    // arities under test
+    final int[] arities = {2, 4, 8};
+
+    // mock data
+    final Task[] tasks = {
+            new Task(Priority.HIGH, 1, "Finish homework"),
+            new Task(Priority.MEDIUM, 2, "Go to gym"),
+            new Task(Priority.LOW, 1, "check Facebook"),
+            new Task(Priority.MEDIUM, 1, "get groceries"),
+            new Task(Priority.MEDIUM, 3, "go to dinner"),
+            new Task(Priority.LOW, 2, "play football"),
+            new Task(Priority.HIGH, 1, "pay bills"),
+            new Task(Priority.MEDIUM, 3, "Clean house"),
+            new Task(Priority.HIGH, 2, "feed cats")
+    };
+
+    @Test
+    public void testEmptyHeap() {
+        for (int arity : arities) {
+            DaryHeap<Task> heap = new DaryHeap<>(arity);
+            assertTrue("Empty heap is not empty", heap.isEmpty());
+            assertNull("delete min returned non-null value", heap.deleteMin());
+            assertNull("findMin returned non-null value", heap.findMin());
+            assertFalse("Task was found in empty heap", heap.contains(tasks[0]));
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testBadArity() {
+        new DaryHeap<Task>(3);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInsertBadTask() {
+        new DaryHeap<Task>(4).insert(null);
+    }
+
+    @Test
+    public void testTasksComeOutInPriorityOrder() {
+        Task[] sorted = tasks.clone();
+        Arrays.sort(sorted);
+        for (int arity : arities) {
+            DaryHeap<Task> heap = new DaryHeap<>(arity);
+            for (Task t : tasks) heap.insert(t);
+            assertEquals("Tasks were not inserted", tasks.length, heap.size());
+            assertTrue("Task was not inserted", heap.contains(tasks[4]));
+            for (Task expected : sorted) {
+                assertEquals("Wrong priority from arity " + arity, expected.getPriority(), heap.deleteMin().getPriority());
+            }
+            assertTrue("Heap is not empty after deleting all", heap.isEmpty());
+        }
+    }
+
+    @Test
+    public void testRandomInsertsAndDeletes() {
+        Random random = new Random(42);
+        for (int arity : arities) {
+            DaryHeap<Integer> heap = new DaryHeap<>(arity, 1);  // forces resizes
+            java.util.PriorityQueue<Integer> expected = new java.util.PriorityQueue<>();
+            for (int i = 0; i < 20000; i++) {
+                if (random.nextInt(3) == 0) {
+                    assertEquals("Wrong minimum from arity " + arity, expected.poll(), heap.deleteMin());
+                } else {
+                    int value = random.nextInt(1000);
+                    heap.insert(value);
+                    expected.add(value);
+                }
+                assertEquals("Wrong size from arity " + arity, expected.size(), heap.size());
+                assertEquals("Wrong findMin from arity " + arity, expected.peek(), heap.findMin());
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        DaryHeap<Task> heap = new DaryHeap<>(8);
+        for (Task t : tasks) heap.insert(t);
+        heap.clear();
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        heap.insert(tasks[2]);
+        assertSame("Task was not inserted after clear", tasks[2], heap.findMin());
+    }
+
+    @Test
+    public void testMultiElemHeapIterator() {
+        for (int arity : arities) {
+            DaryHeap<Task> heap = new DaryHeap<>(arity);
+            for (Task t : tasks) heap.insert(t);
+
+            Task[] foundTasks = new Task[tasks.length];
+            int i = 0;
+            for (Task t : heap) {
+                foundTasks[i++] = t;
+            }
+
+            Task[] initTasks = tasks.clone();
+            Arrays.sort(initTasks);
+            Arrays.sort(foundTasks);
+            assertArrayEquals("Values from iterator don't match starting values", initTasks, foundTasks);
+        }
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void testModWhileIterating() {
+        DaryHeap<Task> heap = new DaryHeap<>(4);
+        for (Task t : tasks) {
+            heap.insert(t);
+        }
+        for (Task t : heap) {
+            heap.deleteMin();
+        }
+    }
+}
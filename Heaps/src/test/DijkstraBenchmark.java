@@ -0,0 +1,146 @@
+package test;
+
+import java.util.Random;
+import heaps.BinaryHeap;
+import heaps.IndexedBinaryHeap;
+
+/**
+ * Shortest paths on a random directed graph, computed two ways: with
+ * BinaryHeap, queueing a new entry whenever a distance improves and
+ * skipping stale entries on deleteMin, and with IndexedBinaryHeap, moving
+ * the queued node up with decreaseKey.  Reports time and the largest heap
+ * each way.
+ * Usage: DijkstraBenchmark [nodes] [edges per node]
+ */
+public class DijkstraBenchmark {
+
+    private static final int MAX_WEIGHT = 1000;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+        int degree = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+
+        // adjacency lists in compressed form: edges of node u are
+        // targets[offsets[u]] .. targets[offsets[u + 1] - 1]
+        Random random = new Random(5);
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n * degree];
+        int[] weights = new int[n * degree];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + degree;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                targets[e] = random.nextInt(n);
+                weights[e] = 1 + random.nextInt(MAX_WEIGHT);
+            }
+        }
+
+        System.out.printf("%-22s %10s %12s %12s%n", "heap", "ms", "max size", "inserts");
+        for (int round = 0; round < 4; round++) {  // first rounds are warm-up
+            boolean print = round >= 2;
+            long[] lazy = lazyDeletion(print, offsets, targets, weights);
+            long[] indexed = decreaseKey(print, offsets, targets, weights);
+            for (int u = 0; u < n; u++) {
+                if (lazy[u] != indexed[u]) throw new IllegalStateException("Distances differ at node " + u);
+            }
+        }
+    }
+
+    private static long[] lazyDeletion(boolean print, int[] offsets, int[] targets, int[] weights) {
+        long start = System.nanoTime();
+        int n = offsets.length - 1;
+        long[] dist = new long[n];
+        java.util.Arrays.fill(dist, Long.MAX_VALUE);
+        dist[0] = 0;
+
+        BinaryHeap<Entry> heap = new BinaryHeap<>();
+        heap.insert(new Entry(0, 0));
+        int maxSize = 1;
+        long inserts = 1;
+        while (!heap.isEmpty()) {
+            Entry entry = heap.deleteMin();
+            if (entry.dist > dist[entry.node]) continue;  // stale
+            for (int e = offsets[entry.node]; e < offsets[entry.node + 1]; e++) {
+                long d = entry.dist + weights[e];
+                if (d < dist[targets[e]]) {
+                    dist[targets[e]] = d;
+                    heap.insert(new Entry(targets[e], d));
+                    inserts++;
+                    maxSize = Math.max(maxSize, heap.size());
+                }
+            }
+        }
+        if (print) report("BinaryHeap (lazy)", start, maxSize, inserts);
+        return dist;
+    }
+
+    private static long[] decreaseKey(boolean print, int[] offsets, int[] targets, int[] weights) {
+        long start = System.nanoTime();
+        int n = offsets.length - 1;
+        Node[] nodes = new Node[n];
+        for (int u = 0; u < n; u++) nodes[u] = new Node(u);
+        nodes[0].dist = 0;
+
+        IndexedBinaryHeap<Node> heap = new IndexedBinaryHeap<>(n);
+        heap.insert(nodes[0]);
+        int maxSize = 1;
+        long inserts = 1;
+        while (!heap.isEmpty()) {
+            Node node = heap.deleteMin();
+            for (int e = offsets[node.id]; e < offsets[node.id + 1]; e++) {
+                Node target = nodes[targets[e]];
+                long d = node.dist + weights[e];
+                if (d < target.dist) {
+                    // with non-negative weights a node that can still improve
+                    // has not been deleted, so it is queued once reached
+                    boolean queued = target.dist != Long.MAX_VALUE;
+                    target.dist = d;
+                    if (queued) {
+                        heap.decreaseKey(target);
+                    } else {
+                        heap.insert(target);
+                        inserts++;
+                        maxSize = Math.max(maxSize, heap.size());
+                    }
+                }
+            }
+        }
+        if (print) report("IndexedBinaryHeap", start, maxSize, inserts);
+
+        long[] dist = new long[n];
+        for (int u = 0; u < n; u++) dist[u] = nodes[u].dist;
+        return dist;
+    }
+
+    private static void report(String name, long start, int maxSize, long inserts) {
+        System.out.printf("%-22s %10.1f %12d %12d%n", name, (System.nanoTime() - start) / 1e6, maxSize, inserts);
+    }
+
+    // a queued distance for the lazy version; never changes
+    private static class Entry implements Comparable<Entry> {
+        private final int node;
+        private final long dist;
+
+        public Entry(int node, long dist) {
+            this.node = node;
+            this.dist = dist;
+        }
+
+        public int compareTo(Entry other) {
+            return Long.compare(dist, other.dist);
+        }
+    }
+
+    // a node whose distance drops while it is queued
+    private static class Node implements Comparable<Node> {
+        private final int id;
+        private long dist = Long.MAX_VALUE;
+
+        public Node(int id) {
+            this.id = id;
+        }
+
+        public int compareTo(Node other) {
+            return Long.compare(dist, other.dist);
+        }
+    }
+}
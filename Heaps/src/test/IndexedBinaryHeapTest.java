@@ -0,0 +1,151 @@
+package test;
+
+import heaps.IndexedBinaryHeap;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class IndexedBinaryHeapTest {
+
+    // fields
+    IndexedBinaryHeap<Task> heap = new IndexedBinaryHeap<>();
+
+    // mock data
+    final Task[] tasks = {
+            new Task(Priority.HIGH, 1, "Finish homework"),
+            new Task(Priority.MEDIUM, 2, "Go to gym"),
+            new Task(Priority.LOW, 1, "check Facebook"),
+            new Task(Priority.MEDIUM, 1, "get groceries"),
+            new Task(Priority.MEDIUM, 3, "go to dinner"),
+            new Task(Priority.LOW, 2, "play football"),
+            new Task(Priority.HIGH, 1, "pay bills"),
+            new Task(Priority.MEDIUM, 3, "Clean house"),
+            new Task(Priority.HIGH, 2, "feed cats")
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        heap = new IndexedBinaryHeap<>();  // construct empty heap
+    }
+
+    @Test
+    public void testEmptyHeap() {
+        assertTrue("Empty heap is not empty", heap.isEmpty());
+        assertNull("delete min returned non-null value", heap.deleteMin());
+        assertNull("findMin returned non-null value", heap.findMin());
+        assertFalse("Task was found in empty heap", heap.contains(tasks[0]));
+        assertFalse("Task was removed from empty heap", heap.remove(tasks[0]));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInsertBadTask() {
+        heap.insert(null);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInsertDuplicateTask() {
+        heap.insert(tasks[0]);
+        heap.insert(tasks[0]);
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testDecreaseKeyMissingTask() {
+        heap.decreaseKey(tasks[0]);
+    }
+
+    @Test
+    public void testRemove() {
+        for (Task t : tasks) heap.insert(t);
+        assertTrue("Task was not removed", heap.remove(tasks[6]));
+        assertFalse("Removed task is still contained", heap.contains(tasks[6]));
+        assertFalse("Task was removed twice", heap.remove(tasks[6]));
+        assertEquals("Size after remove", tasks.length - 1, heap.size());
+        assertOrdered(heap);
+    }
+
+    @Test
+    public void testReplaceMovesTaskToFront() {
+        for (Task t : tasks) heap.insert(t);
+        Task urgent = new Task(Priority.HIGH, 0, "check Facebook");
+        heap.replace(tasks[2], urgent);
+        assertSame("Replacement is not the minimum", urgent, heap.findMin());
+        assertFalse("Replaced task is still contained", heap.contains(tasks[2]));
+        assertTrue("Replacement is not contained", heap.contains(urgent));
+        assertEquals("Size after replace", tasks.length, heap.size());
+    }
+
+    @Test
+    public void testDecreaseAndIncreaseKey() {
+        Random random = new Random(42);
+        List<Job> jobs = new ArrayList<>();
+        IndexedBinaryHeap<Job> jobHeap = new IndexedBinaryHeap<>();
+        for (int i = 0; i < 2000; i++) {
+            Job job = new Job(random.nextInt(10000));
+            jobs.add(job);
+            jobHeap.insert(job);
+        }
+        for (int i = 0; i < 5000; i++) {
+            Job job = jobs.get(random.nextInt(jobs.size()));
+            if (random.nextBoolean()) {
+                job.priority -= random.nextInt(1000);
+                jobHeap.decreaseKey(job);
+            } else {
+                job.priority += random.nextInt(1000);
+                jobHeap.increaseKey(job);
+            }
+        }
+        for (int i = 0; i < 300; i++) {
+            assertTrue("Job was not removed", jobHeap.remove(jobs.remove(random.nextInt(jobs.size()))));
+        }
+        assertEquals("Wrong size", jobs.size(), jobHeap.size());
+        assertOrdered(jobHeap);
+    }
+
+    @Test
+    public void testClear() {
+        for (Task t : tasks) heap.insert(t);
+        heap.clear();
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        heap.insert(tasks[0]);  // not a duplicate any more
+        assertSame("Task was not inserted after clear", tasks[0], heap.findMin());
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void testModWhileIterating() {
+        for (Task t : tasks) {
+            heap.insert(t);
+        }
+        for (Task t : heap) {
+            heap.decreaseKey(tasks[3]);
+        }
+    }
+
+    // empties the heap, checking elements come out in order
+    private static <E extends Comparable<E>> void assertOrdered(IndexedBinaryHeap<E> heap) {
+        E previous = null;
+        while (!heap.isEmpty()) {
+            E next = heap.deleteMin();
+            if (previous != null) assertTrue("Heap order violated", previous.compareTo(next) <= 0);
+            previous = next;
+        }
+    }
+
+    // a job whose priority changes while it is queued
+    private static class Job implements Comparable<Job> {
+        private int priority;
+
+        public Job(int priority) {
+            this.priority = priority;
+        }
+
+        public int compareTo(Job other) {
+            return Integer.compare(priority, other.priority);
+        }
+    }
+}
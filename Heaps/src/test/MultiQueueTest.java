@@ -0,0 +1,166 @@
+package test;
+
+import heaps.MultiQueue;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class MultiQueueTest {
+
+    // fields
+    MultiQueue<Task> heap = new MultiQueue<>(4, 2);
+
+    // mock data
+    final Task[] tasks = {
+            new Task(Priority.HIGH, 1, "Finish homework"),
+            new Task(Priority.MEDIUM, 2, "Go to gym"),
+            new Task(Priority.LOW, 1, "check Facebook"),
+            new Task(Priority.MEDIUM, 1, "get groceries"),
+            new Task(Priority.MEDIUM, 3, "go to dinner"),
+            new Task(Priority.LOW, 2, "play football"),
+            new Task(Priority.HIGH, 1, "pay bills"),
+            new Task(Priority.MEDIUM, 3, "Clean house"),
+            new Task(Priority.HIGH, 2, "feed cats")
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        heap = new MultiQueue<>(4, 2);  // construct empty heap
+    }
+
+    @Test
+    public void testEmptyHeap() {
+        assertTrue("Empty heap is not empty", heap.isEmpty());
+        assertNull("delete min returned non-null value", heap.deleteMin());
+        assertNull("findMin returned non-null value", heap.findMin());
+        assertEquals("Wrong shard count", 8, heap.getShardCount());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInsertBadTask() {
+        heap.insert(null);
+    }
+
+    @Test
+    public void testEveryTaskComesOutOnce() {
+        for (Task t : tasks) heap.insert(t);
+        assertEquals("Wrong size", tasks.length, heap.size());
+        assertTrue("Task was not found", heap.contains(tasks[4]));
+        assertEquals("findMin is not a smallest task", tasks[0].getPriority(), heap.findMin().getPriority());
+
+        List<Task> out = new ArrayList<>();
+        Task t;
+        while ((t = heap.deleteMin()) != null) out.add(t);
+        assertEquals("Tasks were lost", tasks.length, out.size());
+        assertTrue("Tasks were lost", out.containsAll(Arrays.asList(tasks)));
+        assertTrue("Drained heap is not empty", heap.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        for (Task t : tasks) heap.insert(t);
+        heap.clear();
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        assertNull("delete min returned non-null value", heap.deleteMin());
+    }
+
+    @Test
+    public void testRankErrorGrowsWithShards() {
+        double fewShards = meanRankError(new MultiQueue<>(1, 2));
+        double manyShards = meanRankError(new MultiQueue<>(16, 4));
+        assertTrue("Rank error is too large: " + fewShards, fewShards < 2 * 2);
+        assertTrue("Rank error is too large: " + manyShards, manyShards < 2 * 64);
+        assertTrue("More shards gave no more rank error", fewShards < manyShards);
+    }
+
+    // inserts 0 .. n-1 in random order, then deletes all, averaging how
+    // many smaller values were still queued at each deleteMin
+    private static double meanRankError(MultiQueue<Integer> queue) {
+        int n = 20000;
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < n; i++) values.add(i);
+        Collections.shuffle(values, new Random(11));
+        for (Integer v : values) queue.insert(v);
+
+        int[] tree = new int[n + 1];  // Fenwick tree counting queued values
+        for (int i = 1; i <= n; i++) {
+            tree[i]++;
+            int parent = i + (i & -i);
+            if (parent <= n) tree[parent] += tree[i];
+        }
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            int v = queue.deleteMin();
+            for (int j = v; j > 0; j -= j & -j) total += tree[j];  // queued values below v
+            for (int j = v + 1; j <= n; j += j & -j) tree[j]--;
+        }
+        return (double) total / n;
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20000;
+        MultiQueue<Integer> queue = new MultiQueue<>(threads, 2);
+        AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            int first = w * perThread;
+            workers[w] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.insert(first + i);
+                    if (i % 2 == 1) {
+                        Integer v = queue.deleteMin();
+                        if (v != null) seen.incrementAndGet(v);
+                    }
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        Integer v;
+        while ((v = queue.deleteMin()) != null) seen.incrementAndGet(v);
+        assertTrue("Queue is not empty", queue.isEmpty());
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals("Value " + i + " came out the wrong number of times", 1, seen.get(i));
+        }
+    }
+
+    @Test
+    public void testSizeNeverNegative() throws InterruptedException {
+        int pairs = 3;
+        int perThread = 50000;
+        MultiQueue<Integer> queue = new MultiQueue<>(6, 2);
+        AtomicBoolean negative = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+
+        Thread[] workers = new Thread[2 * pairs];
+        for (int w = 0; w < pairs; w++) {
+            workers[2 * w] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) queue.insert(i);
+            });
+            workers[2 * w + 1] = new Thread(() -> {
+                while (!done.get() || !queue.isEmpty()) {
+                    queue.deleteMin();
+                    if (queue.size() < 0) negative.set(true);
+                }
+            });
+        }
+        for (Thread worker : workers) worker.start();
+        for (int w = 0; w < pairs; w++) workers[2 * w].join();
+        done.set(true);
+        for (int w = 0; w < pairs; w++) workers[2 * w + 1].join();
+        assertFalse("size went below 0", negative.get());
+        assertEquals("Queue has a size", 0, queue.size());
+    }
+}
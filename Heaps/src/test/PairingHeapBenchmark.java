@@ -0,0 +1,86 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import heaps.BinaryHeap;
+import heaps.PairingHeap;
+
+/**
+ * Consolidating per-region queues: r regions each fill a queue with m
+ * random Tasks, and the queues are merged into one, which is then
+ * drained.  BinaryHeap merges by inserting every element of each queue
+ * into the first; PairingHeap melds.  Reports the merge and drain times.
+ * Both heaps are first warmed up on many small runs.
+ * Usage: PairingHeapBenchmark [regions] [tasks per region]
+ */
+public class PairingHeapBenchmark {
+
+    private static final int WARMUP_RUNS = 100;
+
+    public static void main(String[] args) {
+        int regions = (args.length > 0) ? Integer.parseInt(args[0]) : 64;
+        int perRegion = (args.length > 1) ? Integer.parseInt(args[1]) : 20000;
+
+        Random random = new Random(21);
+        Priority[] priorities = Priority.values();
+        Task[][] tasks = new Task[regions][perRegion];
+        for (Task[] region : tasks) {
+            for (int i = 0; i < perRegion; i++) {
+                region[i] = new Task(priorities[random.nextInt(priorities.length)], random.nextInt(10), "task " + i);
+            }
+        }
+        Task[][] warmup = new Task[4][];
+        for (int i = 0; i < warmup.length; i++) warmup[i] = tasks[i % regions];
+
+        System.out.printf("%-14s %12s %12s%n", "heap", "merge ms", "drain ms");
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            runBinary(false, warmup);
+            runPairing(false, warmup);
+        }
+        for (int round = 0; round < 2; round++) {
+            runBinary(true, tasks);
+            runPairing(true, tasks);
+        }
+    }
+
+    private static void runBinary(boolean print, Task[][] tasks) {
+        List<BinaryHeap<Task>> queues = new ArrayList<>();
+        for (Task[] run : tasks) {
+            BinaryHeap<Task> queue = new BinaryHeap<>();
+            for (Task t : run) queue.insert(t);
+            queues.add(queue);
+        }
+        BinaryHeap<Task> first = queues.get(0);
+        long start = System.nanoTime();
+        for (int r = 1; r < queues.size(); r++) {
+            BinaryHeap<Task> queue = queues.get(r);
+            while (!queue.isEmpty()) first.insert(queue.deleteMin());
+        }
+        long merged = System.nanoTime();
+        long check = 0;
+        while (!first.isEmpty()) check += first.deleteMin().getPriority();
+        if (print) report("BinaryHeap", start, merged, check);
+    }
+
+    private static void runPairing(boolean print, Task[][] tasks) {
+        List<PairingHeap<Task>> queues = new ArrayList<>();
+        for (Task[] run : tasks) {
+            PairingHeap<Task> queue = new PairingHeap<>();
+            for (Task t : run) queue.insert(t);
+            queues.add(queue);
+        }
+        PairingHeap<Task> first = queues.get(0);
+        long start = System.nanoTime();
+        for (int r = 1; r < queues.size(); r++) first.meld(queues.get(r));
+        long merged = System.nanoTime();
+        long check = 0;
+        while (!first.isEmpty()) check += first.deleteMin().getPriority();
+        if (print) report("PairingHeap", start, merged, check);
+    }
+
+    private static void report(String name, long start, long merged, long check) {
+        long drained = System.nanoTime();
+        System.out.printf("%-14s %12.2f %12.1f   (%d)%n", name, (merged - start) / 1e6, (drained - merged) / 1e6, check);
+    }
+}
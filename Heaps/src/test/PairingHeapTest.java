@@ -0,0 +1,204 @@
+package test;
+
+import heaps.PairingHeap;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+public class PairingHeapTest {
+
+    // fields
+    PairingHeap<Task> heap = new PairingHeap<>();
+
+    // mock data
+    final Task[] tasks = {
+            new Task(Priority.HIGH, 1, "Finish homework"),
+            new Task(Priority.MEDIUM, 2, "Go to gym"),
+            new Task(Priority.LOW, 1, "check Facebook"),
+            new Task(Priority.MEDIUM, 1, "get groceries"),
+            new Task(Priority.MEDIUM, 3, "go to dinner"),
+            new Task(Priority.LOW, 2, "play football"),
+            new Task(Priority.HIGH, 1, "pay bills"),
+            new Task(Priority.MEDIUM, 3, "Clean house"),
+            new Task(Priority.HIGH, 2, "feed cats")
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        heap = new PairingHeap<>();  // construct empty heap
+    }
+
+    @Test
+    public void testEmptyHeap() {
+        assertTrue("Empty heap is not empty", heap.isEmpty());
+        assertNull("delete min returned non-null value", heap.deleteMin());
+        assertNull("findMin returned non-null value", heap.findMin());
+        assertFalse("Task was found in empty heap", heap.contains(tasks[0]));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInsertBadTask() {
+        heap.insert(null);
+    }
+
+    @Test
+    public void testTasksComeOutInPriorityOrder() {
+        for (Task t : tasks) heap.insert(t);
+        assertEquals("Wrong size", tasks.length, heap.size());
+        assertTrue("Task was not found", heap.contains(tasks[5]));
+        assertOrdered(heap, tasks.length);
+    }
+
+    @Test
+    public void testRandomIntegers() {
+        PairingHeap<Integer> ints = new PairingHeap<>();
+        Random random = new Random(13);
+        int[] values = new int[10000];
+        for (int round = 0; round < 3; round++) {  // later rounds reuse pooled nodes
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(1000);
+                ints.insert(values[i]);
+            }
+            Arrays.sort(values);
+            for (int v : values) assertEquals("Wrong min", v, (int) ints.deleteMin());
+            assertTrue("Drained heap is not empty", ints.isEmpty());
+        }
+    }
+
+    @Test
+    public void testMeld() {
+        PairingHeap<Task> other = new PairingHeap<>();
+        for (int i = 0; i < tasks.length; i++) {
+            if (i % 2 == 0) heap.insert(tasks[i]);
+            else other.insert(tasks[i]);
+        }
+        heap.meld(other);
+        assertTrue("Melded heap is not empty", other.isEmpty());
+        assertNull("Melded heap has a min", other.findMin());
+        assertEquals("Wrong size after meld", tasks.length, heap.size());
+        assertOrdered(heap, tasks.length);
+    }
+
+    @Test
+    public void testDecreaseKeyAndRemove() {
+        Random random = new Random(17);
+        PairingHeap<Job> jobs = new PairingHeap<>();
+        List<PairingHeap.Handle<Job>> handles = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) handles.add(jobs.insertHandle(new Job(random.nextInt(100000))));
+        for (int i = 0; i < 3000; i++) {
+            PairingHeap.Handle<Job> handle = handles.get(random.nextInt(handles.size()));
+            handle.getElement().priority -= random.nextInt(10000);
+            jobs.decreaseKey(handle);
+        }
+        for (int i = 0; i < 500; i++) {
+            PairingHeap.Handle<Job> handle = handles.remove(random.nextInt(handles.size()));
+            assertTrue("Job was not removed", jobs.remove(handle));
+            assertFalse("Job was removed twice", jobs.remove(handle));
+        }
+        assertEquals("Wrong size", handles.size(), jobs.size());
+        assertOrdered(jobs, handles.size());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testDecreaseKeyAfterDelete() {
+        PairingHeap.Handle<Task> handle = heap.insertHandle(tasks[0]);
+        heap.deleteMin();
+        heap.decreaseKey(handle);
+    }
+
+    @Test
+    public void testClear() {
+        for (Task t : tasks) heap.insert(t);
+        heap.clear();
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        heap.insert(tasks[2]);
+        assertSame("Task was not inserted after clear", tasks[2], heap.findMin());
+    }
+
+    @Test
+    public void testHandleAfterClear() {
+        PairingHeap.Handle<Task> first = heap.insertHandle(tasks[0]);
+        PairingHeap.Handle<Task> child = heap.insertHandle(tasks[2]);
+        heap.clear();
+        assertNull("Cleared handle still has its element", child.getElement());
+        assertNull("Cleared handle still has its element", first.getElement());
+        assertFalse("Cleared handle was removed", heap.remove(child));
+        assertEquals("Wrong size", 0, heap.size());
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        try {
+            heap.decreaseKey(child);
+            fail("decreaseKey took a cleared handle");
+        } catch (IllegalStateException expected) {
+        }
+        heap.insert(tasks[1]);
+        assertSame("Wrong min after clear", tasks[1], heap.deleteMin());
+        assertNull("Heap is not empty", heap.deleteMin());
+    }
+
+    @Test
+    public void testHandleOfAnotherHeap() {
+        PairingHeap<Task> other = new PairingHeap<>();
+        heap.insertHandle(tasks[0]);
+        PairingHeap.Handle<Task> foreign = other.insertHandle(tasks[2]);
+        other.insert(tasks[5]);
+        assertFalse("Foreign handle was removed", heap.remove(foreign));
+        try {
+            heap.decreaseKey(foreign);
+            fail("decreaseKey took a foreign handle");
+        } catch (IllegalStateException expected) {
+        }
+        assertEquals("Wrong size", 1, heap.size());
+        assertEquals("Wrong size of other heap", 2, other.size());
+        assertSame("Foreign handle lost its element", tasks[2], foreign.getElement());
+
+        // once melded away, the handle belongs to the receiving heap
+        heap.meld(other);
+        assertFalse("Handle was removed from the emptied heap", other.remove(foreign));
+        assertEquals("Emptied heap has a size", 0, other.size());
+        assertTrue("Melded handle was not removed", heap.remove(foreign));
+        assertNull("Removed handle still has its element", foreign.getElement());
+        assertOrdered(heap, 2);
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void testModWhileIterating() {
+        for (Task t : tasks) {
+            heap.insert(t);
+        }
+        for (Task t : heap) {
+            heap.deleteMin();
+        }
+    }
+
+    // empties the heap, checking elements come out in order
+    private static <E extends Comparable<E>> void assertOrdered(PairingHeap<E> heap, int expected) {
+        E previous = null;
+        int count = 0;
+        while (!heap.isEmpty()) {
+            E next = heap.deleteMin();
+            if (previous != null) assertTrue("Heap order violated", previous.compareTo(next) <= 0);
+            previous = next;
+            count++;
+        }
+        assertEquals("Elements were lost", expected, count);
+    }
+
+    // a job whose priority changes while it is queued
+    private static class Job implements Comparable<Job> {
+        private int priority;
+
+        public Job(int priority) {
+            this.priority = priority;
+        }
+
+        public int compareTo(Job other) {
+            return Integer.compare(priority, other.priority);
+        }
+    }
+}
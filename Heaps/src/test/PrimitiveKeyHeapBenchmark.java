@@ -0,0 +1,68 @@
+package test;
+
+import java.util.Random;
+import heaps.BinaryHeap;
+import heaps.LongKeyHeap;
+
+/**
+ * insert and deleteMin throughput of LongKeyHeap, keyed by
+ * Task.getPriority(), against BinaryHeap, which calls Task.compareTo for
+ * every comparison.  n random Tasks are inserted, then all are deleted.
+ * Both heaps are first warmed up on many small runs so that insert and
+ * deleteMin are fully compiled before the timed run.
+ * Usage: PrimitiveKeyHeapBenchmark [tasks]
+ */
+public class PrimitiveKeyHeapBenchmark {
+
+    private static final int WARMUP_RUNS = 200;
+    private static final int WARMUP_SIZE = 20000;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+
+        Random random = new Random(9);
+        Priority[] priorities = Priority.values();
+        Task[] tasks = new Task[n];
+        for (int i = 0; i < n; i++) {
+            tasks[i] = new Task(priorities[random.nextInt(priorities.length)], random.nextInt(10), "task " + i);
+        }
+        Task[] warmup = new Task[Math.min(n, WARMUP_SIZE)];
+        System.arraycopy(tasks, 0, warmup, 0, warmup.length);
+
+        System.out.printf("%-14s %16s %16s%n", "heap", "insert Mops/s", "deleteMin Mops/s");
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            runBinary(false, warmup);
+            runLongKey(false, warmup);
+        }
+        for (int round = 0; round < 2; round++) {
+            runBinary(true, tasks);
+            runLongKey(true, tasks);
+        }
+    }
+
+    private static void runBinary(boolean print, Task[] tasks) {
+        BinaryHeap<Task> heap = new BinaryHeap<>();
+        long start = System.nanoTime();
+        for (Task t : tasks) heap.insert(t);
+        long inserted = System.nanoTime();
+        long check = 0;
+        while (!heap.isEmpty()) check += heap.deleteMin().getPriority();
+        if (print) report("BinaryHeap", tasks.length, start, inserted, check);
+    }
+
+    private static void runLongKey(boolean print, Task[] tasks) {
+        LongKeyHeap<Task> heap = new LongKeyHeap<>();
+        long start = System.nanoTime();
+        for (Task t : tasks) heap.insert(t.getPriority(), t);
+        long inserted = System.nanoTime();
+        long check = 0;
+        while (!heap.isEmpty()) check += heap.deleteMin().getPriority();
+        if (print) report("LongKeyHeap", tasks.length, start, inserted, check);
+    }
+
+    private static void report(String name, int n, long start, long inserted, long check) {
+        long deleted = System.nanoTime();
+        System.out.printf("%-14s %16.2f %16.2f   (%d)%n", name,
+                n * 1e3 / (inserted - start), n * 1e3 / (deleted - inserted), check);
+    }
+}
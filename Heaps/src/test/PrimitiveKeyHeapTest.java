@@ -0,0 +1,110 @@
+package test;
+
+import heaps.DoubleKeyHeap;
+import heaps.LongKeyHeap;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class PrimitiveKeyHeapTest {
+
+    // fields
+    LongKeyHeap<Task> heap = new LongKeyHeap<>();
+
+    // mock data
+    final Task[] tasks = {
+            new Task(Priority.HIGH, 1, "Finish homework"),
+            new Task(Priority.MEDIUM, 2, "Go to gym"),
+            new Task(Priority.LOW, 1, "check Facebook"),
+            new Task(Priority.MEDIUM, 1, "get groceries"),
+            new Task(Priority.MEDIUM, 3, "go to dinner"),
+            new Task(Priority.LOW, 2, "play football"),
+            new Task(Priority.HIGH, 1, "pay bills"),
+            new Task(Priority.MEDIUM, 3, "Clean house"),
+            new Task(Priority.HIGH, 2, "feed cats")
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        heap = new LongKeyHeap<>();  // construct empty heap
+    }
+
+    @Test
+    public void testEmptyHeap() {
+        assertTrue("Empty heap is not empty", heap.isEmpty());
+        assertNull("delete min returned non-null value", heap.deleteMin());
+        assertNull("findMin returned non-null value", heap.findMin());
+    }
+
+    @Test(expected=NoSuchElementException.class)
+    public void testEmptyHeapFindMinKey() {
+        heap.findMinKey();
+    }
+
+    @Test
+    public void testTasksComeOutInPriorityOrder() {
+        for (Task t : tasks) heap.insert(t.getPriority(), t);
+        assertEquals("Wrong size", tasks.length, heap.size());
+        int previous = Integer.MIN_VALUE;
+        while (!heap.isEmpty()) {
+            long key = heap.findMinKey();
+            Task t = heap.deleteMin();
+            assertEquals("Key does not belong to its task", t.getPriority(), key);
+            assertTrue("Heap order violated", previous <= t.getPriority());
+            previous = t.getPriority();
+        }
+    }
+
+    @Test
+    public void testRandomKeys() {
+        Random random = new Random(7);
+        long[] keys = new long[5000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            heap.insert(keys[i], null);  // keys only
+        }
+        Arrays.sort(keys);
+        for (long key : keys) {
+            assertEquals("Keys out of order", key, heap.findMinKey());
+            heap.deleteMin();
+        }
+        assertTrue("Heap is not empty", heap.isEmpty());
+    }
+
+    @Test
+    public void testClear() {
+        for (Task t : tasks) heap.insert(t.getPriority(), t);
+        heap.clear();
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        heap.insert(5, tasks[0]);
+        assertSame("Task was not inserted after clear", tasks[0], heap.findMin());
+    }
+
+    @Test(expected=ConcurrentModificationException.class)
+    public void testModWhileIterating() {
+        for (Task t : tasks) heap.insert(t.getPriority(), t);
+        for (Task t : heap) {
+            heap.deleteMin();
+        }
+    }
+
+    @Test
+    public void testDoubleKeysFollowDoubleCompare() {
+        double[] keys = {3.5, -0.0, Double.NaN, 0.0, Double.NEGATIVE_INFINITY, -2.25,
+                Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MAX_VALUE, 1e300};
+        DoubleKeyHeap<Double> doubles = new DoubleKeyHeap<>();
+        for (double key : keys) doubles.insert(key, key);
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);  // Arrays.sort uses the Double.compare order
+        for (double key : sorted) {
+            assertEquals("Key was not restored", 0, Double.compare(key, doubles.findMinKey()));
+            assertEquals("Keys out of order", 0, Double.compare(key, doubles.deleteMin()));
+        }
+        assertTrue("Heap is not empty", doubles.isEmpty());
+    }
+}
@@ -0,0 +1,143 @@
+package test;
+
+import heaps.SkipListPriorityQueue;
+
+import static org.junit.Assert.*;
+import org.junit.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class SkipListPriorityQueueTest {
+
+    // fields
+    SkipListPriorityQueue<Task> heap = new SkipListPriorityQueue<>();
+
+    // mock data
+    final Task[] tasks = {
+            new Task(Priority.HIGH, 1, "Finish homework"),
+            new Task(Priority.MEDIUM, 2, "Go to gym"),
+            new Task(Priority.LOW, 1, "check Facebook"),
+            new Task(Priority.MEDIUM, 1, "get groceries"),
+            new Task(Priority.MEDIUM, 3, "go to dinner"),
+            new Task(Priority.LOW, 2, "play football"),
+            new Task(Priority.HIGH, 1, "pay bills"),
+            new Task(Priority.MEDIUM, 3, "Clean house"),
+            new Task(Priority.HIGH, 2, "feed cats")
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        heap = new SkipListPriorityQueue<>();  // construct empty heap
+    }
+
+    @Test
+    public void testEmptyHeap() {
+        assertTrue("Empty heap is not empty", heap.isEmpty());
+        assertNull("delete min returned non-null value", heap.deleteMin());
+        assertNull("findMin returned non-null value", heap.findMin());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInsertBadTask() {
+        heap.insert(null);
+    }
+
+    @Test
+    public void testEqualTasksComeOutInInsertionOrder() {
+        for (Task t : tasks) heap.insert(t);
+        assertEquals("Wrong size", tasks.length, heap.size());
+        assertTrue("Task was not found", heap.contains(tasks[7]));
+        assertSame("Wrong min", tasks[0], heap.findMin());
+        assertSame("Wrong min", tasks[0], heap.deleteMin());
+        assertSame("Equal tasks out of order", tasks[6], heap.deleteMin());
+        assertSame("Wrong min", tasks[8], heap.deleteMin());
+        assertSame("Wrong min", tasks[3], heap.deleteMin());
+        assertSame("Wrong min", tasks[1], heap.deleteMin());
+        assertSame("Equal tasks out of order", tasks[4], heap.deleteMin());
+        assertSame("Equal tasks out of order", tasks[7], heap.deleteMin());
+        assertSame("Wrong min", tasks[2], heap.deleteMin());
+        assertSame("Wrong min", tasks[5], heap.deleteMin());
+        assertTrue("Drained heap is not empty", heap.isEmpty());
+    }
+
+    @Test
+    public void testIteratorIsSorted() {
+        for (Task t : tasks) heap.insert(t);
+        int previous = Integer.MIN_VALUE;
+        int count = 0;
+        for (Task t : heap) {
+            assertTrue("Iterator out of order", previous <= t.getPriority());
+            previous = t.getPriority();
+            count++;
+        }
+        assertEquals("Iterator missed tasks", tasks.length, count);
+    }
+
+    @Test
+    public void testClear() {
+        for (Task t : tasks) heap.insert(t);
+        heap.clear();
+        assertTrue("Cleared heap is not empty", heap.isEmpty());
+        assertEquals("Cleared heap has a size", 0, heap.size());
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20000;
+        SkipListPriorityQueue<Integer> queue = new SkipListPriorityQueue<>();
+        AtomicIntegerArray seen = new AtomicIntegerArray(threads * perThread);
+
+        Thread[] workers = new Thread[threads];
+        for (int w = 0; w < threads; w++) {
+            int first = w * perThread;
+            workers[w] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    queue.insert(first + i);
+                    if (i % 2 == 1) {
+                        Integer v = queue.deleteMin();
+                        if (v != null) seen.incrementAndGet(v);
+                    }
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        Integer v;
+        while ((v = queue.deleteMin()) != null) seen.incrementAndGet(v);
+        assertEquals("Queue has a size", 0, queue.size());
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals("Value " + i + " came out the wrong number of times", 1, seen.get(i));
+        }
+    }
+
+    @Test
+    public void testSizeNeverNegative() throws InterruptedException {
+        int pairs = 3;
+        int perThread = 50000;
+        SkipListPriorityQueue<Integer> queue = new SkipListPriorityQueue<>();
+        AtomicBoolean negative = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+
+        Thread[] workers = new Thread[2 * pairs];
+        for (int w = 0; w < pairs; w++) {
+            workers[2 * w] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) queue.insert(i);
+            });
+            workers[2 * w + 1] = new Thread(() -> {
+                while (!done.get() || !queue.isEmpty()) {
+                    queue.deleteMin();
+                    if (queue.size() < 0) negative.set(true);
+                }
+            });
+        }
+        for (Thread worker : workers) worker.start();
+        for (int w = 0; w < pairs; w++) workers[2 * w].join();
+        done.set(true);
+        for (int w = 0; w < pairs; w++) workers[2 * w + 1].join();
+        assertFalse("size went below 0", negative.get());
+        assertEquals("Queue has a size", 0, queue.size());
+    }
+}
@@ -0,0 +1,166 @@
+package hashmap;
+
+/**
+ * Blocked Bloom filter over key hash codes, kept by LPHashTable in front of
+ * find (see LPHashTable.enableBloomFilter).  Each key sets its k bits inside
+ * one 512-bit block -- one cache line -- so a query touches a single line
+ * whatever k is.  Confining the bits to a block costs a little accuracy,
+ * which is made up with about 15% more bits than an unblocked filter.
+ * <p>
+ * A Bloom filter can't forget a key, so bits of deleted keys stay set until
+ * the owning table rebuilds the filter, which it does whenever it rehashes,
+ * whenever more keys have been added than the filter was sized for, and
+ * once deleted keys reach a quarter of that.  Until then a find for a
+ * deleted key can pass the filter on its own old bits; LPHashTable counts
+ * those as stale hits, apart from false positives.  Stale bits still raise
+ * the odds that other absent keys get through, so the observed rate drifts
+ * above the configured one as keys are deleted, and falls back on rebuild.
+ * The counters survive rebuilds.  Like HashTableStats, nothing here is
+ * synchronized.
+ */
+public final class BloomFilter {
+
+    private static final int BLOCK_BITS = 512;
+    private static final int WORDS_PER_BLOCK = BLOCK_BITS / 64;
+    private static final double BLOCKING_OVERHEAD = 1.15;
+    private static final int MAX_HASHES = 16;
+
+    private final double falsePositiveRate;
+    private final int hashCount;
+    private final double bitsPerKey;
+
+    private long[] words;
+    private int blockCount;
+    private int capacity;  // keys the filter was sized for
+    private int insertions;  // keys added since the last rebuild
+    private int removals;  // keys deleted since the last rebuild, still in the bits
+
+    private long queries;
+    private long rejections;
+    private long falsePositives;
+    private long staleHits;
+
+    BloomFilter(double falsePositiveRate, int capacity) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be in (0, 1)");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        double ln2 = Math.log(2);
+        bitsPerKey = -Math.log(falsePositiveRate) / (ln2 * ln2) * BLOCKING_OVERHEAD;
+        hashCount = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerKey / BLOCKING_OVERHEAD * ln2)));
+        rebuild(capacity);
+    }
+
+    // empties the filter and resizes it for capacity keys
+    void rebuild(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        blockCount = (int) Math.max(1, Math.ceil(this.capacity * bitsPerKey / BLOCK_BITS));
+        words = new long[blockCount * WORDS_PER_BLOCK];
+        insertions = 0;
+        removals = 0;
+    }
+
+    // too many keys added, or too many stale bits, for the configured rate?
+    boolean needsRebuild() {
+        return insertions > capacity || removals > capacity / 4;
+    }
+
+    void recordRemoval() {
+        removals++;
+    }
+
+    void add(int code) {
+        long hash = HashFunctions.mix((long) code);
+        int base = block(hash) * WORDS_PER_BLOCK;
+        int a = (int) hash;
+        int b = (int) (hash * 0x9E3779B97F4A7C15L >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (a + i * b) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    // false means the key is certainly absent
+    boolean mightContain(int code) {
+        queries++;
+        long hash = HashFunctions.mix((long) code);
+        int base = block(hash) * WORDS_PER_BLOCK;
+        int a = (int) hash;
+        int b = (int) (hash * 0x9E3779B97F4A7C15L >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (a + i * b) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                rejections++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a query that passed the filter found nothing in the table
+    void recordFalsePositive() {
+        falsePositives++;
+    }
+
+    // a query that passed the filter found its key deleted
+    void recordStaleHit() {
+        staleHits++;
+    }
+
+    // block from the high half, by multiply-shift so any block count works
+    private int block(long hash) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    // configured false positive rate
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    // fraction of absent keys, stale hits aside, that got past the filter;
+    // compare with getFalsePositiveRate
+    public double getObservedFalsePositiveRate() {
+        long misses = rejections + falsePositives + staleHits;
+        return (misses == 0) ? 0 : (double) falsePositives / misses;
+    }
+
+    // number of finds checked against the filter
+    public long getQueries() {
+        return queries;
+    }
+
+    // finds answered by the filter alone, without probing the table
+    public long getRejections() {
+        return rejections;
+    }
+
+    // finds that passed the filter and then missed in the table
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    // finds for deleted keys that passed the filter on bits not yet rebuilt
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    public long getBitCount() {
+        return (long) words.length * 64;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public String toString() {
+        return String.format("BloomFilter[%d bits, k=%d, queries %d, rejected %d, false positives %d (%.4f, target %.4f), stale hits %d]",
+                getBitCount(), hashCount, queries, rejections, falsePositives,
+                getObservedFalsePositiveRate(), falsePositiveRate, staleHits);
+    }
+
+}
@@ -0,0 +1,422 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Bounded cache built on an LPHashTable, using CLOCK (second chance)
+ * eviction.  Entries sit in a circular array with a "referenced" bit that
+ * every hit sets; when the cache is over its bound, the clock hand sweeps
+ * the array, clearing set bits and evicting the first entry whose bit is
+ * already clear.
+ * <p>
+ * The bound is either a number of entries or a total weight (for example,
+ * estimated bytes) computed by a weigher.  Entries can optionally expire a
+ * fixed time after they were added.  find(key, loader) loads missing values
+ * through the loader, and concurrent misses on the same key share a single
+ * load.  All operations are thread-safe; loaders run outside the lock.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class ClockCache<K, V> {
+
+    private static final int INITIAL_RING_SIZE = 16;
+
+    private final LPHashTable<K, Node<K, V>> table = new LPHashTable<>(INITIAL_RING_SIZE, true);
+    private final LPHashTable<K, CompletableFuture<V>> loading = new LPHashTable<>(INITIAL_RING_SIZE, true);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long maxWeight;
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+    private long timeToLiveNanos;  // 0 means entries never expire
+
+    // the clock: entries in a circular array, swept by the hand
+    private Node<K, V>[] ring = newRing();
+    private int ringSize;  // slots in use at the front of ring (some may be null)
+    private int[] freeSlots = new int[INITIAL_RING_SIZE];  // null slots below ringSize
+    private int freeCount;
+    private int hand;
+
+    private int size;
+    private long weight;
+
+    // counters
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long loads;
+    private long loadFailures;
+
+    /**
+     * Cache holding at most maxEntries entries.
+     * @param maxEntries
+     */
+    public ClockCache(int maxEntries) {
+        this(maxEntries, (key, value) -> 1L);
+    }
+
+    /**
+     * Cache whose entries' total weight stays at or below maxWeight.  An
+     * entry heavier than maxWeight on its own is not cached.
+     * @param maxWeight
+     * @param weigher  weight of one entry, for example its estimated size in bytes
+     */
+    public ClockCache(long maxWeight, ToLongBiFunction<? super K, ? super V> weigher) {
+        if (maxWeight <= 0) throw new IllegalArgumentException("Maximum weight must be positive");
+        if (weigher == null) throw new IllegalArgumentException("Weigher cannot be null");
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Entries added from now on expire this long after being added.
+     * A duration of 0 turns expiry off.
+     * @param duration
+     * @param unit
+     */
+    public void setTimeToLive(long duration, TimeUnit unit) {
+        if (duration < 0) throw new IllegalArgumentException("Time to live cannot be negative");
+        lock.lock();
+        try {
+            timeToLiveNanos = unit.toNanos(duration);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Finds (gets) the cached value for a key.
+     * @param key
+     * @return value if key is cached and not expired; null otherwise.
+     */
+    public V find(K key) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        lock.lock();
+        try {
+            return lookup(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the cached value for a key, loading and caching it on a miss.
+     * If another thread is already loading the same key, waits for that load
+     * instead of starting a second one.  A null result is returned but not
+     * cached; an exception from the loader is thrown to every waiting caller.
+     * An add, delete or clear of the key while it loads wins: the loaded
+     * value is still returned, but not cached over it.
+     * @param key
+     * @param loader  fetches the value from the backing store
+     * @return the cached or loaded value
+     */
+    public V find(K key, Function<? super K, ? extends V> loader) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        CompletableFuture<V> future;
+        boolean owner = false;
+        lock.lock();
+        try {
+            V value = lookup(key);
+            if (value != null) return value;
+
+            future = loading.find(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                loading.add(key, future);
+                owner = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!owner) return join(future);
+
+        // this thread owns the load
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException | Error e) {
+            lock.lock();
+            try {
+                if (loading.find(key) == future) loading.delete(key);
+                loadFailures++;
+            } finally {
+                lock.unlock();
+            }
+            future.completeExceptionally(e);
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            loads++;
+            // an add, delete or clear during the load dropped our future;
+            // its result is then older than the cache
+            if (loading.find(key) == future) {
+                loading.delete(key);
+                if (value != null) insert(key, value);
+            }
+        } finally {
+            lock.unlock();
+        }
+        future.complete(value);
+        return value;
+    }
+
+    // waits for another thread's load, rethrowing its failure
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /** Add a value to the cache, replacing any value cached for the key,
+     * and evict entries if the cache is now over its bound.
+     * @param key
+     * @param value
+     */
+    public void add(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        if (value == null) throw new IllegalArgumentException("Value cannot be null");
+
+        lock.lock();
+        try {
+            loading.delete(key);  // a load in progress must not overwrite this
+            insert(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // removes the key from the cache, if present
+    public void delete(K key) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        lock.lock();
+        try {
+            loading.delete(key);  // a load in progress must not bring it back
+            Node<K, V> node = table.find(key);
+            if (node != null) remove(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // removes every entry; counters are kept
+    public void clear() {
+        lock.lock();
+        try {
+            table.clear();
+            loading.clear();  // loads in progress must not bring entries back
+            ring = newRing();
+            ringSize = 0;
+            freeCount = 0;
+            hand = 0;
+            size = 0;
+            weight = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // called with the lock held; counts the hit or miss
+    private V lookup(K key) {
+        Node<K, V> node = table.find(key);
+        if (node != null && node.expires && timeToLiveNanos > 0 && System.nanoTime() - node.expiresAt > 0) {
+            remove(node);
+            expirations++;
+            node = null;
+        }
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        node.referenced = true;
+        hits++;
+        return node.value;
+    }
+
+    // called with the lock held
+    private void insert(K key, V value) {
+        long entryWeight = weigher.applyAsLong(key, value);
+        if (entryWeight < 0) throw new IllegalArgumentException("Weight cannot be negative");
+
+        Node<K, V> node = table.find(key);
+        if (node != null) remove(node);
+        if (entryWeight > maxWeight) return;
+
+        while (weight + entryWeight > maxWeight) evict();
+
+        node = new Node<>(key, value, entryWeight);
+        if (timeToLiveNanos > 0) {
+            node.expires = true;
+            node.expiresAt = System.nanoTime() + timeToLiveNanos;
+        }
+        node.slot = takeSlot();
+        ring[node.slot] = node;
+        table.add(key, node);
+        size++;
+        weight += entryWeight;
+    }
+
+    // sweeps the clock hand to the first unreferenced entry and evicts it
+    private void evict() {
+        while (true) {
+            if (hand >= ringSize) hand = 0;
+            Node<K, V> node = ring[hand++];
+            if (node == null) continue;
+            if (node.referenced) {
+                node.referenced = false;  // second chance
+            } else {
+                remove(node);
+                evictions++;
+                return;
+            }
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        table.delete(node.key);
+        ring[node.slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = node.slot;
+        size--;
+        weight -= node.weight;
+    }
+
+    // an empty ring; only Node<K, V>s are ever stored in it
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newRing() {
+        return (Node<K, V>[]) new Node<?, ?>[INITIAL_RING_SIZE];
+    }
+
+    // a free ring slot, growing the ring when every slot is taken
+    private int takeSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if (ringSize == ring.length) ring = Arrays.copyOf(ring, ring.length * 2);
+        return ringSize++;
+    }
+
+    // number of cached entries
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // total weight of the cached entries
+    public long weight() {
+        lock.lock();
+        try {
+            return weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMissCount() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getExpirationCount() {
+        lock.lock();
+        try {
+            return expirations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // loads completed through a loader (including ones that returned null)
+    public long getLoadCount() {
+        lock.lock();
+        try {
+            return loads;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLoadFailureCount() {
+        lock.lock();
+        try {
+            return loadFailures;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("size=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d, expirations=%d, "
+                    + "loads=%d, load failures=%d", size, weight, maxWeight, hits, misses, evictions,
+                    expirations, loads, loadFailures);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /***** INNER CLASSES ************/
+
+    // cached entry and its place on the clock
+    private static class Node<K, V> {
+
+        private final K key;
+        private final V value;
+        private final long weight;
+        private boolean expires;  // false for entries added while expiry was off
+        private long expiresAt;  // System.nanoTime() deadline, if expires
+        private boolean referenced;
+        private int slot;  // index in ring
+
+        public Node(K key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+}
@@ -0,0 +1,325 @@
+package hashmap;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe HashTable that uses linear probing for collision resolution.
+ * Keys are spread over independently locked segments (lock striping); each
+ * segment is a power-of-two linear probing table of immutable nodes.
+ * <p>
+ * find never locks: it reads the segment's current slot array and the slots
+ * themselves through volatile reads, and every change is published by
+ * storing a whole new node (or the tombstone) into a slot.  add and delete
+ * lock only the segment that owns the key, and a segment resizes on its own
+ * by building a new slot array and publishing it in one volatile write, so
+ * resizes of different segments run in parallel and never block readers.
+ * <p>
+ * Iteration is weakly consistent: it never throws
+ * ConcurrentModificationException and may or may not reflect concurrent
+ * changes.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class ConcurrentLPHashTable<K, V> implements IHashTable<K, V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_SEGMENT_SIZE = 8;
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    // marks a deleted slot; never equal to a live node
+    private static final Node TOMBSTONE = new Node(0, null, null);
+
+    private final Segment[] segments;
+    private final int segmentShift;  // high hash bits select the segment
+
+    // constructor
+    public ConcurrentLPHashTable() {
+        this(DEFAULT_CONCURRENCY_LEVEL * INITIAL_SEGMENT_SIZE, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    public ConcurrentLPHashTable(int tableSize) {
+        this(tableSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param tableSize  initial number of slots over all segments
+     * @param concurrencyLevel  expected number of concurrently writing threads;
+     *                          rounded up to a power of two segments
+     */
+    public ConcurrentLPHashTable(int tableSize, int concurrencyLevel) {
+        if (concurrencyLevel <= 0) throw new IllegalArgumentException("Concurrency level must be positive");
+        int segmentCount = Math.min(HashFunctions.tableSizeFor(concurrencyLevel), MAX_SEGMENTS);
+        int segmentSize = HashFunctions.tableSizeFor(Math.max(INITIAL_SEGMENT_SIZE, tableSize / segmentCount));
+
+        segments = new Segment[segmentCount];
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    // get size of table (a moment-in-time sum over the segments)
+    @Override
+    public int size() {
+        long total = 0;
+        for (Segment segment : segments) total += segment.count;
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    // is table empty?
+    @Override
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.count != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) segment.clear();
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * Only the segment that owns the key is locked.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = HashFunctions.mix(key.hashCode());
+        segmentFor(hash).add(hash, key, value);
+    }
+
+    /** Finds (gets) the value for a given key without locking.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    @Override
+    public V find(K key) {
+        if (key == null) return null;
+
+        int hash = HashFunctions.mix(key.hashCode());
+        AtomicReferenceArray<Node> table = segmentFor(hash).table;
+        int mask = table.length() - 1;
+        int index = hash & mask;
+
+        for (int probes = 0; probes <= mask; probes++) {
+            Node node = table.get(index);
+            if (node == null) break;
+            if (node != TOMBSTONE && node.hash == hash && node.key.equals(key)) {
+                return valueOf(node);
+            }
+            index = (index + 1) & mask;  // otherwise, look at next slot
+        }
+        return null;
+    }
+
+    /**
+     * Removes the value associated with the key from the table.  The slot is
+     * tombstoned and reclaimed when its segment next rebuilds.
+     * @param key
+     */
+    @Override
+    public void delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = HashFunctions.mix(key.hashCode());
+        segmentFor(hash).delete(hash, key);
+    }
+
+    // nodes hold only values add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueOf(Node node) {
+        return (V) node.value;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[(segmentShift == 32) ? 0 : hash >>> segmentShift];
+    }
+
+    // testing only
+    public int getTableLength() {
+        int length = 0;
+        for (Segment segment : segments) length += segment.table.length();
+        return length;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // immutable key/value pair; an update stores a new node in the slot
+    private static final class Node {
+
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        Node(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // one lock stripe: a linear probing table guarded by its own lock.
+    // table and count are volatile so readers see the latest publication.
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile AtomicReferenceArray<Node> table;
+        private volatile int count;  // active nodes
+        private int used;  // active nodes + tombstones, guarded by the lock
+
+        Segment(int tableSize) {
+            table = new AtomicReferenceArray<>(tableSize);
+        }
+
+        void add(int hash, Object key, Object value) {
+            lock.lock();
+            try {
+                if ((double) (used + 1) / table.length() >= LOAD_FACTOR) rebuild();
+
+                AtomicReferenceArray<Node> tab = table;
+                int mask = tab.length() - 1;
+                int index = hash & mask;
+                int firstTombstone = -1;
+
+                Node node;
+                while ((node = tab.get(index)) != null) {
+                    if (node == TOMBSTONE) {
+                        if (firstTombstone < 0) firstTombstone = index;
+                    } else if (node.hash == hash && node.key.equals(key)) {
+                        tab.set(index, new Node(hash, key, value));
+                        return;
+                    }
+                    index = (index + 1) & mask;
+                }
+
+                if (firstTombstone >= 0) {
+                    index = firstTombstone;
+                } else {
+                    used++;
+                }
+                tab.set(index, new Node(hash, key, value));
+                count = count + 1;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void delete(int hash, Object key) {
+            lock.lock();
+            try {
+                AtomicReferenceArray<Node> tab = table;
+                int mask = tab.length() - 1;
+                int index = hash & mask;
+
+                Node node;
+                while ((node = tab.get(index)) != null) {
+                    if (node != TOMBSTONE && node.hash == hash && node.key.equals(key)) {
+                        tab.set(index, TOMBSTONE);
+                        count = count - 1;
+                        return;
+                    }
+                    index = (index + 1) & mask;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                table = new AtomicReferenceArray<>(INITIAL_SEGMENT_SIZE);
+                count = 0;
+                used = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // copies the live nodes into a fresh array (doubled unless the
+        // segment is mostly tombstones) and publishes it.  Readers still
+        // holding the old array see a complete, unchanging snapshot.
+        private void rebuild() {
+            AtomicReferenceArray<Node> oldTable = table;
+            int length = oldTable.length();
+            if ((double) (count + 1) / length >= LOAD_FACTOR / 2) length *= 2;
+
+            AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(length);
+            int mask = length - 1;
+            for (int i = 0; i < oldTable.length(); i++) {
+                Node node = oldTable.get(i);
+                if (node == null || node == TOMBSTONE) continue;
+                int index = node.hash & mask;
+                while (newTable.get(index) != null) index = (index + 1) & mask;
+                newTable.lazySet(index, node);
+            }
+            used = count;
+            table = newTable;  // volatile write publishes the filled array
+        }
+    }
+
+    // weakly consistent iterator over values, segment by segment
+    private class HTIterator implements Iterator<V> {
+
+        private int segmentIndex = -1;
+        private AtomicReferenceArray<Node> table;
+        private int index;
+        private Node nextNode;
+
+        public HTIterator() {
+            advance();
+        }
+
+        private void advance() {
+            nextNode = null;
+            while (true) {
+                if (table != null) {
+                    while (index < table.length()) {
+                        Node node = table.get(index++);
+                        if (node != null && node != TOMBSTONE) {
+                            nextNode = node;
+                            return;
+                        }
+                    }
+                }
+                if (++segmentIndex >= segments.length) return;
+                table = segments[segmentIndex].table;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public V next() {
+            if (nextNode == null) throw new NoSuchElementException();
+            V value = valueOf(nextNode);
+            advance();
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,390 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashTable that uses bucketized cuckoo hashing.  Slots are grouped into
+ * buckets of 4, and every key may live in only one of two buckets, chosen
+ * by two hash functions.  find therefore reads at most two buckets (plus a
+ * small stash, only while the stash is in use), whatever the load.  When
+ * both buckets of a new key are full, add evicts a random resident to its
+ * other bucket, and so on; a key still homeless after MAX_KICKS evictions
+ * goes to the stash, and the table grows once the stash is full.  (If the
+ * table is less than half full at that point, the keys are colliding rather
+ * than crowded -- for example, many equal hash codes -- and growing would
+ * not help, so the stash grows instead.)
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class CuckooHashTable<K, V> implements IHashTable<K, V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.9;
+    private static final int INITIAL_TABLE_SIZE = 16;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int BUCKET_SIZE = 4;
+    private static final int MAX_KICKS = 500;
+    private static final int STASH_SIZE = 4;
+
+    // slot i belongs to bucket i / BUCKET_SIZE; a null key is a free slot
+    private Object[] keys;
+    private Object[] values;
+    private int[] codes;  // hashCode of each key, to skip equals and to rehash
+    private int bucketMask;
+
+    // keys that found no slot, checked by find only while non-empty
+    private Object[] stashKeys = new Object[STASH_SIZE];
+    private Object[] stashValues = new Object[STASH_SIZE];
+    private int stashCount;
+
+    private final double maxLoadFactor;
+    private int seed = 0x9E3779B9;  // xorshift state for choosing victims
+
+    private int size; // number of objects in table and stash
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public CuckooHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public CuckooHashTable(int tableSize) {
+        this(tableSize, LOAD_FACTOR);
+    }
+
+    /**
+     * @param tableSize  initial number of slots (rounded up to a power of two)
+     * @param maxLoadFactor  fraction of slots in use at which the table grows;
+     *                       4-slot buckets fill reliably up to about 0.95
+     */
+    public CuckooHashTable(int tableSize, double maxLoadFactor) {
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) throw new IllegalArgumentException("Load factor must be in (0, 1)");
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(Math.max(2 * BUCKET_SIZE, HashFunctions.tableSizeFor(tableSize)));
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        codes = new int[capacity];
+        bucketMask = capacity / BUCKET_SIZE - 1;
+    }
+
+    // get size of table
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // is table empty?
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        allocate(Math.max(2 * BUCKET_SIZE, HashFunctions.tableSizeFor(tableSize)));
+        stashKeys = new Object[STASH_SIZE];
+        stashValues = new Object[STASH_SIZE];
+        stashCount = 0;
+        size = 0;
+        modcount++;
+    }
+
+    // the two hash functions: the halves of one 64-bit mix of the hash code
+    private int bucket1(long hash) {
+        return (int) hash & bucketMask;
+    }
+
+    private int bucket2(long hash) {
+        int bucket = (int) (hash >>> 32) & bucketMask;
+        return (bucket == bucket1(hash)) ? bucket ^ 1 : bucket;  // always two distinct buckets
+    }
+
+    private static long hash(int code) {
+        return HashFunctions.mix((long) code);
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int code = key.hashCode();
+        long hash = hash(code);
+        int index = indexOf(key, code, hash);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        index = stashIndexOf(key);
+        if (index >= 0) {
+            stashValues[index] = value;
+            return;
+        }
+
+        // check load factor to see if table needs to be resized
+        if ((double) (size + 1) / keys.length > maxLoadFactor) {
+            resize(keys.length * RESIZE_FACTOR);
+        }
+
+        modcount++;
+        insert(key, value, code);
+        size++;
+    }
+
+    /** Finds (gets) the value for a given key.  Reads at most the key's two
+     * buckets, and the stash when it isn't empty.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    @Override
+    public V find(K key) {
+        if (key == null) return null;
+
+        int code = key.hashCode();
+        int index = indexOf(key, code, hash(code));
+        if (index >= 0) return valueAt(values, index);
+        if (stashCount > 0) {
+            index = stashIndexOf(key);
+            if (index >= 0) return valueAt(stashValues, index);
+        }
+        return null;
+    }
+
+    // slot holding key in either of its buckets, or -1
+    private int indexOf(Object key, int code, long hash) {
+        int index = indexInBucket(bucket1(hash), key, code);
+        return (index >= 0) ? index : indexInBucket(bucket2(hash), key, code);
+    }
+
+    private int indexInBucket(int bucket, Object key, int code) {
+        int start = bucket * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (codes[i] == code && keys[i] != null && keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    private int stashIndexOf(Object key) {
+        for (int i = 0; i < stashCount; i++) {
+            if (stashKeys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    // values and stashValues hold only what add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueAt(Object[] array, int index) {
+        return (V) array[index];
+    }
+
+    // first free slot in bucket, or -1
+    private int freeSlot(int bucket) {
+        int start = bucket * BUCKET_SIZE;
+        for (int i = start; i < start + BUCKET_SIZE; i++) {
+            if (keys[i] == null) return i;
+        }
+        return -1;
+    }
+
+    private void store(int index, Object key, Object value, int code) {
+        keys[index] = key;
+        values[index] = value;
+        codes[index] = code;
+    }
+
+    // places a key known to be absent, evicting residents as needed
+    private void insert(Object key, Object value, int code) {
+        while (true) {
+            long hash = hash(code);
+            int index = freeSlot(bucket1(hash));
+            if (index < 0) index = freeSlot(bucket2(hash));
+            if (index >= 0) {
+                store(index, key, value, code);
+                return;
+            }
+
+            // random walk: evict a resident and move it to its other bucket
+            int bucket = (nextRandom() & 1) == 0 ? bucket1(hash) : bucket2(hash);
+            for (int kick = 0; kick < MAX_KICKS; kick++) {
+                index = bucket * BUCKET_SIZE + (nextRandom() & (BUCKET_SIZE - 1));
+                Object evictedKey = keys[index];
+                Object evictedValue = values[index];
+                int evictedCode = codes[index];
+                store(index, key, value, code);
+                key = evictedKey;
+                value = evictedValue;
+                code = evictedCode;
+
+                hash = hash(code);
+                bucket = (bucket == bucket1(hash)) ? bucket2(hash) : bucket1(hash);
+                index = freeSlot(bucket);
+                if (index >= 0) {
+                    store(index, key, value, code);
+                    return;
+                }
+            }
+
+            // the key in hand is homeless: stash it, or grow and try again
+            if (stashCount == stashKeys.length && (double) size / keys.length < maxLoadFactor / 2) {
+                stashKeys = Arrays.copyOf(stashKeys, stashCount * 2);  // colliding keys
+                stashValues = Arrays.copyOf(stashValues, stashCount * 2);
+            }
+            if (stashCount < stashKeys.length) {
+                stashKeys[stashCount] = key;
+                stashValues[stashCount] = value;
+                stashCount++;
+                return;
+            }
+            resize(keys.length * RESIZE_FACTOR);
+        }
+    }
+
+    private int nextRandom() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    // move every key, including the stashed ones, into a table of the given length
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldCodes = codes;
+        Object[] oldStashKeys = stashKeys;
+        Object[] oldStashValues = stashValues;
+        int oldStashCount = stashCount;
+
+        allocate(capacity);
+        stashKeys = new Object[STASH_SIZE];
+        stashValues = new Object[STASH_SIZE];
+        stashCount = 0;
+
+        // insert may grow the table again, which is fine: it always works
+        // on the current arrays
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) insert(oldKeys[i], oldValues[i], oldCodes[i]);
+        }
+        for (int i = 0; i < oldStashCount; i++) {
+            insert(oldStashKeys[i], oldStashValues[i], oldStashKeys[i].hashCode());
+        }
+        modcount++;
+    }
+
+    /**
+     * Removes the value associated with the key from the table.  The slot is
+     * freed at once (there are no tombstones); a stashed key that belongs in
+     * the freed bucket moves into it.
+     * @param key
+     */
+    @Override
+    public void delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int code = key.hashCode();
+        int index = indexOf(key, code, hash(code));
+        if (index >= 0) {
+            store(index, null, null, 0);
+            size--;
+            modcount++;
+            unstashInto(index / BUCKET_SIZE);
+            return;
+        }
+
+        index = stashIndexOf(key);
+        if (index >= 0) {
+            removeFromStash(index);
+            size--;
+            modcount++;
+        }
+    }
+
+    // moves the first stashed key that hashes to bucket into its free slot
+    private void unstashInto(int bucket) {
+        for (int i = 0; i < stashCount; i++) {
+            int code = stashKeys[i].hashCode();
+            long hash = hash(code);
+            if (bucket1(hash) == bucket || bucket2(hash) == bucket) {
+                store(freeSlot(bucket), stashKeys[i], stashValues[i], code);
+                removeFromStash(i);
+                return;
+            }
+        }
+    }
+
+    private void removeFromStash(int index) {
+        stashCount--;
+        stashKeys[index] = stashKeys[stashCount];
+        stashValues[index] = stashValues[stashCount];
+        stashKeys[stashCount] = null;
+        stashValues[stashCount] = null;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return keys.length;
+    }
+
+    // testing only
+    public int getStashSize() {
+        return stashCount;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // iterator over values in the table, then in the stash
+    private class HTIterator implements Iterator<V> {
+
+        private int index;  // slots first, then stash entries past keys.length
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (index < keys.length && keys[index] == null) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length + stashCount;
+        }
+
+        @Override
+        public V next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return (i < keys.length) ? valueAt(values, i) : valueAt(stashValues, i - keys.length);
+        }
+    }
+
+}
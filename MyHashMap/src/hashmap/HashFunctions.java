@@ -0,0 +1,42 @@
+package hashmap;
+
+/**
+ * Hash helpers shared by the tables in this package.
+ */
+final class HashFunctions {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private HashFunctions() {
+    }
+
+    /**
+     * Murmur3 32-bit finalizer.  Spreads every input bit over the whole word
+     * so that masking off the low bits is safe for sequential or clustered
+     * hash codes (flight numbers, multiples of 1000, ...).
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Murmur3 64-bit finalizer, for long keys
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // smallest power of two >= size (at least 2)
+    static int tableSizeFor(int size) {
+        if (size >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+        return Math.max(2, Integer.highestOneBit(Math.max(size - 1, 1)) << 1);
+    }
+}
@@ -0,0 +1,261 @@
+package hashmap;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters for a single hash table, filled in by the table itself once
+ * statistics are enabled on it.  Recording is a few plain field writes per
+ * operation; nothing is synchronized, so a reader on another thread (a JMX
+ * client, say) sees values that are close to current but may lag slightly.
+ * <p>
+ * The load factor is sampled every SAMPLE_INTERVAL changes into a ring of
+ * the last SAMPLE_COUNT samples, each stamped with the wall-clock time.
+ */
+public class HashTableStats implements HashTableStatsMBean {
+
+    private static final int HISTOGRAM_BUCKETS = 32;
+    private static final int SAMPLE_COUNT = 64;
+    private static final int SAMPLE_INTERVAL = 1024;
+
+    private long[] findHistogram = new long[HISTOGRAM_BUCKETS];
+    private long findCount;
+    private long findProbes;
+    private int maxFindProbes;
+
+    private long[] addHistogram = new long[HISTOGRAM_BUCKETS];
+    private long addCount;
+    private long addProbes;
+    private int maxAddProbes;
+    private long collisions;
+
+    private long tombstoneHits;
+    private long compactions;
+
+    private long resizes;
+    private long totalResizeNanos;
+    private long lastResizeNanos;
+
+    private int size;
+    private int tombstones;
+    private int tableLength;
+
+    private long[] sampleTimes = new long[SAMPLE_COUNT];
+    private double[] samples = new double[SAMPLE_COUNT];
+    private int sampleCount;  // total samples taken; ring index is % SAMPLE_COUNT
+    private int changesSinceSample;
+
+    /***** recording, called by the table ************/
+
+    void recordFind(int probes, int tombstonesPassed) {
+        findCount++;
+        findProbes += probes;
+        if (probes > maxFindProbes) maxFindProbes = probes;
+        findHistogram[bucket(probes)]++;
+        tombstoneHits += tombstonesPassed;
+    }
+
+    void recordAdd(int probes, int tombstonesPassed) {
+        addCount++;
+        addProbes += probes;
+        if (probes > maxAddProbes) maxAddProbes = probes;
+        addHistogram[bucket(probes)]++;
+        if (probes > 1) collisions++;
+        tombstoneHits += tombstonesPassed;
+    }
+
+    void recordResize(long nanos) {
+        resizes++;
+        totalResizeNanos += nanos;
+        lastResizeNanos = nanos;
+    }
+
+    void recordCompaction() {
+        compactions++;
+    }
+
+    // current shape; takes a load-factor sample every SAMPLE_INTERVAL calls
+    void recordState(int size, int tombstones, int tableLength) {
+        this.size = size;
+        this.tombstones = tombstones;
+        this.tableLength = tableLength;
+        if (++changesSinceSample >= SAMPLE_INTERVAL || sampleCount == 0) {
+            changesSinceSample = 0;
+            int i = sampleCount++ % SAMPLE_COUNT;
+            sampleTimes[i] = System.currentTimeMillis();
+            samples[i] = getLoadFactor();
+        }
+    }
+
+    // power-of-two bucket of a probe count (probes >= 1)
+    private static int bucket(int probes) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(probes, 1));
+    }
+
+    /***** JMX registration ************/
+
+    /**
+     * Registers these statistics with the platform MBean server under
+     * hashmap:type=HashTableStats,name=&lt;name&gt;.
+     * @param name  distinguishes this table from others in the process
+     * @return the name it was registered under
+     * @throws JMException if the name is malformed or already taken
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("hashmap:type=HashTableStats,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    public void unregisterMBean(ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    /***** MBean attributes ************/
+
+    @Override
+    public long getFindCount() {
+        return findCount;
+    }
+
+    @Override
+    public double getMeanFindProbeLength() {
+        return (findCount == 0) ? 0 : (double) findProbes / findCount;
+    }
+
+    @Override
+    public int getMaxFindProbeLength() {
+        return maxFindProbes;
+    }
+
+    @Override
+    public long[] getFindProbeHistogram() {
+        return findHistogram.clone();
+    }
+
+    @Override
+    public long getAddCount() {
+        return addCount;
+    }
+
+    @Override
+    public double getMeanAddProbeLength() {
+        return (addCount == 0) ? 0 : (double) addProbes / addCount;
+    }
+
+    @Override
+    public int getMaxAddProbeLength() {
+        return maxAddProbes;
+    }
+
+    @Override
+    public long[] getAddProbeHistogram() {
+        return addHistogram.clone();
+    }
+
+    // adds whose home slot was already taken
+    @Override
+    public long getCollisionCount() {
+        return collisions;
+    }
+
+    // tombstoned slots walked past by find and add
+    @Override
+    public long getTombstoneHitCount() {
+        return tombstoneHits;
+    }
+
+    @Override
+    public long getCompactionCount() {
+        return compactions;
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizes;
+    }
+
+    @Override
+    public long getTotalResizeNanos() {
+        return totalResizeNanos;
+    }
+
+    @Override
+    public long getLastResizeNanos() {
+        return lastResizeNanos;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getTombstones() {
+        return tombstones;
+    }
+
+    @Override
+    public int getTableLength() {
+        return tableLength;
+    }
+
+    // occupied slots (active + tombstones) over table length
+    @Override
+    public double getLoadFactor() {
+        return (tableLength == 0) ? 0 : (double) (size + tombstones) / tableLength;
+    }
+
+    // oldest first
+    @Override
+    public long[] getLoadFactorSampleTimes() {
+        long[] times = new long[Math.min(sampleCount, SAMPLE_COUNT)];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = sampleTimes[(sampleCount - times.length + i) % SAMPLE_COUNT];
+        }
+        return times;
+    }
+
+    // oldest first, matching getLoadFactorSampleTimes
+    @Override
+    public double[] getLoadFactorSamples() {
+        double[] values = new double[Math.min(sampleCount, SAMPLE_COUNT)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = samples[(sampleCount - values.length + i) % SAMPLE_COUNT];
+        }
+        return values;
+    }
+
+    // zero the counters; the table shape is kept
+    @Override
+    public void reset() {
+        findHistogram = new long[HISTOGRAM_BUCKETS];
+        findCount = 0;
+        findProbes = 0;
+        maxFindProbes = 0;
+        addHistogram = new long[HISTOGRAM_BUCKETS];
+        addCount = 0;
+        addProbes = 0;
+        maxAddProbes = 0;
+        collisions = 0;
+        tombstoneHits = 0;
+        compactions = 0;
+        resizes = 0;
+        totalResizeNanos = 0;
+        lastResizeNanos = 0;
+        sampleTimes = new long[SAMPLE_COUNT];
+        samples = new double[SAMPLE_COUNT];
+        sampleCount = 0;
+        changesSinceSample = 0;
+    }
+
+    public String toString() {
+        return String.format("finds=%d (mean probe %.2f, max %d), adds=%d (mean probe %.2f, max %d), "
+                        + "collisions=%d, tombstone hits=%d, resizes=%d (%.1f ms total), compactions=%d, "
+                        + "size=%d, tombstones=%d, length=%d, load factor=%.3f",
+                findCount, getMeanFindProbeLength(), maxFindProbes, addCount, getMeanAddProbeLength(),
+                maxAddProbes, collisions, tombstoneHits, resizes, totalResizeNanos / 1e6, compactions,
+                size, tombstones, tableLength, getLoadFactor());
+    }
+}
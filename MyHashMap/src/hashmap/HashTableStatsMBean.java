@@ -0,0 +1,41 @@
+package hashmap;
+
+/**
+ * JMX view of a HashTableStats.  Probe-length histograms use power-of-two
+ * buckets: bucket i counts operations that examined [2^i, 2^(i+1)) slots.
+ */
+public interface HashTableStatsMBean {
+
+    // find
+    public long getFindCount();
+    public double getMeanFindProbeLength();
+    public int getMaxFindProbeLength();
+    public long[] getFindProbeHistogram();
+
+    // add
+    public long getAddCount();
+    public double getMeanAddProbeLength();
+    public int getMaxAddProbeLength();
+    public long[] getAddProbeHistogram();
+    public long getCollisionCount();
+
+    // tombstones
+    public long getTombstoneHitCount();
+    public long getCompactionCount();
+
+    // resizing
+    public long getResizeCount();
+    public long getTotalResizeNanos();
+    public long getLastResizeNanos();
+
+    // current shape of the table
+    public int getSize();
+    public int getTombstones();
+    public int getTableLength();
+    public double getLoadFactor();
+    public long[] getLoadFactorSampleTimes();
+    public double[] getLoadFactorSamples();
+
+    public void reset();
+
+}
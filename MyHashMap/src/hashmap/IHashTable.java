@@ -0,0 +1,24 @@
+package hashmap;
+
+import java.util.Iterator;
+
+/**
+ * Common operations of the hash tables in this package, so one
+ * collision-resolution strategy can be swapped for another.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public interface IHashTable<K, V> extends Iterable<V> {
+
+    // ADT methods
+    public void add(K key, V value);
+    public V find(K key);
+    public void delete(K key);
+
+    // other standard methods
+    public int size();
+    public boolean isEmpty();
+    public void clear();
+    public Iterator<V> iterator();
+
+}
@@ -0,0 +1,27 @@
+package hashmap;
+
+/**
+ * One partition of a ShardedHashMap.  A shard must be safe to call from
+ * several threads at once; ShardedHashMap adds no locking of its own around
+ * a single call.  LocalShard keeps its keys in an in-process LPHashTable; a
+ * shard backed by a remote node implements the same calls over the wire.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public interface IShard<K, V> {
+
+    // stable name of the shard; its positions on the hash ring derive from it
+    public String id();
+
+    public void add(K key, V value);
+    public V find(K key);
+    public void delete(K key);
+
+    public int size();
+    public void clear();
+
+    // the shard's keys, as a snapshot or a weakly consistent view; used
+    // to find the keys that must move when shards are added or removed
+    public Iterable<K> keys();
+
+}
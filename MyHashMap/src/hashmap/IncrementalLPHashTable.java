@@ -0,0 +1,324 @@
+package hashmap;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashTable that uses linear probing for collision resolution and grows
+ * incrementally.  When the load factor is exceeded, a new table sized for
+ * the live entries (tombstones don't count) is allocated but the old one
+ * is kept; every later add or delete moves a
+ * bounded number of old slots into the new table, so no single call pays
+ * for rehashing the whole table.  While a migration is in progress, find
+ * checks the new table and then the old one.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class IncrementalLPHashTable<K, V> implements IHashTable<K, V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_TABLE_SIZE = 8;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int DEFAULT_MIGRATION_STEP = 8;
+
+    // marks a deleted or already-migrated slot
+    private static final Entry TOMBSTONE = new Entry(null, null, 0);
+
+    private Entry[] table;
+    private Entry[] oldTable;  // non-null while a resize is in progress
+    private int migrateIndex;  // next old slot to move
+    private final int migrationStep;  // old slots moved per add/delete
+
+    private int count; // number of active objects in both tables
+    private int used; // occupied slots (active + tombstones) in table
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public IncrementalLPHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public IncrementalLPHashTable(int tableSize) {
+        this(tableSize, DEFAULT_MIGRATION_STEP);
+    }
+
+    /**
+     * @param tableSize  initial number of slots (rounded up to a power of two)
+     * @param migrationStep  old slots migrated per add/delete; at least 2 so a
+     *                       migration always ends before the next one is due
+     */
+    public IncrementalLPHashTable(int tableSize, int migrationStep) {
+        if (migrationStep < 2) throw new IllegalArgumentException("Migration step must be at least 2");
+        this.migrationStep = migrationStep;
+        table = new Entry[HashFunctions.tableSizeFor(tableSize)];
+    }
+
+    // get size of table
+    @Override
+    public int size() {
+        return count;
+    }
+
+    // is table empty?
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        table = new Entry[HashFunctions.tableSizeFor(tableSize)];
+        oldTable = null;
+        migrateIndex = 0;
+        count = 0;
+        used = 0;
+        modcount++;
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        modcount++;
+        migrate(migrationStep);
+
+        // check load factor to see if a new table is needed
+        if ((double) (used + 1) / table.length >= LOAD_FACTOR) {
+            startResize();
+        }
+
+        int hash = HashFunctions.mix(key.hashCode());
+
+        // probe the new table; remember the first tombstone for reuse
+        int mask = table.length - 1;
+        int index = hash & mask;
+        int firstTombstone = -1;
+        while (table[index] != null) {
+            Entry entry = table[index];
+            if (entry == TOMBSTONE) {
+                if (firstTombstone < 0) firstTombstone = index;
+            } else if (entry.hash == hash && entry.key.equals(key)) {
+                entry.value = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+
+        // not in the new table: if the old table still holds it, take it
+        // out there so the key lives in exactly one table
+        if (oldTable == null || !removeFromOld(hash, key)) count++;
+
+        if (firstTombstone >= 0) {
+            index = firstTombstone;
+        } else {
+            used++;
+        }
+        table[index] = new Entry(key, value, hash);
+    }
+
+    /** Finds (gets) the value for a given key.  Never migrates, so find
+     * stays read-only.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    @Override
+    public V find(K key) {
+        if (key == null) return null;
+
+        int hash = HashFunctions.mix(key.hashCode());
+        Entry entry = lookup(table, hash, key);
+        if (entry == null && oldTable != null) entry = lookup(oldTable, hash, key);
+        return (entry == null) ? null : valueOf(entry);
+    }
+
+    // entries hold only values add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueOf(Entry entry) {
+        return (V) entry.value;
+    }
+
+    // linear probe of one table; returns the entry or null
+    private static Entry lookup(Entry[] tab, int hash, Object key) {
+        int mask = tab.length - 1;
+        int index = hash & mask;
+        while (tab[index] != null) {
+            Entry entry = tab[index];
+            if (entry != TOMBSTONE && entry.hash == hash && entry.key.equals(key)) return entry;
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the value associated with the key from the table.  The slot is
+     * tombstoned and cleaned up when the table next grows.
+     * @param key
+     */
+    @Override
+    public void delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        modcount++;
+        migrate(migrationStep);
+
+        int hash = HashFunctions.mix(key.hashCode());
+        if (tombstone(table, hash, key) || (oldTable != null && removeFromOld(hash, key))) {
+            count--;
+        }
+    }
+
+    // tombstones key in the old table; true if it was there
+    private boolean removeFromOld(int hash, Object key) {
+        return tombstone(oldTable, hash, key);
+    }
+
+    private static boolean tombstone(Entry[] tab, int hash, Object key) {
+        int mask = tab.length - 1;
+        int index = hash & mask;
+        while (tab[index] != null) {
+            Entry entry = tab[index];
+            if (entry != TOMBSTONE && entry.hash == hash && entry.key.equals(key)) {
+                tab[index] = TOMBSTONE;
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    // allocate the new table and begin migrating into it.  It is sized for
+    // the live entries, since migration drops the tombstones: doubled when
+    // they need it, halved when they are few, otherwise the same length.
+    private void startResize() {
+        finishResize();  // a previous migration must be complete first
+
+        int length = table.length;
+        if ((double) (count + 1) / length >= LOAD_FACTOR / 2) {
+            length *= RESIZE_FACTOR;
+        } else if (length > INITIAL_TABLE_SIZE && (double) count / length < LOAD_FACTOR / 8) {
+            length /= RESIZE_FACTOR;
+        }
+
+        oldTable = table;
+        migrateIndex = 0;
+        table = new Entry[length];
+        used = 0;
+    }
+
+    /**
+     * Moves every remaining old slot into the new table now, for callers
+     * that would rather pay for it at a time of their choosing.
+     */
+    public void finishResize() {
+        if (oldTable != null) migrate(oldTable.length);
+    }
+
+    // moves up to steps old slots into the new table.  Migrated slots are
+    // tombstoned, not nulled, so probe runs in the old table stay intact.
+    private void migrate(int steps) {
+        if (oldTable == null) return;
+
+        int mask = table.length - 1;
+        int end = Math.min(oldTable.length, migrateIndex + steps);
+        for (; migrateIndex < end; migrateIndex++) {
+            Entry entry = oldTable[migrateIndex];
+            if (entry == null || entry == TOMBSTONE) continue;
+
+            int index = entry.hash & mask;
+            while (table[index] != null) index = (index + 1) & mask;
+            table[index] = entry;
+            oldTable[migrateIndex] = TOMBSTONE;
+            used++;
+        }
+        if (migrateIndex == oldTable.length) oldTable = null;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return table.length;
+    }
+
+    // testing only
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // key and value plus the mixed hash, reused when migrating
+    private static class Entry {
+
+        private final Object key;
+        private Object value;
+        private final int hash;
+
+        public Entry(Object key, Object value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    // iterator over values in the new table, then the old one
+    private class HTIterator implements Iterator<V> {
+
+        private Entry[] current = table;
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (true) {
+                while (index < current.length && (current[index] == null || current[index] == TOMBSTONE)) index++;
+                if (index < current.length || current != table || oldTable == null) return;
+                current = oldTable;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < current.length;
+        }
+
+        @Override
+        public V next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            Entry entry = current[index];
+            index++;
+            getNextIndex();
+            return valueOf(entry);
+        }
+    }
+
+}
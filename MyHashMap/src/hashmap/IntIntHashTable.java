@@ -0,0 +1,244 @@
+package hashmap;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * HashTable that uses linear probing for collision resolution, specialized
+ * for primitive int keys and int values (for example, flight number to
+ * gate number).  Keys, values and slot states are kept in parallel arrays
+ * so nothing is allocated per entry.
+ */
+public class IntIntHashTable implements Iterable<Integer> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_TABLE_SIZE = 7;
+    private static final double RESIZE_FACTOR = 2;
+
+    // returned by find when the key is absent, unless overridden
+    public static final int DEFAULT_NO_VALUE = -1;
+
+    // slot states
+    private static final byte EMPTY = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte TOMBSTONE = 2;
+
+    private int[] keys;
+    private int[] values;
+    private byte[] states;
+    private final int noValue;
+
+    private int size; // number of occupied slots (active + tombstones)
+    private int tombstones; // number of inactive slots
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public IntIntHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public IntIntHashTable(int tableSize) {
+        this(tableSize, DEFAULT_NO_VALUE);
+    }
+
+    // noValue is what find returns for a missing key
+    public IntIntHashTable(int tableSize, int noValue) {
+        this.noValue = noValue;
+        allocate(tableSize);
+    }
+
+    // get size of table
+    public int size() {
+        return size - tombstones;
+    }
+
+    // is table empty?
+    public boolean isEmpty() {
+        return (size - tombstones) == 0;
+    }
+
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        size = 0;
+        tombstones = 0;
+        allocate(tableSize);
+        modcount++;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        values = new int[tableSize];
+        states = new byte[tableSize];
+    }
+
+    // the value find returns for a missing key
+    public int getNoValue() {
+        return noValue;
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing (active) key will update the value associated with the key.
+     * Use FCFS linear probing to resolve collisions.
+     * @param key
+     * @param value
+     */
+    public void add(int key, int value) {
+
+        // check load factor to see if table needs to be resized
+        if (tableSizeExceedsLF()) {
+            resize();
+        }
+
+        int index = getHashIndex(key);
+        int firstTombstone = -1;
+
+        // probe until an empty slot; remember the first tombstone so
+        // it can be reused if the key turns out not to be present
+        modcount++;
+        while (states[index] != EMPTY) {
+            if (states[index] == ACTIVE) {
+                if (keys[index] == key) {
+                    values[index] = value;
+                    return;
+                }
+            } else if (firstTombstone < 0) {
+                firstTombstone = index;
+            }
+            index = ++index % keys.length;
+        }
+
+        if (firstTombstone >= 0) {
+            index = firstTombstone;
+            tombstones--;
+        } else {
+            size++;
+        }
+        keys[index] = key;
+        values[index] = value;
+        states[index] = ACTIVE;
+    }
+
+    // Computes the hash index of a key (same hash as Integer.hashCode)
+    private int getHashIndex(int key) {
+        return (key & 0x7fffffff) % keys.length;
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in table; getNoValue() otherwise.
+     */
+    public int find(int key) {
+        int index = indexOf(key);
+        return index < 0 ? noValue : values[index];
+    }
+
+    // is the key in the table?
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    // returns the slot holding the active key, or -1
+    private int indexOf(int key) {
+        int index = getHashIndex(key);
+
+        while (states[index] != EMPTY) {
+            if (states[index] == ACTIVE && keys[index] == key) return index;
+            index = ++index % keys.length;  // otherwise, look at next slot
+        }
+        return -1;
+    }
+
+    // determines if load factor is exceeded by current size
+    // only used on add.
+    private boolean tableSizeExceedsLF() {
+        return (double) size / keys.length >= LOAD_FACTOR;
+    }
+
+    // resize the table, dropping tombstones
+    private void resize() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        byte[] oldStates = states;
+
+        allocate((int) (oldKeys.length * RESIZE_FACTOR));
+        size = 0;
+        tombstones = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == ACTIVE) {
+                int index = getHashIndex(oldKeys[i]);
+                while (states[index] != EMPTY) index = ++index % keys.length;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = ACTIVE;
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Removes the value associated with the key from the table using lazy
+     * deletion -- the slot is marked as a tombstone and cleaned up on the
+     * next resize of the table.
+     * @param key
+     */
+    public void delete(int key) {
+        int index = indexOf(key);
+        if (index < 0) return;
+
+        states[index] = TOMBSTONE;
+        tombstones++;
+        modcount++;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return keys.length;
+    }
+
+    // use nextInt() on the returned iterator to avoid boxing
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // iterator over values in the table
+    private class HTIterator implements PrimitiveIterator.OfInt {
+
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (index < states.length && states[index] != ACTIVE) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < states.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return values[i];
+        }
+    }
+
+}
@@ -0,0 +1,235 @@
+package hashmap;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashTable that uses linear probing for collision resolution, specialized
+ * for primitive int keys.  Keys, values and slot states are kept in parallel
+ * arrays so no KVPair (or boxed Integer) is allocated per entry.
+ * @param <V> value  (for example, flight data)
+ */
+public class IntObjectHashTable<V> implements Iterable<V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_TABLE_SIZE = 7;
+    private static final double RESIZE_FACTOR = 2;
+
+    // slot states
+    private static final byte EMPTY = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte TOMBSTONE = 2;
+
+    private int[] keys;
+    private Object[] values;
+    private byte[] states;
+
+    private int size; // number of occupied slots (active + tombstones)
+    private int tombstones; // number of inactive slots
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public IntObjectHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public IntObjectHashTable(int tableSize) {
+        allocate(tableSize);
+    }
+
+    // get size of table
+    public int size() {
+        return size - tombstones;
+    }
+
+    // is table empty?
+    public boolean isEmpty() {
+        return (size - tombstones) == 0;
+    }
+
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        size = 0;
+        tombstones = 0;
+        allocate(tableSize);
+        modcount++;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        values = new Object[tableSize];
+        states = new byte[tableSize];
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing (active) key will update the value associated with the key.
+     * Use FCFS linear probing to resolve collisions.
+     * @param key
+     * @param value
+     */
+    public void add(int key, V value) {
+
+        // check load factor to see if table needs to be resized
+        if (tableSizeExceedsLF()) {
+            resize();
+        }
+
+        int index = getHashIndex(key);
+        int firstTombstone = -1;
+
+        // probe until an empty slot; remember the first tombstone so
+        // it can be reused if the key turns out not to be present
+        modcount++;
+        while (states[index] != EMPTY) {
+            if (states[index] == ACTIVE) {
+                if (keys[index] == key) {
+                    values[index] = value;
+                    return;
+                }
+            } else if (firstTombstone < 0) {
+                firstTombstone = index;
+            }
+            index = ++index % keys.length;
+        }
+
+        if (firstTombstone >= 0) {
+            index = firstTombstone;
+            tombstones--;
+        } else {
+            size++;
+        }
+        keys[index] = key;
+        values[index] = value;
+        states[index] = ACTIVE;
+    }
+
+    // Computes the hash index of a key (same hash as Integer.hashCode)
+    private int getHashIndex(int key) {
+        return (key & 0x7fffffff) % keys.length;
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    public V find(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    // is the key in the table?
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    // returns the slot holding the active key, or -1
+    private int indexOf(int key) {
+        int index = getHashIndex(key);
+
+        while (states[index] != EMPTY) {
+            if (states[index] == ACTIVE && keys[index] == key) return index;
+            index = ++index % keys.length;  // otherwise, look at next slot
+        }
+        return -1;
+    }
+
+    // values holds only what add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    // determines if load factor is exceeded by current size
+    // only used on add.
+    private boolean tableSizeExceedsLF() {
+        return (double) size / keys.length >= LOAD_FACTOR;
+    }
+
+    // resize the table, dropping tombstones
+    private void resize() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldStates = states;
+
+        allocate((int) (oldKeys.length * RESIZE_FACTOR));
+        size = 0;
+        tombstones = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == ACTIVE) {
+                int index = getHashIndex(oldKeys[i]);
+                while (states[index] != EMPTY) index = ++index % keys.length;
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = ACTIVE;
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Removes the value associated with the key from the table using lazy
+     * deletion -- the slot is marked as a tombstone and cleaned up on the
+     * next resize of the table.
+     * @param key
+     */
+    public void delete(int key) {
+        int index = indexOf(key);
+        if (index < 0) return;
+
+        states[index] = TOMBSTONE;
+        values[index] = null;  // let the value be collected
+        tombstones++;
+        modcount++;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return keys.length;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // iterator over values in the table
+    private class HTIterator implements Iterator<V> {
+
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (index < states.length && states[index] != ACTIVE) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < states.length;
+        }
+
+        @Override
+        public V next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return valueAt(i);
+        }
+    }
+
+}
@@ -1,21 +1,55 @@
 package hashmap;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
 /**
  * HashTable that uses linear probing for collision resolution
  * @param <K> key  (for example, flight numbers)
  * @param <V> value  (for example, flight data)
  */
-public class LPHashTable<K, V> implements Iterable<V> {
+public class LPHashTable<K, V> implements IHashTable<K, V> {
 
     // constants for managing the table
     private static final double LOAD_FACTOR = 0.7;
     private static final int INITIAL_TABLE_SIZE = 7;
     private static final double RESIZE_FACTOR = 2;
+    private static final double DEFAULT_COMPACTION_THRESHOLD = 0.25;
+    private static final int FIND_BATCH_SIZE = 16;
 
-    private KVPair[] table;
+    // snapshot format
+    private static final long SNAPSHOT_MAGIC = 0x4C50534E41505348L;  // "LPSNAPSH"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_BLOCK_SIZE = 64 * 1024;  // bytes of entries per checksummed block
+
+    private KVPair<K, V>[] table;
+    private final boolean powerOfTwo; // mask-based indexing instead of modulo
+    private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private HashTableStats stats;  // null unless enableStats() was called
+    private BloomFilter bloomFilter;  // null unless enableBloomFilter() was called
 
     private int size; // number of objects in table
     private int tombstones; // number of inactive objects
@@ -27,7 +61,19 @@ public class LPHashTable<K, V> implements Iterable<V> {
     }
 
     public LPHashTable(int tableSize) {
-        table = new KVPair[tableSize];
+        this(tableSize, false);
+    }
+
+    /**
+     * When powerOfTwo is set, the table length is rounded up to a power of two
+     * and slots are found by mixing the hash code and masking, so no probe step
+     * pays for an integer division.
+     * @param tableSize
+     * @param powerOfTwo
+     */
+    public LPHashTable(int tableSize, boolean powerOfTwo) {
+        this.powerOfTwo = powerOfTwo;
+        table = newTable(tableSize);
     }
 
     // get size of table
@@ -43,14 +89,20 @@ public class LPHashTable<K, V> implements Iterable<V> {
     public void clear() {
         size = 0;  // reset the active elements tracker
         tombstones = 0;
-        table = new KVPair[INITIAL_TABLE_SIZE];
+        table = newTable(INITIAL_TABLE_SIZE);
+        modcount++;
+        if (bloomFilter != null) rebuildBloomFilter();
+        if (stats != null) recordState();
     }
 
     // overload for users who want to specify a starting table size
     public void clear(int tableSize) {
         size = 0;  // reset the active elements tracker
         tombstones = 0;
-        table = new KVPair[tableSize];
+        table = newTable(tableSize);
+        modcount++;
+        if (bloomFilter != null) rebuildBloomFilter();
+        if (stats != null) recordState();
     }
 
     /** Add a value to the table based on a new key.  Keys must be unique.
@@ -69,66 +121,230 @@ public class LPHashTable<K, V> implements Iterable<V> {
             resize();
         }
 
+        modcount++;
+        put(key, value);
+    }
+
+    // inserts or updates without checking the load factor; the
+    // caller makes sure there is room
+    private void put(K key, V value) {
         int index = getHashIndex(key);
+        int probes = 1;
+        int tombstonesPassed = 0;
+
+        // sequentially probe table until an empty slot.  At each
+        // active KVPair, check if it matches the key -- if so, update
+        // it and return.  Remember the first tombstone for reuse.
+        int firstTombstone = -1;
+        while (table[index] != null) {
+            if (table[index].active) {
+
+                // if key matches, update existing object
+                if (table[index].key.equals(key)) {
+                    table[index].value = value;
+                    if (stats != null) stats.recordAdd(probes, tombstonesPassed);
+                    return;
+                }
+            } else {
+                tombstonesPassed++;
+                if (firstTombstone < 0) firstTombstone = index;
+            }
+            index = nextIndex(index);
+            probes++;
+        }
 
-        /**** start: just for testing ******/
-        if (table[index] == null) {
-            System.out.println("Found a space!");
+        // key is not active so create a new KVPair object for it and
+        // store it in the first tombstoned slot, or else the empty slot
+        if (firstTombstone >= 0) {
+            index = firstTombstone;
+            tombstones--;  // the slot is already counted in size
         } else {
-            System.out.println("Collision!");
+            size++;
+        }
+        table[index] = new KVPair<>(key, value);
+        if (bloomFilter != null) {
+            bloomFilter.add(key.hashCode());
+            if (bloomFilter.needsRebuild()) rebuildBloomFilter();  // deletes and re-adds without a rehash
         }
-        /**** end: just for testing ******/
 
-        // sequentially probe table while the slots contain
-        // active KVPairs.  At each active KVPair, check if it
-        // matches the key -- if so, update it and return.
+        if (stats != null) {
+            stats.recordAdd(probes, tombstonesPassed);
+            recordState();
+        }
+    }
+
+    /**
+     * Adds keys[i] -> values[i] for every i.  The table is grown once, up
+     * front, to hold all of the new entries, so no resize happens part way.
+     * Keys are checked for null before anything is added.
+     * @param keys
+     * @param values  same length as keys
+     */
+    public void addAll(K[] keys, V[] values) {
+        if (keys.length != values.length) throw new IllegalArgumentException("Keys and values differ in length");
+        for (K key : keys) {
+            if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        ensureCapacity(size + keys.length);
         modcount++;
-        while (table[index] != null && table[index].active) {
+        for (int i = 0; i < keys.length; i++) {
+            put(keys[i], values[i]);
+        }
+    }
 
-            // if key matches, update existing object
-            if (table[index].key.equals(key)) {
-                table[index].value = value;
-                table[index].active = true;
-                return;
-            }
-            index = ++index % table.length;
+    /**
+     * Adds pairs taken from keys and values in step, stopping when either
+     * runs out.  When both are Collections the table is presized as for the
+     * array version; otherwise it grows as needed.
+     * @param keys
+     * @param values
+     */
+    public void addAll(Iterable<? extends K> keys, Iterable<? extends V> values) {
+        if (keys instanceof Collection && values instanceof Collection) {
+            ensureCapacity(size + Math.min(((Collection<?>) keys).size(), ((Collection<?>) values).size()));
         }
 
-        // current key is not active so create a new
-        // KVPair object for it and store it in the
-        // empty or tombstoned slot that was found,
-        if (table[index] != null) tombstones--;
-        table[index] = new KVPair(key, value);
-        size++;
+        modcount++;
+        Iterator<? extends K> keyIterator = keys.iterator();
+        Iterator<? extends V> valueIterator = values.iterator();
+        while (keyIterator.hasNext() && valueIterator.hasNext()) {
+            K key = keyIterator.next();
+            if (key == null) throw new IllegalArgumentException("Key cannot be null");
+            if ((double) (size + 1) / table.length >= LOAD_FACTOR) ensureCapacity(size + 1);
+            put(key, valueIterator.next());
+        }
+    }
 
+    /**
+     * Grows the table, if needed, so that it can hold the given number of
+     * occupied slots without exceeding the load factor.
+     * @param expectedSize
+     */
+    public void ensureCapacity(int expectedSize) {
+        if ((double) expectedSize / table.length < LOAD_FACTOR) return;
+
+        int tableSize = table.length;
+        while ((double) expectedSize / tableSize >= LOAD_FACTOR) {
+            tableSize = (int) (tableSize * RESIZE_FACTOR);
+        }
+        long start = (stats != null) ? System.nanoTime() : 0;
+        rehash(tableSize);
+        if (stats != null) stats.recordResize(System.nanoTime() - start);
     }
 
     // Computes the hash index of a key
     private int getHashIndex(K key) {
         int code = key.hashCode();
-        return code % table.length;
+        if (powerOfTwo) return HashFunctions.mix(code) & (table.length - 1);
+        return (code & 0x7fffffff) % table.length;  // keep negative hash codes in range
+    }
+
+    // next slot in the probe sequence, wrapping at the end of the table
+    private int nextIndex(int index) {
+        if (powerOfTwo) return (index + 1) & (table.length - 1);
+        return (index + 1 == table.length) ? 0 : index + 1;
     }
 
-    /** Finds (gets) the value for a given key.
+    // allocates a table, rounding up to a power of two in that mode
+    private KVPair<K, V>[] newTable(int tableSize) {
+        return newArray(powerOfTwo ? HashFunctions.tableSizeFor(tableSize) : tableSize);
+    }
+
+    // arrays of a generic class can't be created directly; this one only
+    // ever holds KVPair<K, V>s
+    @SuppressWarnings("unchecked")
+    private static <K, V> KVPair<K, V>[] newArray(int length) {
+        return (KVPair<K, V>[]) new KVPair<?, ?>[length];
+    }
+
+    /** Finds (gets) the value for a given key.  With a Bloom filter enabled,
+     * a key the filter rules out returns null without probing the table.
      * @param key
      * @return value if key is found in table; null otherwise.
      */
     public V find(K key) {
+        if (bloomFilter != null && !bloomFilter.mightContain(key.hashCode())) return null;
 
         int index = getHashIndex(key);
+        int probes = 1;
+        int tombstonesPassed = 0;
+        KVPair<K, V> match = null;
 
         while (table[index] != null) {
 
             // is this index where the key resides?
             if (table[index].key.equals(key)) {
-                if (!table[index].active) break;
-                return (V) table[index].value;
+                match = table[index];
+                break;
             }
+            if (!table[index].active) tombstonesPassed++;
 
-            index = ++index % table.length ;  // otherwise, look at next slot
+            index = nextIndex(index);  // otherwise, look at next slot
+            probes++;
         }
 
-        return null;
+        if (stats != null) stats.recordFind(probes, tombstonesPassed);
+        if (bloomFilter != null) recordBloomFilterMiss(match);
+        return (match != null && match.active) ? match.value : null;
+    }
+
+    /**
+     * Looks up a batch of keys, storing the value for keys[i] (or null) in
+     * out[i].  Keys are handled in groups: the home slots of a whole group
+     * are loaded before any key is compared, so the cache misses of the
+     * group can overlap instead of being paid one after another.
+     * @param keys
+     * @param out  at least as long as keys
+     * @return number of keys found
+     */
+    public int findAll(K[] keys, V[] out) {
+        if (out.length < keys.length) throw new IllegalArgumentException("Output array is too short");
+
+        int[] indexes = new int[FIND_BATCH_SIZE];
+        KVPair<K, V>[] slots = newArray(FIND_BATCH_SIZE);
+        int found = 0;
+
+        for (int start = 0; start < keys.length; start += FIND_BATCH_SIZE) {
+            int end = Math.min(keys.length, start + FIND_BATCH_SIZE);
+
+            // pass 1: hash the group and load every home slot; a key the
+            // Bloom filter rules out gets index -1 and is not probed
+            for (int i = start; i < end; i++) {
+                if (bloomFilter != null && !bloomFilter.mightContain(keys[i].hashCode())) {
+                    indexes[i - start] = -1;
+                    continue;
+                }
+                int index = getHashIndex(keys[i]);
+                KVPair<K, V> slot = table[index];
+                indexes[i - start] = index;
+                slots[i - start] = slot;
+            }
+
+            // pass 2: finish each probe from its (now cached) home slot
+            for (int i = start; i < end; i++) {
+                int index = indexes[i - start];
+                if (index < 0) {
+                    out[i] = null;
+                    continue;
+                }
+                KVPair<K, V> slot = slots[i - start];
+                int probes = 1;
+                int tombstonesPassed = 0;
+                while (slot != null && !slot.key.equals(keys[i])) {
+                    if (!slot.active) tombstonesPassed++;
+                    index = nextIndex(index);
+                    slot = table[index];
+                    probes++;
+                }
+                if (stats != null) stats.recordFind(probes, tombstonesPassed);
+                if (bloomFilter != null) recordBloomFilterMiss(slot);
+                boolean present = slot != null && slot.active;
+                out[i] = present ? slot.value : null;
+                if (present) found++;
+            }
+        }
+        return found;
     }
 
     // determines if load factor is exceeded by current size
@@ -139,32 +355,40 @@ public class LPHashTable<K, V> implements Iterable<V> {
 
     // resize the table
     private void resize() {
+        long start = (stats != null) ? System.nanoTime() : 0;
 
-        System.out.println("Resizing table!");
+        rehash((int) (table.length * RESIZE_FACTOR));
 
-        KVPair[] oldTable = table;
+        if (stats != null) stats.recordResize(System.nanoTime() - start);
+    }
+
+    // move the active objects into a new table of the given length,
+    // dropping the tombstones.  KVPairs are reused, not re-created.
+    private void rehash(int tableSize) {
+        KVPair<K, V>[] oldTable = table;
 
-        table = new KVPair[(int)(oldTable.length * RESIZE_FACTOR)];
+        table = newTable(tableSize);
         size = 0;
         tombstones = 0;
 
-        for (KVPair kvpair : oldTable) {
-            // re-add active objects to the new, larger table
+        for (KVPair<K, V> kvpair : oldTable) {
             if (kvpair != null && kvpair.active) {
-                add((K) kvpair.key, (V) kvpair.value);
+                int index = getHashIndex(kvpair.key);
+                while (table[index] != null) index = nextIndex(index);
+                table[index] = kvpair;
+                size++;
             }
         }
-        System.out.println("Debug: \n\tsize: " + size + "\n" +
-                "\tlength: " + table.length + "\n\ttombstones: " + tombstones);
+        modcount++;
+        if (bloomFilter != null) rebuildBloomFilter();
+        if (stats != null) recordState();
     }
 
     /**
      * Removes the value associated with the key from the table.  Does so
-     * using lazy deletion -- marks KVPair as inactive.  Will be cleaned up
-     * on next resize of table.  We'll track # of occupied-but-inactive ("tombstone") slots
-     * because we may want to add some threshold for % of tombstones compared to size
-     * or ?? but requires more analysis to determine necessity and approach -- not
-     * something we'll solve here.
+     * using lazy deletion -- marks KVPair as inactive.  Tombstones are
+     * cleaned up on the next resize, or sooner once they fill the
+     * compaction threshold fraction of the table (see setCompactionThreshold).
      * @param key
      */
     public void delete(K key) {
@@ -175,19 +399,281 @@ public class LPHashTable<K, V> implements Iterable<V> {
         int index = getHashIndex(key);
 
         // sequentially probe table while the slots contain
-        // active KVPairs.  At each active KVPair, check if it
-        // matches the key -- if so, update it and return.
+        // KVPairs.  At each KVPair, check if it matches the
+        // key -- if so, tombstone it (once) and return.
         while (table[index] != null) {
 
             // if found, tombstone it
             if (table[index].key.equals(key)) {
+                if (!table[index].active) return;
                 table[index].active = false;
                 tombstones++;
                 modcount++;
+                if (bloomFilter != null) bloomFilter.recordRemoval();
+                if ((double) tombstones / table.length >= compactionThreshold) {
+                    compact();
+                } else {
+                    if (bloomFilter != null && bloomFilter.needsRebuild()) rebuildBloomFilter();
+                    if (stats != null) recordState();
+                }
                 return;
             }
-            index = ++index % table.length;
+            index = nextIndex(index);
+        }
+    }
+
+    /**
+     * Sets the fraction of the table's slots that may be tombstones before a
+     * delete compacts the table (rehashes it at its current length).
+     * 1 turns compaction off, leaving tombstones until the next resize.
+     * @param ratio  in (0, 1]
+     */
+    public void setCompactionThreshold(double ratio) {
+        if (!(ratio > 0 && ratio <= 1)) throw new IllegalArgumentException("Compaction threshold must be in (0, 1]");
+        compactionThreshold = ratio;
+    }
+
+    // rehash at the current length to reclaim tombstones
+    public void compact() {
+        rehash(table.length);
+        if (stats != null) stats.recordCompaction();
+    }
+
+    /**
+     * Shrinks the table to the smallest length that holds the current
+     * entries under the load factor, for use after mass deletion.
+     */
+    public void trimToSize() {
+        int minLength = Math.max(INITIAL_TABLE_SIZE, (int) (size() / LOAD_FACTOR) + 1);
+        if (minLength < table.length || tombstones > 0) rehash(Math.min(minLength, table.length));
+    }
+
+    /**
+     * Starts collecting statistics (probe lengths, collisions, tombstone
+     * hits, resizes, load factor) for this table.  Off by default; while
+     * off, the only cost is a null check per operation.
+     * @return the statistics object, also available from getStats()
+     */
+    public HashTableStats enableStats() {
+        if (stats == null) {
+            stats = new HashTableStats();
+            recordState();
+        }
+        return stats;
+    }
+
+    public void disableStats() {
+        stats = null;
+    }
+
+    // null while statistics are disabled
+    public HashTableStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Puts a blocked Bloom filter in front of find, so that most finds for
+     * absent keys return after checking one cache line instead of probing
+     * to an empty slot (past any tombstones).  The filter costs about
+     * 1.44 * log2(1 / falsePositiveRate) * 1.15 bits per slot the table can
+     * fill, and a hash of the key on every find and add.  It is rebuilt from
+     * the active keys on every rehash, which also drops deleted keys.  Off
+     * by default.  Finds the filter answers are counted by the filter, not
+     * in the probe statistics.
+     * @param falsePositiveRate  fraction of absent keys allowed past the filter, in (0, 1)
+     * @return the filter, whose counters show how well it works
+     */
+    public BloomFilter enableBloomFilter(double falsePositiveRate) {
+        bloomFilter = new BloomFilter(falsePositiveRate, bloomFilterCapacity());
+        rebuildBloomFilter();
+        return bloomFilter;
+    }
+
+    public void disableBloomFilter() {
+        bloomFilter = null;
+    }
+
+    // null while the Bloom filter is disabled
+    public BloomFilter getBloomFilter() {
+        return bloomFilter;
+    }
+
+    // room for as many keys as the table holds before it grows
+    // a find that passed the filter probed to match, the slot holding its
+    // key or null; a key present with a null value is not a miss, and a
+    // deleted key's tombstone means its bits are stale, not a false positive
+    private void recordBloomFilterMiss(KVPair<K, V> match) {
+        if (match == null) {
+            bloomFilter.recordFalsePositive();
+        } else if (!match.active) {
+            bloomFilter.recordStaleHit();
+        }
+    }
+
+    private int bloomFilterCapacity() {
+        return (int) (table.length * LOAD_FACTOR) + 1;
+    }
+
+    private void rebuildBloomFilter() {
+        bloomFilter.rebuild(bloomFilterCapacity());
+        for (KVPair<K, V> kvpair : table) {
+            if (kvpair != null && kvpair.active) bloomFilter.add(kvpair.key.hashCode());
+        }
+    }
+
+    private void recordState() {
+        stats.recordState(size - tombstones, tombstones, table.length);
+    }
+
+    /**
+     * Writes a snapshot of the active entries to out, which is flushed but
+     * not closed.  Layout: a header (magic, version, codec names, indexing
+     * mode, entry count) with its own CRC32, then blocks of about 64KB of
+     * encoded entries, each preceded by its entry count, length and CRC32,
+     * then an empty block.  Each entry is its key, a byte that is 0 for a
+     * null value, and the value.
+     * @param out
+     * @param keyCodec
+     * @param valueCodec
+     * @throws IOException if out fails
+     */
+    public void writeTo(OutputStream out, SnapshotCodec<? super K> keyCodec,
+                        SnapshotCodec<? super V> valueCodec) throws IOException {
+        int origcount = modcount;
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, SNAPSHOT_BLOCK_SIZE));
+        SnapshotBlock block = new SnapshotBlock();
+        DataOutputStream blockData = new DataOutputStream(block);
+
+        blockData.writeLong(SNAPSHOT_MAGIC);
+        blockData.writeInt(SNAPSHOT_VERSION);
+        blockData.writeUTF(keyCodec.name());
+        blockData.writeUTF(valueCodec.name());
+        blockData.writeBoolean(powerOfTwo);
+        blockData.writeInt(size());
+        data.write(block.bytes(), 0, block.size());
+        data.writeInt(block.checksum());
+        block.reset();
+
+        int entries = 0;
+        for (KVPair<K, V> pair : table) {
+            if (pair == null || !pair.active) continue;
+            keyCodec.write(blockData, pair.key);
+            blockData.writeBoolean(pair.value != null);
+            if (pair.value != null) valueCodec.write(blockData, pair.value);
+            entries++;
+            if (block.size() >= SNAPSHOT_BLOCK_SIZE) {
+                writeBlock(data, block, entries);
+                entries = 0;
+            }
+        }
+        if (entries > 0) writeBlock(data, block, entries);
+        writeBlock(data, block, 0);  // end marker
+        data.flush();
+
+        if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during snapshot");
+    }
+
+    // writes a snapshot at the channel's current position
+    public void writeTo(FileChannel channel, SnapshotCodec<? super K> keyCodec,
+                        SnapshotCodec<? super V> valueCodec) throws IOException {
+        writeTo(Channels.newOutputStream(channel), keyCodec, valueCodec);
+    }
+
+    private static void writeBlock(DataOutputStream data, SnapshotBlock block, int entries) throws IOException {
+        data.writeInt(entries);
+        data.writeInt(block.size());
+        data.writeInt(block.checksum());
+        data.write(block.bytes(), 0, block.size());
+        block.reset();
+    }
+
+    /**
+     * Reads a snapshot written by writeTo into a new table.  The table is
+     * sized for the entry count in the header before anything is added, so
+     * loading never resizes.  Reads exactly the snapshot's bytes from in.
+     * @param in
+     * @param keyCodec  must have the name of the codec the snapshot was written with
+     * @param valueCodec  likewise
+     * @return the restored table
+     * @throws IOException if in fails, or the snapshot is corrupt, truncated
+     *                     or was written with other codecs
+     */
+    public static <K, V> LPHashTable<K, V> readFrom(InputStream in, SnapshotCodec<? extends K> keyCodec,
+                                                    SnapshotCodec<? extends V> valueCodec) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+
+        // header, checked against its CRC as it is read
+        CRC32 crc = new CRC32();
+        DataInputStream header = new DataInputStream(new CheckedInputStream(in, crc));
+        if (header.readLong() != SNAPSHOT_MAGIC) throw new IOException("Not a hash table snapshot");
+        int version = header.readInt();
+        if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+        String keyCodecName = header.readUTF();
+        String valueCodecName = header.readUTF();
+        boolean powerOfTwo = header.readBoolean();
+        int count = header.readInt();
+        if (data.readInt() != (int) crc.getValue()) throw new IOException("Snapshot header is corrupt");
+        if (!keyCodecName.equals(keyCodec.name()) || !valueCodecName.equals(valueCodec.name())) {
+            throw new IOException("Snapshot was written with codecs " + keyCodecName + "/" + valueCodecName);
+        }
+        if (count < 0) throw new IOException("Snapshot header is corrupt");
+
+        LPHashTable<K, V> table = new LPHashTable<>(INITIAL_TABLE_SIZE, powerOfTwo);
+        table.ensureCapacity(count);
+
+        byte[] bytes = new byte[SNAPSHOT_BLOCK_SIZE];
+        int loaded = 0;
+        for (int blockNo = 0; ; blockNo++) {
+            int entries = data.readInt();
+            int length = data.readInt();
+            int checksum = data.readInt();
+            if (entries == 0) break;
+            // every entry takes at least its null-value flag byte
+            if (entries < 0 || length < entries || loaded + entries > count) {
+                throw new IOException("Snapshot block " + blockNo + " is corrupt");
+            }
+
+            bytes = readBlock(data, bytes, length, blockNo);
+            crc.reset();
+            crc.update(bytes, 0, length);
+            if ((int) crc.getValue() != checksum) throw new IOException("Snapshot block " + blockNo + " is corrupt");
+
+            SnapshotBlockInput entryData = new SnapshotBlockInput(bytes, length);
+            for (int i = 0; i < entries; i++) {
+                K key = keyCodec.read(entryData);
+                if (key == null) throw new IOException("Snapshot block " + blockNo + " has a null key");
+                V value = entryData.readBoolean() ? valueCodec.read(entryData) : null;
+                table.put(key, value);
+            }
+            loaded += entries;
+        }
+        if (loaded != count) throw new IOException("Snapshot is truncated: " + loaded + " of " + count + " entries");
+        return table;
+    }
+
+    // reads length bytes into buffer.  A block longer than the buffer (one
+    // holding a large entry) grows it only as its bytes arrive, so a corrupt
+    // length ends in a truncated snapshot rather than a huge allocation.
+    private static byte[] readBlock(DataInputStream data, byte[] buffer, int length, int blockNo)
+            throws IOException {
+        if (length <= buffer.length) {
+            data.readFully(buffer, 0, length);
+            return buffer;
+        }
+        int read = 0;
+        while (read < length) {
+            if (read == buffer.length) buffer = Arrays.copyOf(buffer, (int) Math.min(length, 2L * buffer.length));
+            int n = data.read(buffer, read, Math.min(length, buffer.length) - read);
+            if (n < 0) throw new IOException("Snapshot block " + blockNo + " is truncated");
+            read += n;
         }
+        return buffer;
+    }
+
+    // reads a snapshot from the channel's current position
+    public static <K, V> LPHashTable<K, V> readFrom(FileChannel channel, SnapshotCodec<? extends K> keyCodec,
+                                                    SnapshotCodec<? extends V> valueCodec) throws IOException {
+        return readFrom(Channels.newInputStream(channel), keyCodec, valueCodec);
     }
 
     // testing only
@@ -195,18 +681,84 @@ public class LPHashTable<K, V> implements Iterable<V> {
         return table.length;
     }
 
+    // testing only: number of slots find(key) examines
+    public int getProbeCount(K key) {
+        int index = getHashIndex(key);
+        int probes = 1;
+        while (table[index] != null) {
+            if (table[index].key.equals(key)) break;
+            index = nextIndex(index);
+            probes++;
+        }
+        return probes;
+    }
+
     @Override
     public Iterator<V> iterator() {
-        return new HTIterator();
+        return new HTIterator<>(pair -> pair.value);
+    }
+
+    // the keys in the table, in slot order
+    public Iterable<K> keys() {
+        return () -> new HTIterator<>(pair -> pair.key);
+    }
+
+    /**
+     * The entries in the table, in slot order.  Each entry is the table's own
+     * slot object, so iterating allocates nothing per entry; setValue on an
+     * entry updates the table.  An entry is only valid until its key is
+     * deleted or the table is rehashed.
+     * @return entries of the table
+     */
+    public Iterable<Map.Entry<K, V>> entries() {
+        return () -> new HTIterator<>(pair -> pair);
+    }
+
+    /**
+     * Calls action for every key and value, walking the slot array directly.
+     * @param action
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int origcount = modcount;
+        KVPair<K, V>[] tab = table;
+        for (KVPair<K, V> pair : tab) {
+            if (pair != null && pair.active) action.accept(pair.key, pair.value);
+        }
+        if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+    }
+
+    /**
+     * Spliterator over the values that splits by halving its range of slots,
+     * so parallel streams divide the table evenly between threads.
+     * @return spliterator over values
+     */
+    @Override
+    public Spliterator<V> spliterator() {
+        return new HTSpliterator<>(pair -> pair.value, 0, table.length, 0);  // values may be null
+    }
+
+    // sequential stream of values; call parallel() on it to split by slot ranges
+    public Stream<V> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<K> keyStream() {
+        return StreamSupport.stream(new HTSpliterator<>(pair -> pair.key, 0, table.length,
+                Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    public Stream<Map.Entry<K, V>> entryStream() {
+        return StreamSupport.stream(new HTSpliterator<Map.Entry<K, V>>(pair -> pair, 0, table.length,
+                Spliterator.NONNULL | Spliterator.DISTINCT), false);
     }
 
     /***** INNER CLASSES ************/
 
-    // define inner class that contains both key K and value
-    // Have to add generic parameters here as a workaround.  Normally
-    // it isn't necessary since paramters are declared by outer class
+    // define nested class that contains both key K and value.  It is
+    // static, so it declares its own generic parameters; that lets the
+    // table be an array of KVPair<K, V>
 
-    private class KVPair<K, V> {
+    private static class KVPair<K, V> implements Map.Entry<K, V> {
 
         private K key;
         private V value;
@@ -220,18 +772,91 @@ public class LPHashTable<K, V> implements Iterable<V> {
             this.active = true;
         }
 
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        // equal to any Map.Entry with an equal key and value, as Map.Entry specifies
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return Objects.equals(key, other.getKey()) && Objects.equals(value, other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
         public String toString() {
             return value.toString();
         }
     }
 
-    // iterator over values in the table
-    private class HTIterator implements Iterator<V> {
+    // buffer for one snapshot block, read in place rather than copied
+    private static class SnapshotBlock extends ByteArrayOutputStream {
+
+        public SnapshotBlock() {
+            super(SNAPSHOT_BLOCK_SIZE + 1024);
+        }
+
+        public byte[] bytes() {
+            return buf;
+        }
+
+        public int checksum() {
+            CRC32 crc = new CRC32();
+            crc.update(buf, 0, count);
+            return (int) crc.getValue();
+        }
+    }
+
+    // one snapshot block's entries, as the codecs see them: remaining() lets
+    // a codec check an encoded length before allocating for it
+    static final class SnapshotBlockInput extends DataInputStream {
+
+        private final ByteArrayInputStream bytes;
+
+        SnapshotBlockInput(byte[] buffer, int length) {
+            this(new ByteArrayInputStream(buffer, 0, length));
+        }
+
+        private SnapshotBlockInput(ByteArrayInputStream bytes) {
+            super(bytes);
+            this.bytes = bytes;
+        }
 
+        // bytes left in the block
+        int remaining() {
+            return bytes.available();
+        }
+    }
+
+    // iterator over the active slots in the table; extract picks what each
+    // slot yields (value, key or the slot itself as an entry)
+    private class HTIterator<T> implements Iterator<T> {
+
+        private final Function<KVPair<K, V>, T> extract;
         private int index;
         private int origcount;
 
-        public HTIterator() {
+        public HTIterator(Function<KVPair<K, V>, T> extract) {
+            this.extract = extract;
             origcount = modcount;
             getNextIndex();
         }
@@ -246,13 +871,13 @@ public class LPHashTable<K, V> implements Iterable<V> {
         }
 
         @Override
-        public V next() {
-            if (origcount != modcount) throw new RuntimeException("Cannot modify data during iteration");
+        public T next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
             if (!hasNext()) throw new NoSuchElementException();
             int i = index;
             index++;
             getNextIndex();
-            return (V) table[i].value;
+            return extract.apply(table[i]);
         }
 
         @Override
@@ -261,4 +886,78 @@ public class LPHashTable<K, V> implements Iterable<V> {
         }
     }
 
+    // spliterator over the slots [index, end) of the table.  trySplit hands
+    // off the lower half of the remaining range.
+    private class HTSpliterator<T> implements Spliterator<T> {
+
+        private final Function<KVPair<K, V>, T> extract;
+        private final KVPair<K, V>[] tab;
+        private final int characteristics;
+        private final int origcount;
+        private int index;
+        private final int end;
+
+        public HTSpliterator(Function<KVPair<K, V>, T> extract, int index, int end, int characteristics) {
+            this(extract, table, modcount, index, end, characteristics);
+        }
+
+        // for trySplit: the halves share the table and modcount captured by
+        // the first spliterator
+        private HTSpliterator(Function<KVPair<K, V>, T> extract, KVPair<K, V>[] tab, int origcount,
+                              int index, int end, int characteristics) {
+            this.extract = extract;
+            this.tab = tab;
+            this.origcount = origcount;
+            this.index = index;
+            this.end = end;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index < end) {
+                KVPair<K, V> pair = tab[index++];
+                if (pair != null && pair.active) {
+                    action.accept(extract.apply(pair));
+                    checkForComodification();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; index < end; index++) {
+                KVPair<K, V> pair = tab[index];
+                if (pair != null && pair.active) action.accept(extract.apply(pair));
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid <= index) return null;
+            Spliterator<T> prefix = new HTSpliterator<>(extract, tab, origcount, index, mid, characteristics);
+            index = mid;
+            return prefix;
+        }
+
+        // active entries expected in the range, assuming they are spread evenly
+        @Override
+        public long estimateSize() {
+            return (long) ((double) (size - tombstones) * (end - index) / tab.length);
+        }
+
+        @Override
+        public int characteristics() {
+            return characteristics;
+        }
+
+        private void checkForComodification() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+        }
+    }
+
 }
@@ -0,0 +1,112 @@
+package hashmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process shard: an LPHashTable guarded by its own lock, so each shard
+ * of a ShardedHashMap is a separate lock domain and resizes on its own.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class LocalShard<K, V> implements IShard<K, V> {
+
+    private final String id;
+    private final LPHashTable<K, V> table;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // constructor
+    public LocalShard(String id) {
+        this(id, 16);
+    }
+
+    public LocalShard(String id, int tableSize) {
+        if (id == null) throw new IllegalArgumentException("Shard id cannot be null");
+        this.id = id;
+        this.table = new LPHashTable<>(tableSize, true);
+    }
+
+    @Override
+    public String id() {
+        return id;
+    }
+
+    @Override
+    public void add(K key, V value) {
+        lock.lock();
+        try {
+            table.add(key, value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public V find(K key) {
+        lock.lock();
+        try {
+            return table.find(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(K key) {
+        lock.lock();
+        try {
+            table.delete(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return table.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            table.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // a copy of the keys, taken under the lock
+    @Override
+    public Iterable<K> keys() {
+        lock.lock();
+        try {
+            List<K> keys = new ArrayList<>(table.size());
+            for (K key : table.keys()) keys.add(key);
+            return keys;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // testing only
+    public int getTableLength() {
+        lock.lock();
+        try {
+            return table.getTableLength();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String toString() {
+        return id;
+    }
+
+}
@@ -0,0 +1,410 @@
+package hashmap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * HashTable that uses linear probing for collision resolution, with long
+ * keys and long values stored off-heap in a memory-mapped file.  Reopening
+ * the file maps the existing table as it is, so nothing has to be re-added
+ * after a restart, and no per-entry objects are ever created on the heap.
+ * <p>
+ * File layout: a 64-byte header, then one state byte per slot, then the
+ * keys and the values as 8-byte arrays in native byte order.  The capacity is a power of two and
+ * the whole file must fit in one mapping (about 120 million slots).
+ * Changes reach the file when the OS writes the pages back; force() or
+ * close() makes them durable.  A table that was not closed cleanly has its
+ * counters recomputed on the next open.  Not thread-safe.
+ */
+public class MappedLongLongHashTable implements Iterable<Long>, Closeable {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_TABLE_SIZE = 1024;
+    private static final int MIN_TABLE_SIZE = 8;
+    private static final int RESIZE_FACTOR = 2;
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    // returned by find when the key is absent, unless overridden
+    public static final long DEFAULT_NO_VALUE = -1L;
+
+    // header layout
+    private static final long MAGIC = 0x4C50485441424C45L;  // "LPHTABLE"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int TOMBSTONES_OFFSET = 20;
+    private static final int NO_VALUE_OFFSET = 24;
+    private static final int OPEN_FLAG_OFFSET = 32;
+    private static final int HEADER_SIZE = 64;
+
+    // slot states
+    private static final byte EMPTY = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte TOMBSTONE = 2;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private int capacity;
+    private int keysOffset;
+    private int valuesOffset;
+    private long noValue;
+
+    private int size; // number of occupied slots (active + tombstones)
+    private int tombstones; // number of inactive slots
+    private int modcount;  // for fail-fast iterator
+
+    private MappedLongLongHashTable(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the table stored in file, creating an empty one if the file does
+     * not exist.
+     * @param file
+     * @return the mapped table
+     * @throws IOException if the file can't be mapped or isn't a table file
+     */
+    public static MappedLongLongHashTable open(Path file) throws IOException {
+        return open(file, INITIAL_TABLE_SIZE, DEFAULT_NO_VALUE);
+    }
+
+    /**
+     * Opens the table stored in file.  tableSize and noValue are only used
+     * when the file does not exist yet; an existing table keeps its own.
+     * @param file
+     * @param tableSize  initial number of slots (rounded up to a power of two)
+     * @param noValue  what find returns for a missing key
+     * @return the mapped table
+     * @throws IOException if the file can't be mapped or isn't a table file
+     */
+    public static MappedLongLongHashTable open(Path file, int tableSize, long noValue) throws IOException {
+        MappedLongLongHashTable table = new MappedLongLongHashTable(file);
+        if (Files.exists(file) && Files.size(file) > 0) {
+            table.mapExisting();
+        } else {
+            table.map(file, HashFunctions.tableSizeFor(Math.max(tableSize, MIN_TABLE_SIZE)), noValue);
+        }
+        return table;
+    }
+
+    // maps a new, empty table of the given capacity into path
+    private void map(Path path, int tableCapacity, long missingValue) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        setLayout(tableCapacity);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(tableCapacity));
+        buffer.order(ByteOrder.nativeOrder());
+
+        noValue = missingValue;
+        size = 0;
+        tombstones = 0;
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.putLong(NO_VALUE_OFFSET, noValue);
+        buffer.putInt(OPEN_FLAG_OFFSET, 1);
+        writeCounts();
+    }
+
+    // maps the table already stored in file and validates its header
+    private void mapExisting() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        buffer.order(ByteOrder.nativeOrder());
+
+        if (channel.size() < HEADER_SIZE || buffer.getLong(MAGIC_OFFSET) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a hash table file: " + file);
+        }
+        if (buffer.getInt(VERSION_OFFSET) != VERSION) {
+            channel.close();
+            throw new IOException("Unsupported hash table file version: " + buffer.getInt(VERSION_OFFSET));
+        }
+        setLayout(buffer.getInt(CAPACITY_OFFSET));
+        if (channel.size() != fileSize(capacity)) {
+            channel.close();
+            throw new IOException("Truncated hash table file: " + file);
+        }
+
+        noValue = buffer.getLong(NO_VALUE_OFFSET);
+        size = buffer.getInt(SIZE_OFFSET);
+        tombstones = buffer.getInt(TOMBSTONES_OFFSET);
+
+        // still marked open: the last process didn't close it, so recount
+        if (buffer.getInt(OPEN_FLAG_OFFSET) != 0) recount();
+        buffer.putInt(OPEN_FLAG_OFFSET, 1);
+    }
+
+    private void setLayout(int tableCapacity) throws IOException {
+        if (tableCapacity < MIN_TABLE_SIZE || Integer.bitCount(tableCapacity) != 1
+                || fileSize(tableCapacity) > MAX_FILE_SIZE) {
+            throw new IOException("Unsupported table capacity: " + tableCapacity);
+        }
+        capacity = tableCapacity;
+        keysOffset = HEADER_SIZE + capacity;  // header and capacity keep this 8-byte aligned
+        valuesOffset = keysOffset + 8 * capacity;
+    }
+
+    private static long fileSize(int tableCapacity) {
+        return HEADER_SIZE + 17L * tableCapacity;
+    }
+
+    private void recount() {
+        size = 0;
+        tombstones = 0;
+        for (int i = 0; i < capacity; i++) {
+            byte state = buffer.get(HEADER_SIZE + i);
+            if (state != EMPTY) size++;
+            if (state == TOMBSTONE) tombstones++;
+        }
+        writeCounts();
+    }
+
+    private void writeCounts() {
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    // get size of table
+    public int size() {
+        return size - tombstones;
+    }
+
+    // is table empty?
+    public boolean isEmpty() {
+        return (size - tombstones) == 0;
+    }
+
+    // the value find returns for a missing key
+    public long getNoValue() {
+        return noValue;
+    }
+
+    // empties the table, keeping its current capacity
+    public void clear() {
+        checkOpen();
+        for (int i = 0; i < capacity; i++) buffer.put(HEADER_SIZE + i, EMPTY);
+        size = 0;
+        tombstones = 0;
+        writeCounts();
+        modcount++;
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing (active) key will update the value associated with the key.
+     * @param key
+     * @param value
+     * @throws IOException if the file can't be grown
+     */
+    public void add(long key, long value) throws IOException {
+        checkOpen();
+
+        // check load factor to see if table needs to be resized
+        if ((double) (size + 1) / capacity >= LOAD_FACTOR) {
+            resize();
+        }
+
+        modcount++;
+        int index = getHashIndex(key);
+        int firstTombstone = -1;
+        byte state;
+        while ((state = stateAt(index)) != EMPTY) {
+            if (state == ACTIVE) {
+                if (keyAt(index) == key) {
+                    buffer.putLong(valuesOffset + 8 * index, value);
+                    return;
+                }
+            } else if (firstTombstone < 0) {
+                firstTombstone = index;
+            }
+            index = (index + 1) & (capacity - 1);
+        }
+
+        if (firstTombstone >= 0) {
+            index = firstTombstone;
+            tombstones--;
+        } else {
+            size++;
+        }
+        // key and value first, state last
+        buffer.putLong(keysOffset + 8 * index, key);
+        buffer.putLong(valuesOffset + 8 * index, value);
+        buffer.put(HEADER_SIZE + index, ACTIVE);
+        writeCounts();
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in table; getNoValue() otherwise.
+     */
+    public long find(long key) {
+        checkOpen();
+        int index = indexOf(key);
+        return index < 0 ? noValue : buffer.getLong(valuesOffset + 8 * index);
+    }
+
+    // is the key in the table?
+    public boolean containsKey(long key) {
+        checkOpen();
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Removes the value associated with the key from the table using lazy
+     * deletion -- the slot is marked as a tombstone and cleaned up on the
+     * next resize of the table.
+     * @param key
+     */
+    public void delete(long key) {
+        checkOpen();
+        int index = indexOf(key);
+        if (index < 0) return;
+
+        buffer.put(HEADER_SIZE + index, TOMBSTONE);
+        tombstones++;
+        writeCounts();
+        modcount++;
+    }
+
+    // returns the slot holding the active key, or -1
+    private int indexOf(long key) {
+        int index = getHashIndex(key);
+        byte state;
+        while ((state = stateAt(index)) != EMPTY) {
+            if (state == ACTIVE && keyAt(index) == key) return index;
+            index = (index + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    private int getHashIndex(long key) {
+        return (int) HashFunctions.mix(key) & (capacity - 1);
+    }
+
+    private byte stateAt(int index) {
+        return buffer.get(HEADER_SIZE + index);
+    }
+
+    private long keyAt(int index) {
+        return buffer.getLong(keysOffset + 8 * index);
+    }
+
+    // rehashes into a larger file next to this one, then moves it over
+    // this file.  The old file stays intact until the move.
+    private void resize() throws IOException {
+        int newCapacity = (2 * (size - tombstones + 1) >= capacity) ? capacity * RESIZE_FACTOR : capacity;
+        Path tmp = file.resolveSibling(file.getFileName() + ".resize");
+
+        MappedLongLongHashTable resized = new MappedLongLongHashTable(tmp);
+        resized.map(tmp, newCapacity, noValue);
+        for (int i = 0; i < capacity; i++) {
+            if (stateAt(i) != ACTIVE) continue;
+            long key = keyAt(i);
+            int index = resized.getHashIndex(key);
+            while (resized.stateAt(index) != EMPTY) index = (index + 1) & (newCapacity - 1);
+            resized.buffer.putLong(resized.keysOffset + 8 * index, key);
+            resized.buffer.putLong(resized.valuesOffset + 8 * index, buffer.getLong(valuesOffset + 8 * i));
+            resized.buffer.put(HEADER_SIZE + index, ACTIVE);
+            resized.size++;
+        }
+        resized.writeCounts();
+        resized.buffer.force();
+
+        buffer.putInt(OPEN_FLAG_OFFSET, 0);
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = resized.channel;
+        buffer = resized.buffer;
+        setLayout(newCapacity);
+        size = resized.size;
+        tombstones = 0;
+        modcount++;
+    }
+
+    // writes all changes through to the file
+    public void force() {
+        checkOpen();
+        buffer.force();
+    }
+
+    /**
+     * Marks the table as cleanly closed, flushes it and releases the file.
+     * The mapping itself is released by the garbage collector.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        writeCounts();
+        buffer.putInt(OPEN_FLAG_OFFSET, 0);
+        buffer.force();
+        channel.close();
+        channel = null;
+        buffer = null;
+    }
+
+    private void checkOpen() {
+        if (buffer == null) throw new IllegalStateException("Table is closed");
+    }
+
+    // testing only
+    public int getTableLength() {
+        return capacity;
+    }
+
+    // use nextLong() on the returned iterator to avoid boxing
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        checkOpen();
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // iterator over values in the table
+    private class HTIterator implements PrimitiveIterator.OfLong {
+
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (index < capacity && stateAt(index) != ACTIVE) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < capacity;
+        }
+
+        @Override
+        public long nextLong() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return buffer.getLong(valuesOffset + 8 * i);
+        }
+    }
+
+}
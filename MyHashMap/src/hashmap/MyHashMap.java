@@ -1,110 +1,112 @@
 package hashmap;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
- * HashTable that uses linear probing for collision resolution
+ * HashTable that uses separate chaining for collision resolution.  Each
+ * bin of the table starts as a linked list; a bin that grows past
+ * TREEIFY_THRESHOLD nodes becomes a balanced (AVL) tree ordered by hash,
+ * then by compareTo for Comparable keys of the same class, so even keys
+ * whose hash codes all collide cost O(log n) per operation instead of O(n).
+ * (Colliding keys that aren't Comparable are still found, but each lookup
+ * may have to search the whole tree.)
+ * Hash codes are mixed with a random per-map seed before indexing, so a key
+ * set crafted (or merely skewed) to collide in the low bits of the table
+ * index doesn't collide in every map.
  * @param <K> key  (for example, flight numbers)
  * @param <V> value  (for example, flight data)
  */
 public class MyHashMap<K, V> {
 
     // constants for managing the table
-    private static final double LOAD_FACTOR = 0.7;
-    private static final int INITIAL_TABLE_SIZE = 7;
-    private static final double RESIZE_FACTOR = 2;
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int INITIAL_TABLE_SIZE = 8;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int TREEIFY_THRESHOLD = 8;  // list bins longer than this become trees
+    private static final int UNTREEIFY_THRESHOLD = 6;  // tree bins this small become lists again
+    private static final int MIN_TREEIFY_TABLE_SIZE = 64;  // smaller tables resize instead
 
-    private KVPair[] table;
+    private Node[] table;
+    private final int seed = ThreadLocalRandom.current().nextInt();
+    private HashTableStats stats;  // null unless enableStats() was called
 
-    private int size; // number of filled elements in table
-    private int tombstones; // number of spaces that are inactive
+    private int size; // number of objects in table
+    private int probes;  // nodes examined by the last findNode, for stats
 
     // constructor
     public MyHashMap() {
         this(INITIAL_TABLE_SIZE);
     }
 
+    // tableSize is rounded up to a power of two
     public MyHashMap(int tableSize) {
-        table = new KVPair[tableSize];
+        table = new Node[HashFunctions.tableSizeFor(tableSize)];
     }
 
     // get size of table
     public int size() {
-        return size - tombstones;
+        return size;
     }
 
     // is table empty?
     public boolean isEmpty() {
-        return (size - tombstones) == 0;
+        return size == 0;
     }
 
     public void clear() {
-        size = 0;  // reset the active elements tracker
-        tombstones = 0;  // reset the all elements tracker
-        table = new KVPair[INITIAL_TABLE_SIZE];
+        clear(INITIAL_TABLE_SIZE);
     }
 
     // overload for users who want to specify a starting table size
     public void clear(int tableSize) {
-        size = 0;  // reset the active elements tracker
-        tombstones = 0;  // reset the all elements tracker
-        table = new KVPair[tableSize];
+        size = 0;
+        table = new Node[HashFunctions.tableSizeFor(tableSize)];
+        if (stats != null) recordState();
     }
 
+    // seeded mix of the key's hash code
+    private int hash(Object key) {
+        return HashFunctions.mix(key.hashCode() ^ seed);
+    }
 
     /**
      * Add a value to the table based on a new key.  Keys must be unique.
-     * Adding an existing (active) key will update the value associated
-     * with the key.  Use FCFS linear probing to resolve collisions.
+     * Adding an existing key will update the value associated with the key.
      * @param key
      * @param value
-     * @return
      */
     public void add(K key, V value) {
 
         // check that key is not null
         if (key == null) throw new IllegalArgumentException("Key cannot be null");
 
-        // check load factor to see if table needs to be resized
-        if (tableSizeExceedsLF()) {
-            resize();
+        int hash = hash(key);
+        Node node = findNode(hash, key);
+        if (node != null) {
+            node.value = value;
+            if (stats != null) stats.recordAdd(probes, 0);
+            return;
         }
+        if (stats != null) stats.recordAdd(probes, 0);
 
-        int index = getHashIndex(key);
-
-        /********** start: this is for testing purposes *************/
-        if (table[index] == null) {
-            System.out.println("Found a space!");
-        } else {
-            System.out.println("Collision!");
+        // check load factor to see if table needs to be resized; the
+        // resize treeifies long bins itself
+        int binLength = probes;
+        if ((double) (size + 1) / table.length > LOAD_FACTOR) {
+            resize();
+            binLength = 0;
         }
-        /********** end: this is for testing purposes *************/
-
-        // sequentially probe table while the slots contain
-        // active KVPairs.  At each active KVPair, check if it matches
-        // the key -- if so, update it and return immediately.
-        while (table[index] != null && table[index].active) {
 
-            // if key matches, update the existing object
-            if (table[index].key.equals(key)) {
-                table[index].value = value;
-                table[index].active = true;
-                return;
-            }
-
-            index = ++index % table.length;
+        int index = hash & (table.length - 1);
+        if (table[index] instanceof TreeBin) {
+            ((TreeBin) table[index]).insert(new TreeNode(key, value, hash));
+        } else {
+            table[index] = new Node(key, value, hash, table[index]);
+            if (binLength >= TREEIFY_THRESHOLD) treeifyBin(index);
         }
-
-        // current key is not active so create a new KVPair
-        // object for it and store it in the empty or
-        // tombstoned slot that was found.
-        if (table[index] != null) tombstones--;
-        table[index] = new KVPair(key, value);
         size++;
-    }
 
-    // finds the table index based on the key
-    private int getHashIndex(K key) {
-        int code = key.hashCode();
-        return code % table.length;
+        if (stats != null) recordState();
     }
 
     /**
@@ -114,75 +116,198 @@ public class MyHashMap<K, V> {
      * @return value if key exists; otherwise, null.
      */
     public V find(K key) {
+        if (key == null) return null;
 
-        int index = getHashIndex(key);
+        Node node = findNode(hash(key), key);
+        if (stats != null) stats.recordFind(probes, 0);
+        return (node == null) ? null : valueOf(node);
+    }
 
-        while (table[index] != null) {
+    // nodes hold only values add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueOf(Node node) {
+        return (V) node.value;
+    }
 
-            // is this index where the key resides?
-            if (table[index].key.equals(key)) {
-                if (!table[index].active) break;
-                return (V) table[index].value;
-            }
+    // node holding key, or null; sets probes
+    private Node findNode(int hash, Object key) {
+        Node first = table[hash & (table.length - 1)];
+        probes = 0;
+        if (first instanceof TreeBin) {
+            TreeBin bin = (TreeBin) first;
+            TreeNode node = bin.find(hash, key);
+            probes = bin.probes;
+            return node;
+        }
 
-            index = ++index % table.length ;  // otherwise, look at next slot
+        for (Node node = first; node != null; node = node.next) {
+            probes++;
+            if (node.hash == hash && node.key.equals(key)) return node;
         }
         return null;
     }
 
-    // for adds
-    public boolean tableSizeExceedsLF() {
-        return (double) size / table.length >= LOAD_FACTOR;
+    // turns the list bin at index into a tree, or grows a small table instead
+    private void treeifyBin(int index) {
+        if (table.length < MIN_TREEIFY_TABLE_SIZE) {
+            resize();
+            return;
+        }
+        TreeBin bin = new TreeBin();
+        for (Node node = table[index]; node != null; node = node.next) {
+            bin.insert(new TreeNode(node.key, node.value, node.hash));
+        }
+        table[index] = bin;
     }
 
-
     // resize the table
     private void resize() {
-        //TODO
+        long start = (stats != null) ? System.nanoTime() : 0;
+
+        rehash(table.length * RESIZE_FACTOR);
+
+        if (stats != null) stats.recordResize(System.nanoTime() - start);
+    }
+
+    // move every node into a new table of the given length.  Bins are
+    // rebuilt as lists first, then the long ones are treeified.
+    private void rehash(int tableSize) {
+        Node[] oldTable = table;
+        table = new Node[tableSize];
+        int[] counts = new int[tableSize];
+        int mask = tableSize - 1;
+
+        for (Node bin : oldTable) {
+            Node node = (bin instanceof TreeBin) ? ((TreeBin) bin).toList() : bin;
+            while (node != null) {
+                Node next = node.next;
+                int index = node.hash & mask;
+                node.next = table[index];
+                table[index] = node;
+                counts[index]++;
+                node = next;
+            }
+        }
+
+        if (tableSize >= MIN_TREEIFY_TABLE_SIZE) {
+            for (int i = 0; i < tableSize; i++) {
+                if (counts[i] > TREEIFY_THRESHOLD) treeifyBin(i);
+            }
+        }
+        if (stats != null) recordState();
     }
 
     /**
-     * Remove the value assocaited the key from the table.
-     * Does so using lazy deletion -- marks the KVPair as inactive.
-     * Will be cleaned up on next table resize.
+     * Remove the value associated with the key from the table.  A tree bin
+     * that shrinks to UNTREEIFY_THRESHOLD nodes turns back into a list.
+     * @param key
      */
     public void delete(K key) {
 
         // check key isn't null
         if (key == null) throw new IllegalArgumentException("Key cannot be null");
 
-        int index = getHashIndex(key);
-
-        // sequentially proble table while the slots contain active KVPairs.
-        // At each active KVPair, check if it matches the key -- if so,
-        // update it to inactive and return.
-        while (table[index] != null) {
+        int hash = hash(key);
+        int index = hash & (table.length - 1);
 
-            // see if the keys match
-            if (table[index].key.equals(key)) {
-                table[index].active = false;
-                tombstones++;
-                return;
+        if (table[index] instanceof TreeBin) {
+            TreeBin bin = (TreeBin) table[index];
+            TreeNode node = bin.find(hash, key);
+            if (node == null) return;
+            bin.remove(node);
+            if (bin.count <= UNTREEIFY_THRESHOLD) table[index] = bin.toList();
+        } else {
+            Node prev = null;
+            Node node = table[index];
+            while (node != null && !(node.hash == hash && node.key.equals(key))) {
+                prev = node;
+                node = node.next;
+            }
+            if (node == null) return;
+            if (prev == null) {
+                table[index] = node.next;
+            } else {
+                prev.next = node.next;
             }
-            index = ++index % table.length;
         }
+        size--;
+
+        if (stats != null) recordState();
     }
 
-    /***** INNER CLASSES ************/
+    /**
+     * Shrinks the table to the smallest length that holds the current
+     * entries under the load factor, for use after mass deletion.
+     */
+    public void trimToSize() {
+        int minLength = Math.max(INITIAL_TABLE_SIZE, HashFunctions.tableSizeFor((int) (size / LOAD_FACTOR) + 1));
+        if (minLength < table.length) rehash(minLength);
+    }
 
-    // define inner class that contains both key K and value V
-    private class KVPair<K, V> {
+    /**
+     * Starts collecting statistics (chain and tree search lengths,
+     * collisions, resizes, load factor) for this table.  Off by default;
+     * while off, the only cost is a null check per operation.  A probe is
+     * one node examined; there are never tombstones.
+     * @return the statistics object, also available from getStats()
+     */
+    public HashTableStats enableStats() {
+        if (stats == null) {
+            stats = new HashTableStats();
+            recordState();
+        }
+        return stats;
+    }
+
+    public void disableStats() {
+        stats = null;
+    }
 
-        private K key;
-        private V value;
+    // null while statistics are disabled
+    public HashTableStats getStats() {
+        return stats;
+    }
 
-        // track whether this object is active (i.e., deleted or not)
-        private boolean active;
+    private void recordState() {
+        stats.recordState(size, 0, table.length);
+    }
+
+    // testing only
+    public int getTableLength() {
+        return table.length;
+    }
 
-        public KVPair(K key, V value) {
+    // testing only: number of nodes find(key) examines
+    public int getProbeCount(K key) {
+        findNode(hash(key), key);
+        return probes;
+    }
+
+    // testing only: number of bins that are trees
+    public int getTreeBinCount() {
+        int count = 0;
+        for (Node bin : table) {
+            if (bin instanceof TreeBin) count++;
+        }
+        return count;
+    }
+
+    /***** INNER CLASSES ************/
+
+    // list node: key, value and mixed hash
+    private static class Node {
+
+        // not private, so TreeNode references can reach them
+        final Object key;
+        Object value;
+        final int hash;
+        Node next;
+
+        public Node(Object key, Object value, int hash, Node next) {
             this.key = key;
             this.value = value;
-            this.active = true;
+            this.hash = hash;
+            this.next = next;
         }
 
         public String toString() {
@@ -190,4 +315,188 @@ public class MyHashMap<K, V> {
         }
     }
 
+    // AVL tree node
+    private static class TreeNode extends Node {
+
+        private TreeNode left;
+        private TreeNode right;
+        private int height = 1;
+
+        public TreeNode(Object key, Object value, int hash) {
+            super(key, value, hash, null);
+        }
+    }
+
+    /**
+     * A bin stored as an AVL tree, ordered by hash, then by compareTo when
+     * both keys are Comparable and of the same class, then by an arbitrary
+     * but fixed tie-break (class name, identity hash code).  Lookups can't
+     * use the tie-break -- the key looked up is usually a different object
+     * -- so where hash and compareTo both tie, find searches both subtrees.
+     */
+    private static class TreeBin extends Node {
+
+        private TreeNode root;
+        private int count;
+        private int probes;  // nodes examined by the last find
+
+        public TreeBin() {
+            super(null, null, 0, null);
+        }
+
+        // node holding key, or null
+        TreeNode find(int hash, Object key) {
+            probes = 0;
+            return find(root, hash, key);
+        }
+
+        private TreeNode find(TreeNode node, int hash, Object key) {
+            while (node != null) {
+                probes++;
+                if (hash != node.hash) {
+                    node = (hash < node.hash) ? node.left : node.right;
+                    continue;
+                }
+                if (key.equals(node.key)) return node;
+                int cmp = compareComparables(key, node.key);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    node = node.right;
+                } else {
+                    TreeNode found = find(node.right, hash, key);
+                    if (found != null) return found;
+                    node = node.left;
+                }
+            }
+            return null;
+        }
+
+        // inserts a node whose key is known to be absent
+        void insert(TreeNode node) {
+            root = insert(root, node);
+            count++;
+        }
+
+        private TreeNode insert(TreeNode subtree, TreeNode node) {
+            if (subtree == null) return node;
+            if (order(node, subtree) < 0) {
+                subtree.left = insert(subtree.left, node);
+            } else {
+                subtree.right = insert(subtree.right, node);
+            }
+            return balance(subtree);
+        }
+
+        void remove(TreeNode node) {
+            root = remove(root, node);
+            count--;
+        }
+
+        // removes the given node (by identity) from the subtree
+        private TreeNode remove(TreeNode subtree, TreeNode node) {
+            if (subtree == null) return null;
+            if (subtree == node) {
+                if (node.left == null) return node.right;
+                if (node.right == null) return node.left;
+
+                // replace with the smallest node of the right subtree
+                TreeNode successor = node.right;
+                while (successor.left != null) successor = successor.left;
+                successor.right = removeMin(node.right);
+                successor.left = node.left;
+                return balance(successor);
+            }
+
+            int cmp = order(node, subtree);
+            if (cmp < 0) {
+                subtree.left = remove(subtree.left, node);
+            } else if (cmp > 0) {
+                subtree.right = remove(subtree.right, node);
+            } else {
+                // complete tie (equal identity hash codes): try both sides
+                subtree.left = remove(subtree.left, node);
+                subtree.right = remove(subtree.right, node);
+            }
+            return balance(subtree);
+        }
+
+        private TreeNode removeMin(TreeNode subtree) {
+            if (subtree.left == null) return subtree.right;
+            subtree.left = removeMin(subtree.left);
+            return balance(subtree);
+        }
+
+        // total order used for placing nodes
+        private static int order(TreeNode a, TreeNode b) {
+            if (a.hash != b.hash) return (a.hash < b.hash) ? -1 : 1;
+            int cmp = compareComparables(a.key, b.key);
+            if (cmp != 0) return cmp;
+            cmp = a.key.getClass().getName().compareTo(b.key.getClass().getName());
+            if (cmp != 0) return cmp;
+            return Integer.compare(System.identityHashCode(a.key), System.identityHashCode(b.key));
+        }
+
+        // compareTo for Comparable keys of the same class; 0 otherwise
+        @SuppressWarnings("unchecked")
+        private static int compareComparables(Object a, Object b) {
+            if (a instanceof Comparable && a.getClass() == b.getClass()) {
+                return Integer.signum(((Comparable<Object>) a).compareTo(b));
+            }
+            return 0;
+        }
+
+        private static int height(TreeNode node) {
+            return (node == null) ? 0 : node.height;
+        }
+
+        // restores the AVL property at node after one of its subtrees changed
+        private static TreeNode balance(TreeNode node) {
+            int skew = height(node.left) - height(node.right);
+            if (skew > 1) {
+                if (height(node.left.left) < height(node.left.right)) node.left = rotateLeft(node.left);
+                return rotateRight(node);
+            }
+            if (skew < -1) {
+                if (height(node.right.right) < height(node.right.left)) node.right = rotateRight(node.right);
+                return rotateLeft(node);
+            }
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+            return node;
+        }
+
+        private static TreeNode rotateRight(TreeNode node) {
+            TreeNode top = node.left;
+            node.left = top.right;
+            top.right = node;
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+            top.height = 1 + Math.max(height(top.left), height(top.right));
+            return top;
+        }
+
+        private static TreeNode rotateLeft(TreeNode node) {
+            TreeNode top = node.right;
+            node.right = top.left;
+            top.left = node;
+            node.height = 1 + Math.max(height(node.left), height(node.right));
+            top.height = 1 + Math.max(height(top.left), height(top.right));
+            return top;
+        }
+
+        // the bin's entries as a list of plain nodes, in key order
+        Node toList() {
+            Node[] head = new Node[1];
+            appendReversed(root, head);
+            return head[0];
+        }
+
+        // prepends the subtree's nodes in reverse order, so the list ends up in order
+        private static void appendReversed(TreeNode node, Node[] head) {
+            if (node == null) return;
+            appendReversed(node.right, head);
+            head[0] = new Node(node.key, node.value, node.hash, head[0]);
+            appendReversed(node.left, head);
+        }
+    }
+
 }
@@ -0,0 +1,422 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable hash map stored as a hash array mapped trie (HAMT).  Each level
+ * of the trie consumes 5 bits of the mixed hash and keeps only the children
+ * that exist, indexed through a 32-bit bitmap.  add and delete return a new
+ * version that copies just the O(log32 n) nodes on the path to the key and
+ * shares everything else with the old version, so old versions stay valid
+ * and any number of threads can read a version without locking.
+ * See VersionedHashMap for publishing versions to readers.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public final class PersistentHashMap<K, V> implements Iterable<V> {
+
+    // constants for managing the trie
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;  // null when empty
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    // the empty map; every map is built up from it.  It holds no keys or
+    // values, so one instance serves for any K and V.
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    // get size of map
+    public int size() {
+        return size;
+    }
+
+    // is map empty?
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in map; null otherwise.
+     */
+    public V find(K key) {
+        if (key == null) return null;
+
+        // walk down the bitmap nodes iteratively; this is the hot read path
+        int hash = HashFunctions.mix(key.hashCode());
+        Node node = root;
+        for (int shift = 0; node instanceof BitmapNode; shift += BITS_PER_LEVEL) {
+            BitmapNode bitmapNode = (BitmapNode) node;
+            int bit = bitFor(hash, shift);
+            if ((bitmapNode.bitmap & bit) == 0) return null;
+            node = bitmapNode.children[bitmapNode.indexOf(bit)];
+        }
+        return (node == null) ? null : asValue(node.find(key, hash, 0));
+    }
+
+    /** Returns a version of this map with key mapped to value.  This map
+     * is unchanged.  Keys must be unique; adding an existing key replaces
+     * its value in the new version.
+     * @param key
+     * @param value
+     * @return the new version, or this map if key already maps to value
+     */
+    public PersistentHashMap<K, V> add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = HashFunctions.mix(key.hashCode());
+        Leaf leaf = new Leaf(key, value, hash);
+        if (root == null) return new PersistentHashMap<>(leaf, 1);
+
+        boolean[] added = new boolean[1];
+        Node newRoot = root.add(leaf, 0, added);
+        if (newRoot == root) return this;
+        return new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Returns a version of this map without key.  This map is unchanged.
+     * @param key
+     * @return the new version, or this map if key is not in it
+     */
+    public PersistentHashMap<K, V> delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        if (root == null) return this;
+
+        Node newRoot = root.delete(key, HashFunctions.mix(key.hashCode()), 0);
+        if (newRoot == root) return this;
+        return (newRoot == null) ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    // calls action for every key and value
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Iterator<Leaf> it = new LeafIterator(root); it.hasNext(); ) {
+            Leaf leaf = it.next();
+            action.accept(asKey(leaf.key), asValue(leaf.value));
+        }
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        Iterator<Leaf> leaves = new LeafIterator(root);
+        return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+                return leaves.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return asValue(leaves.next().value);
+            }
+        };
+    }
+
+    // the nodes hold only keys and values add was given, so the casts are safe
+    @SuppressWarnings("unchecked")
+    private K asKey(Object key) {
+        return (K) key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V asValue(Object value) {
+        return (V) value;
+    }
+
+    // testing only: number of levels below the root
+    public int getDepth() {
+        return depth(root);
+    }
+
+    private static int depth(Node node) {
+        if (!(node instanceof BitmapNode)) return 0;
+        int max = 0;
+        for (Node child : ((BitmapNode) node).children) max = Math.max(max, depth(child));
+        return max + 1;
+    }
+
+    // bit of bitmap for the hash at this level
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    // a node holding a and b, whose hashes differ, at the level of shift
+    private static Node merge(Node a, Node b, int shift) {
+        int bitA = bitFor(a.hash, shift);
+        int bitB = bitFor(b.hash, shift);
+        if (bitA == bitB) return new BitmapNode(bitA, new Node[]{merge(a, b, shift + BITS_PER_LEVEL)});
+        boolean aFirst = Integer.compareUnsigned(bitA, bitB) < 0;  // bit 31 sorts last
+        return new BitmapNode(bitA | bitB, aFirst ? new Node[]{a, b} : new Node[]{b, a});
+    }
+
+    /***** INNER CLASSES ************/
+
+    // a trie node; hash is meaningful for Leaf and CollisionNode
+    private abstract static class Node {
+
+        protected final int hash;
+
+        protected Node(int hash) {
+            this.hash = hash;
+        }
+
+        abstract Object find(Object key, int hash, int shift);
+
+        // this subtree with leaf added, or this if nothing changed;
+        // sets added[0] when the key is new
+        abstract Node add(Leaf leaf, int shift, boolean[] added);
+
+        // this subtree without key, this if key is absent, or null if empty
+        abstract Node delete(Object key, int hash, int shift);
+    }
+
+    // one key and value
+    private static final class Leaf extends Node {
+
+        private final Object key;
+        private final Object value;
+
+        public Leaf(Object key, Object value, int hash) {
+            super(hash);
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            return (hash == this.hash && key.equals(this.key)) ? value : null;
+        }
+
+        @Override
+        Node add(Leaf leaf, int shift, boolean[] added) {
+            if (leaf.hash == hash && leaf.key.equals(key)) {
+                return (leaf.value == value) ? this : leaf;
+            }
+            added[0] = true;
+            if (leaf.hash == hash) return new CollisionNode(hash, new Leaf[]{this, leaf});
+            return merge(this, leaf, shift);
+        }
+
+        @Override
+        Node delete(Object key, int hash, int shift) {
+            return (hash == this.hash && key.equals(this.key)) ? null : this;
+        }
+
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    // keys whose full 32-bit hashes are equal, searched linearly
+    private static final class CollisionNode extends Node {
+
+        private final Leaf[] leaves;
+
+        public CollisionNode(int hash, Leaf[] leaves) {
+            super(hash);
+            this.leaves = leaves;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            if (hash != this.hash) return null;
+            int i = indexOf(key);
+            return (i < 0) ? null : leaves[i].value;
+        }
+
+        @Override
+        Node add(Leaf leaf, int shift, boolean[] added) {
+            if (leaf.hash != hash) {
+                added[0] = true;
+                return merge(this, leaf, shift);
+            }
+            int i = indexOf(leaf.key);
+            if (i >= 0) {
+                if (leaves[i].value == leaf.value) return this;
+                Leaf[] copy = leaves.clone();
+                copy[i] = leaf;
+                return new CollisionNode(hash, copy);
+            }
+            added[0] = true;
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node delete(Object key, int hash, int shift) {
+            if (hash != this.hash) return this;
+            int i = indexOf(key);
+            if (i < 0) return this;
+            if (leaves.length == 2) return leaves[1 - i];  // collapse to a single leaf
+            Leaf[] copy = new Leaf[leaves.length - 1];
+            System.arraycopy(leaves, 0, copy, 0, i);
+            System.arraycopy(leaves, i + 1, copy, i, copy.length - i);
+            return new CollisionNode(hash, copy);
+        }
+    }
+
+    // up to 32 children, stored densely in the order of their bits
+    private static final class BitmapNode extends Node {
+
+        private final int bitmap;
+        private final Node[] children;
+
+        public BitmapNode(int bitmap, Node[] children) {
+            super(0);
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        // position in children of the child for bit
+        private int indexOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            return children[indexOf(bit)].find(key, hash, shift + BITS_PER_LEVEL);
+        }
+
+        @Override
+        Node add(Leaf leaf, int shift, boolean[] added) {
+            int bit = bitFor(leaf.hash, shift);
+            int index = indexOf(bit);
+
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Node[] copy = new Node[children.length + 1];
+                System.arraycopy(children, 0, copy, 0, index);
+                copy[index] = leaf;
+                System.arraycopy(children, index, copy, index + 1, children.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+
+            Node child = children[index];
+            Node newChild = child.add(leaf, shift + BITS_PER_LEVEL, added);
+            if (newChild == child) return this;
+            Node[] copy = children.clone();
+            copy[index] = newChild;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node delete(Object key, int hash, int shift) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int index = indexOf(bit);
+
+            Node child = children[index];
+            Node newChild = child.delete(key, hash, shift + BITS_PER_LEVEL);
+            if (newChild == child) return this;
+
+            if (newChild != null) {
+                // a lone leaf or collision node can move up in place of this node
+                if (children.length == 1 && !(newChild instanceof BitmapNode)) return newChild;
+                Node[] copy = children.clone();
+                copy[index] = newChild;
+                return new BitmapNode(bitmap, copy);
+            }
+
+            if (children.length == 1) return null;
+            if (children.length == 2 && !(children[1 - index] instanceof BitmapNode)) return children[1 - index];
+            Node[] copy = new Node[children.length - 1];
+            System.arraycopy(children, 0, copy, 0, index);
+            System.arraycopy(children, index + 1, copy, index, copy.length - index);
+            return new BitmapNode(bitmap & ~bit, copy);
+        }
+    }
+
+    // depth-first iterator over the leaves of a trie
+    private static class LeafIterator implements Iterator<Leaf> {
+
+        private final Node[] nodes = new Node[8];  // path of bitmap/collision nodes
+        private final int[] positions = new int[8];  // next child to visit at each level
+        private int depth = -1;
+        private Leaf next;
+
+        public LeafIterator(Node root) {
+            if (root instanceof Leaf) {
+                next = (Leaf) root;
+            } else if (root != null) {
+                push(root);
+                advance();
+            }
+        }
+
+        private void push(Node node) {
+            depth++;
+            nodes[depth] = node;
+            positions[depth] = 0;
+        }
+
+        // finds the next leaf, or sets next to null at the end
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Node node = nodes[depth];
+                int position = positions[depth]++;
+                if (node instanceof CollisionNode) {
+                    Leaf[] leaves = ((CollisionNode) node).leaves;
+                    if (position < leaves.length) {
+                        next = leaves[position];
+                        return;
+                    }
+                    depth--;
+                    continue;
+                }
+
+                Node[] children = ((BitmapNode) node).children;
+                if (position == children.length) {
+                    depth--;
+                } else if (children[position] instanceof Leaf) {
+                    next = (Leaf) children[position];
+                    return;
+                } else {
+                    push(children[position]);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Leaf next() {
+            if (next == null) throw new NoSuchElementException();
+            Leaf leaf = next;
+            advance();
+            return leaf;
+        }
+    }
+
+}
@@ -0,0 +1,284 @@
+package hashmap;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashTable that uses Robin Hood linear probing for collision resolution.
+ * On insert, an entry that is further from its home slot than the resident
+ * entry takes the slot and the resident moves on ("take from the rich"),
+ * which keeps probe distances short and even.  Deletion shifts the following
+ * entries of the run back one slot, so the table never holds tombstones.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class RobinHoodHashTable<K, V> implements IHashTable<K, V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_TABLE_SIZE = 7;
+    private static final double RESIZE_FACTOR = 2;
+
+    private Entry[] table;
+
+    private int size; // number of objects in table
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public RobinHoodHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public RobinHoodHashTable(int tableSize) {
+        table = new Entry[tableSize];
+    }
+
+    // get size of table
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // is table empty?
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        size = 0;
+        table = new Entry[tableSize];
+        modcount++;
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        // check load factor to see if table needs to be resized
+        if (tableSizeExceedsLF()) {
+            resize();
+        }
+
+        modcount++;
+        insert(new Entry(key, value, key.hashCode()), true);
+    }
+
+    // places the entry, displacing residents that are closer to home.
+    // Once an entry has been displaced the carried key is known to be
+    // absent, so the equality check is skipped from then on.
+    private void insert(Entry entry, boolean checkExisting) {
+        int index = getHashIndex(entry.hash);
+        int distance = 0;
+
+        while (table[index] != null) {
+            Entry resident = table[index];
+
+            if (checkExisting && resident.hash == entry.hash && resident.key.equals(entry.key)) {
+                resident.value = entry.value;
+                return;
+            }
+
+            // resident is richer (closer to home) -- swap and carry it on
+            int residentDistance = probeDistance(resident.hash, index);
+            if (residentDistance < distance) {
+                table[index] = entry;
+                entry = resident;
+                distance = residentDistance;
+                checkExisting = false;
+            }
+
+            index = ++index % table.length;
+            distance++;
+        }
+
+        table[index] = entry;
+        size++;
+    }
+
+    // Computes the home slot of a hash code
+    private int getHashIndex(int hash) {
+        return (hash & 0x7fffffff) % table.length;
+    }
+
+    // how far the slot at index is from the home slot of hash
+    private int probeDistance(int hash, int index) {
+        int distance = index - getHashIndex(hash);
+        return distance < 0 ? distance + table.length : distance;
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    @Override
+    public V find(K key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    // returns the slot holding key, or -1.  The probe stops as soon as it
+    // meets an entry closer to its home than the key would be at this slot.
+    private int indexOf(K key) {
+        int hash = key.hashCode();
+        int index = getHashIndex(hash);
+        int distance = 0;
+
+        while (table[index] != null && probeDistance(table[index].hash, index) >= distance) {
+            if (table[index].hash == hash && table[index].key.equals(key)) return index;
+            index = ++index % table.length;
+            distance++;
+        }
+        return -1;
+    }
+
+    // entries hold only values add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) table[index].value;
+    }
+
+    // determines if load factor is exceeded by current size
+    // only used on add.
+    private boolean tableSizeExceedsLF() {
+        return (double) size / table.length >= LOAD_FACTOR;
+    }
+
+    // resize the table
+    private void resize() {
+        Entry[] oldTable = table;
+
+        table = new Entry[(int) (oldTable.length * RESIZE_FACTOR)];
+        size = 0;
+
+        for (Entry entry : oldTable) {
+            if (entry != null) insert(entry, false);
+        }
+    }
+
+    /**
+     * Removes the value associated with the key from the table.  The entries
+     * after it in the run are shifted back one slot until an empty slot or an
+     * entry already in its home slot is reached, so no tombstone is left.
+     * @param key
+     */
+    @Override
+    public void delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int index = indexOf(key);
+        if (index < 0) return;
+
+        int next = (index + 1) % table.length;
+        while (table[next] != null && probeDistance(table[next].hash, next) > 0) {
+            table[index] = table[next];
+            index = next;
+            next = (next + 1) % table.length;
+        }
+        table[index] = null;
+        size--;
+        modcount++;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return table.length;
+    }
+
+    // testing only: longest distance of any entry from its home slot
+    public int getMaxProbeDistance() {
+        int max = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null) max = Math.max(max, probeDistance(table[i].hash, i));
+        }
+        return max;
+    }
+
+    // testing only: entries out of Robin Hood order.  Within a run each
+    // entry is at most one further from home than the one before it, and
+    // an entry after an empty slot is in its home slot.
+    public int getProbeOrderViolations() {
+        int violations = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] == null) continue;
+            int previous = (i + table.length - 1) % table.length;
+            int limit = (table[previous] == null) ? 0 : probeDistance(table[previous].hash, previous) + 1;
+            if (probeDistance(table[i].hash, i) > limit) violations++;
+        }
+        return violations;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // key and value plus the cached hash code, which is needed
+    // to recompute probe distances without calling hashCode()
+    private static class Entry {
+
+        private final Object key;
+        private Object value;
+        private final int hash;
+
+        public Entry(Object key, Object value, int hash) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+        }
+
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    // iterator over values in the table
+    private class HTIterator implements Iterator<V> {
+
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (index < table.length && table[index] == null) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < table.length;
+        }
+
+        @Override
+        public V next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return valueAt(i);
+        }
+    }
+
+}
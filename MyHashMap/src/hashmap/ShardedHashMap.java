@@ -0,0 +1,531 @@
+package hashmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe map that partitions keys across shards with a consistent-hash
+ * ring.  Each shard owns the arcs of the ring that end at its virtual nodes
+ * (VIRTUAL_NODES points per shard, placed by hashing the shard id), and a
+ * key belongs to the shard owning its point.  Each shard is its own lock
+ * domain and resizes on its own (see LocalShard); shards are pluggable, so
+ * a remote node can stand in for a local one.
+ * <p>
+ * Shards can be added and removed while the map is in use.  Only the keys
+ * whose owner changes are moved -- about 1/N of them when the Nth shard is
+ * added -- and they are moved in the background, on the executor.  During
+ * the move, find looks in a key's old owners before its new one, and add
+ * and delete write to the new owner and remove the key from the old ones,
+ * so every key stays visible throughout.  Changes to the set of shards are
+ * queued and run one at a time.
+ * <p>
+ * Writers and the migration lock one of STRIPES key-stripe locks per key,
+ * and switching rings takes all of them; find takes none.  Null values are
+ * not moved by a migration (find can't tell them from absent keys).
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class ShardedHashMap<K, V> implements IHashTable<K, V> {
+
+    // constants for managing the ring
+    private static final int DEFAULT_SHARDS = 4;
+    private static final int VIRTUAL_NODES = 128;
+    private static final int STRIPES = 64;
+
+    private final int virtualNodes;
+    private final Executor executor;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private volatile Routing<K, V> routing;
+
+    // the shards once every queued change has run, and the queued changes
+    private final Object topologyLock = new Object();
+    private final List<ShardState<K, V>> planned = new ArrayList<>();
+    private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    // constructor
+    public ShardedHashMap() {
+        this(DEFAULT_SHARDS);
+    }
+
+    // shardCount local shards, named shard-0, shard-1, ...
+    public ShardedHashMap(int shardCount) {
+        this(localShards(shardCount), VIRTUAL_NODES, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param shards  initial shards, with distinct ids; they should be empty
+     * @param virtualNodes  points on the ring per shard; more points even out
+     *                      the shards' shares of the keys
+     * @param executor  runs the migrations after shards are added or removed
+     */
+    public ShardedHashMap(Collection<? extends IShard<K, V>> shards, int virtualNodes, Executor executor) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("Need at least one shard");
+        if (virtualNodes <= 0) throw new IllegalArgumentException("Virtual nodes must be positive");
+        if (executor == null) throw new IllegalArgumentException("Executor cannot be null");
+        this.virtualNodes = virtualNodes;
+        this.executor = executor;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+        for (IShard<K, V> shard : shards) {
+            if (shard == null) throw new IllegalArgumentException("Shard cannot be null");
+            if (indexOf(shard.id()) >= 0) throw new IllegalArgumentException("Shard id already in use: " + shard.id());
+            planned.add(new ShardState<>(shard));
+        }
+        routing = new Routing<>(new Ring<>(planned, virtualNodes), Collections.emptyList());
+    }
+
+    private static <K, V> List<IShard<K, V>> localShards(int shardCount) {
+        if (shardCount <= 0) throw new IllegalArgumentException("Need at least one shard");
+        List<IShard<K, V>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) shards.add(new LocalShard<>("shard-" + i));
+        return shards;
+    }
+
+    // the ring position of a key; a different mix from the one the shards
+    // use for their own slots, so each shard's keys still spread evenly
+    private static int hash(Object key) {
+        return (int) (HashFunctions.mix((long) key.hashCode()) >>> 32);
+    }
+
+    private ReentrantLock stripeFor(int hash) {
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    // get size of map (a moment-in-time sum over the shards)
+    @Override
+    public int size() {
+        long total = 0;
+        for (ShardState<K, V> state : allShards(routing)) total += state.shard.size();
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    // is map empty?
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        lockAll();
+        try {
+            for (ShardState<K, V> state : allShards(routing)) state.shard.clear();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /** Add a value to the map based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = hash(key);
+        ReentrantLock lock = stripeFor(hash);
+        lock.lock();
+        try {
+            Routing<K, V> current = routing;
+            ShardState<K, V> owner = current.ring.owner(hash);
+            owner.shard.add(key, value);
+            owner.adds.increment();
+            removeFromOldOwners(current, owner, key, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in map; null otherwise.
+     */
+    @Override
+    public V find(K key) {
+        if (key == null) return null;
+
+        // a miss is only trusted if the rings didn't change meanwhile;
+        // otherwise the key may have moved past us
+        int hash = hash(key);
+        while (true) {
+            Routing<K, V> current = routing;
+            V value = find(current, key, hash);
+            if (value != null || routing == current) return value;
+        }
+    }
+
+    // looks in the old owners first: a moving key is added to its new
+    // owner before it is deleted from the old one
+    private V find(Routing<K, V> current, K key, int hash) {
+        ShardState<K, V> owner = current.ring.owner(hash);
+        owner.finds.increment();
+        for (Ring<K, V> old : current.previous) {
+            ShardState<K, V> state = old.owner(hash);
+            if (state == owner) continue;
+            V value = state.shard.find(key);
+            if (value != null) return value;
+        }
+        return owner.shard.find(key);
+    }
+
+    /**
+     * Removes the value associated with the key from the map.
+     * @param key
+     */
+    @Override
+    public void delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = hash(key);
+        ReentrantLock lock = stripeFor(hash);
+        lock.lock();
+        try {
+            Routing<K, V> current = routing;
+            ShardState<K, V> owner = current.ring.owner(hash);
+            owner.shard.delete(key);
+            owner.deletes.increment();
+            removeFromOldOwners(current, owner, key, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // during a migration, a write also drops the key's old copies so the
+    // migration can't bring them back
+    private void removeFromOldOwners(Routing<K, V> current, ShardState<K, V> owner, K key, int hash) {
+        for (Ring<K, V> old : current.previous) {
+            ShardState<K, V> state = old.owner(hash);
+            if (state != owner) state.shard.delete(key);
+        }
+    }
+
+    /**
+     * Adds a shard and moves the keys it now owns to it in the background.
+     * @param shard  new shard, with an id not in use; it should be empty
+     * @return completes when the keys have moved
+     */
+    public CompletableFuture<Void> addShard(IShard<K, V> shard) {
+        if (shard == null) throw new IllegalArgumentException("Shard cannot be null");
+        synchronized (topologyLock) {
+            if (indexOf(shard.id()) >= 0) throw new IllegalArgumentException("Shard id already in use: " + shard.id());
+            planned.add(new ShardState<>(shard));
+            return reshard();
+        }
+    }
+
+    /**
+     * Removes a shard, moving its keys to the remaining shards in the
+     * background.  The shard is in use until the returned future completes.
+     * @param id  id of the shard
+     * @return completes when the keys have moved
+     */
+    public CompletableFuture<Void> removeShard(String id) {
+        synchronized (topologyLock) {
+            int index = indexOf(id);
+            if (index < 0) throw new IllegalArgumentException("No shard with id " + id);
+            if (planned.size() == 1) throw new IllegalStateException("Cannot remove the last shard");
+            planned.remove(index);
+            return reshard();
+        }
+    }
+
+    /**
+     * Moves any keys not on their owning shard.  A migration that failed
+     * (say, a remote shard was unreachable) leaves every key findable but
+     * some on old owners; this retries it.
+     * @return completes when the keys have moved
+     */
+    public CompletableFuture<Void> rebalance() {
+        synchronized (topologyLock) {
+            return reshard();
+        }
+    }
+
+    // is a migration under way (or did the last one fail)?
+    public boolean isMigrating() {
+        return !routing.previous.isEmpty();
+    }
+
+    private int indexOf(String id) {
+        for (int i = 0; i < planned.size(); i++) {
+            if (planned.get(i).shard.id().equals(id)) return i;
+        }
+        return -1;
+    }
+
+    // queues a migration to the planned shards behind any earlier one;
+    // runs even if the earlier one failed
+    private CompletableFuture<Void> reshard() {
+        Ring<K, V> target = new Ring<>(planned, virtualNodes);
+        pending = pending.handle((ignored, failure) -> (Void) null).thenRunAsync(() -> migrateTo(target), executor);
+        return pending;
+    }
+
+    private void migrateTo(Ring<K, V> target) {
+        Routing<K, V> from = routing;
+        List<Ring<K, V>> older = new ArrayList<>(from.previous);
+        older.add(from.ring);
+        switchRouting(new Routing<>(target, older));
+
+        // every shard of every ring, since an earlier failed migration may
+        // have left keys anywhere
+        for (ShardState<K, V> state : allShards(routing)) {
+            for (K key : state.shard.keys()) {
+                int hash = hash(key);
+                ShardState<K, V> owner = target.owner(hash);
+                if (owner == state) continue;
+
+                ReentrantLock lock = stripeFor(hash);
+                lock.lock();
+                try {
+                    V value = state.shard.find(key);
+                    if (value != null) {
+                        owner.shard.add(key, value);
+                        state.shard.delete(key);
+                        state.migratedOut.increment();
+                        owner.migratedIn.increment();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        switchRouting(new Routing<>(target, Collections.emptyList()));
+    }
+
+    // publishes new rings while no writer is between reading and using them
+    private void switchRouting(Routing<K, V> next) {
+        lockAll();
+        try {
+            routing = next;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) lock.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    // shards of the current ring, then any only in older rings
+    private static <K, V> List<ShardState<K, V>> allShards(Routing<K, V> current) {
+        Set<ShardState<K, V>> shards = new LinkedHashSet<>(current.ring.shards);
+        for (Ring<K, V> old : current.previous) shards.addAll(old.shards);
+        return new ArrayList<>(shards);
+    }
+
+    /**
+     * Size, share of the ring and operation counts of every shard, including
+     * shards still being emptied by a migration.
+     * @return one entry per shard
+     */
+    public List<ShardMetrics> getShardMetrics() {
+        Routing<K, V> current = routing;
+        List<ShardState<K, V>> shards = allShards(current);
+        int[] sizes = new int[shards.size()];
+        long total = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = shards.get(i).shard.size();
+            total += sizes[i];
+        }
+
+        List<ShardMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < sizes.length; i++) {
+            ShardState<K, V> state = shards.get(i);
+            double ringShare = current.ring.share(state);
+            double load = (total == 0 || ringShare == 0) ? 0 : sizes[i] / (total * ringShare);
+            metrics.add(new ShardMetrics(state.shard.id(), sizes[i], ringShare, load, state.finds.sum(),
+                    state.adds.sum(), state.deletes.sum(), state.migratedIn.sum(), state.migratedOut.sum()));
+        }
+        return Collections.unmodifiableList(metrics);
+    }
+
+    /**
+     * A snapshot of the values, taken shard by shard.  A key that moves
+     * while the snapshot is taken may appear twice or not at all.
+     */
+    @Override
+    public Iterator<V> iterator() {
+        List<V> values = new ArrayList<>();
+        for (ShardState<K, V> state : allShards(routing)) {
+            for (K key : state.shard.keys()) {
+                V value = state.shard.find(key);
+                if (value != null) values.add(value);
+            }
+        }
+        return values.iterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // per-shard size, load and counters, as of the call to getShardMetrics
+    public static final class ShardMetrics {
+
+        private final String id;
+        private final int size;
+        private final double ringShare;
+        private final double load;
+        private final long finds;
+        private final long adds;
+        private final long deletes;
+        private final long migratedIn;
+        private final long migratedOut;
+
+        ShardMetrics(String id, int size, double ringShare, double load, long finds, long adds, long deletes,
+                     long migratedIn, long migratedOut) {
+            this.id = id;
+            this.size = size;
+            this.ringShare = ringShare;
+            this.load = load;
+            this.finds = finds;
+            this.adds = adds;
+            this.deletes = deletes;
+            this.migratedIn = migratedIn;
+            this.migratedOut = migratedOut;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        // fraction of the ring the shard owns; 0 for a shard being removed
+        public double getRingShare() {
+            return ringShare;
+        }
+
+        // keys held over keys owed by ring share; 1.0 is an exactly fair share
+        public double getLoad() {
+            return load;
+        }
+
+        public long getFinds() {
+            return finds;
+        }
+
+        public long getAdds() {
+            return adds;
+        }
+
+        public long getDeletes() {
+            return deletes;
+        }
+
+        public long getMigratedIn() {
+            return migratedIn;
+        }
+
+        public long getMigratedOut() {
+            return migratedOut;
+        }
+
+        public String toString() {
+            return String.format("%s: size %d, ring share %.3f, load %.2f, finds %d, adds %d, deletes %d, "
+                    + "migrated in %d, out %d", id, size, ringShare, load, finds, adds, deletes, migratedIn, migratedOut);
+        }
+    }
+
+    // a shard and its counters
+    private static final class ShardState<K, V> {
+
+        private final IShard<K, V> shard;
+        private final LongAdder finds = new LongAdder();
+        private final LongAdder adds = new LongAdder();
+        private final LongAdder deletes = new LongAdder();
+        private final LongAdder migratedIn = new LongAdder();
+        private final LongAdder migratedOut = new LongAdder();
+
+        public ShardState(IShard<K, V> shard) {
+            this.shard = shard;
+        }
+    }
+
+    // the ring keys belong to, and older rings whose keys may not all have
+    // moved yet (oldest first); previous is empty outside a migration
+    private static final class Routing<K, V> {
+
+        private final Ring<K, V> ring;
+        private final List<Ring<K, V>> previous;
+
+        public Routing(Ring<K, V> ring, List<Ring<K, V>> previous) {
+            this.ring = ring;
+            this.previous = previous;
+        }
+    }
+
+    // sorted virtual node points, each owning the arc back to the point
+    // before it; owners holds the owning shard's index in shards
+    private static final class Ring<K, V> {
+
+        private final List<ShardState<K, V>> shards;
+        private final int[] points;
+        private final int[] owners;
+
+        public Ring(List<ShardState<K, V>> shards, int virtualNodes) {
+            this.shards = new ArrayList<>(shards);
+
+            // sort point and owner together: point in the high half, owner's
+            // virtual node number in the low half
+            long[] packed = new long[shards.size() * virtualNodes];
+            for (int s = 0; s < shards.size(); s++) {
+                long idHash = shards.get(s).shard.id().hashCode();
+                for (int v = 0; v < virtualNodes; v++) {
+                    int point = (int) (HashFunctions.mix((idHash << 32) | v) >>> 32);
+                    packed[s * virtualNodes + v] = ((long) point << 32) | (s * virtualNodes + v);
+                }
+            }
+            Arrays.sort(packed);
+
+            points = new int[packed.length];
+            owners = new int[packed.length];
+            for (int i = 0; i < packed.length; i++) {
+                points[i] = (int) (packed[i] >> 32);
+                owners[i] = (int) packed[i] / virtualNodes;
+            }
+        }
+
+        // owner of the first point at or after hash, wrapping around
+        public ShardState<K, V> owner(int hash) {
+            int index = Arrays.binarySearch(points, hash);
+            if (index < 0) index = -index - 1;
+            return shards.get(owners[(index == points.length) ? 0 : index]);
+        }
+
+        // fraction of all hashes that state owns
+        public double share(ShardState<K, V> state) {
+            int index = shards.indexOf(state);
+            long owned = 0;
+            for (int i = 0; i < points.length; i++) {
+                if (owners[i] != index) continue;
+                int before = points[(i == 0) ? points.length - 1 : i - 1];
+                long arc = (points[i] - before) & 0xFFFFFFFFL;
+                owned += (arc == 0 && points.length == 1) ? 1L << 32 : arc;
+            }
+            return owned / (double) (1L << 32);
+        }
+    }
+
+}
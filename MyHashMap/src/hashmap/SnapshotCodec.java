@@ -0,0 +1,112 @@
+package hashmap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes keys or values for LPHashTable snapshots (see LPHashTable.writeTo
+ * and LPHashTable.readFrom).  The name is stored in the snapshot header and
+ * checked when reading, so a snapshot can't be decoded with the wrong codec.
+ * Codecs never see null; null values are flagged by the snapshot itself.
+ * @param <T> type of the encoded objects
+ */
+public interface SnapshotCodec<T> {
+
+    // identifies the encoding in the snapshot header
+    String name();
+
+    void write(DataOutput out, T value) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    /***** BUILT-IN CODECS ************/
+
+    SnapshotCodec<Integer> INTEGER = new SnapshotCodec<Integer>() {
+        public String name() {
+            return "int32";
+        }
+
+        public void write(DataOutput out, Integer value) throws IOException {
+            out.writeInt(value);
+        }
+
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    SnapshotCodec<Long> LONG = new SnapshotCodec<Long>() {
+        public String name() {
+            return "int64";
+        }
+
+        public void write(DataOutput out, Long value) throws IOException {
+            out.writeLong(value);
+        }
+
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    SnapshotCodec<Double> DOUBLE = new SnapshotCodec<Double>() {
+        public String name() {
+            return "float64";
+        }
+
+        public void write(DataOutput out, Double value) throws IOException {
+            out.writeDouble(value);
+        }
+
+        public Double read(DataInput in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    // length-prefixed UTF-8, with no 64K limit (unlike writeUTF)
+    SnapshotCodec<String> STRING = new SnapshotCodec<String>() {
+        public String name() {
+            return "utf8";
+        }
+
+        public void write(DataOutput out, String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        public String read(DataInput in) throws IOException {
+            return new String(readLengthPrefixed(in), StandardCharsets.UTF_8);
+        }
+    };
+
+    SnapshotCodec<byte[]> BYTES = new SnapshotCodec<byte[]>() {
+        public String name() {
+            return "bytes";
+        }
+
+        public void write(DataOutput out, byte[] value) throws IOException {
+            out.writeInt(value.length);
+            out.write(value);
+        }
+
+        public byte[] read(DataInput in) throws IOException {
+            return readLengthPrefixed(in);
+        }
+    };
+
+    // reads an int length and that many bytes.  Within a snapshot block the
+    // length is checked against the bytes left in the block first, so a
+    // corrupt length can't allocate more than the block holds.
+    private static byte[] readLengthPrefixed(DataInput in) throws IOException {
+        int length = in.readInt();
+        int remaining = (in instanceof LPHashTable.SnapshotBlockInput)
+                ? ((LPHashTable.SnapshotBlockInput) in).remaining() : Integer.MAX_VALUE;
+        if (length < 0 || length > remaining) throw new IOException("Encoded length " + length + " is out of range");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,511 @@
+package hashmap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashTable that uses linear probing for collision resolution, specialized
+ * for string keys.  Keys are not kept as String objects: their UTF-8 bytes
+ * are appended to one contiguous byte arena, and each slot records the
+ * key's offset and length in the arena along with its cached hash.  So an
+ * entry costs no objects besides its value, and the garbage collector has
+ * only the value array to scan.
+ * <p>
+ * Keys can be looked up by any CharSequence (a String, or a reused
+ * StringBuilder) or by a slice of a byte array holding UTF-8, and neither
+ * lookup allocates: a CharSequence is encoded to UTF-8 on the fly while it
+ * is hashed and compared.  Unpaired surrogates encode as '?', as in
+ * String.getBytes.  Bytes of deleted keys are reclaimed when the arena is
+ * compacted, which happens on resize or once half the arena is garbage.
+ * @param <V> value  (for example, flight data)
+ */
+public class StringKeyHashTable<V> implements IHashTable<CharSequence, V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.7;
+    private static final int INITIAL_TABLE_SIZE = 16;
+    private static final int RESIZE_FACTOR = 2;
+    private static final int INITIAL_ARENA_SIZE = 256;
+
+    // slot states
+    private static final byte EMPTY = 0;
+    private static final byte ACTIVE = 1;
+    private static final byte TOMBSTONE = 2;
+
+    private byte[] states;
+    private int[] hashes;
+    private int[] offsets;  // start of each key in arena
+    private int[] lengths;  // UTF-8 length of each key
+    private Object[] values;
+
+    private byte[] arena = new byte[INITIAL_ARENA_SIZE];
+    private int arenaUsed;  // bytes appended so far
+    private int garbage;  // bytes of deleted keys
+
+    private int size; // number of active keys
+    private int tombstones; // number of inactive slots
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public StringKeyHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public StringKeyHashTable(int tableSize) {
+        allocate(HashFunctions.tableSizeFor(tableSize));
+    }
+
+    private void allocate(int capacity) {
+        states = new byte[capacity];
+        hashes = new int[capacity];
+        offsets = new int[capacity];
+        lengths = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    // get size of table
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // is table empty?
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        allocate(HashFunctions.tableSizeFor(tableSize));
+        arena = new byte[INITIAL_ARENA_SIZE];
+        arenaUsed = 0;
+        garbage = 0;
+        size = 0;
+        tombstones = 0;
+        modcount++;
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(CharSequence key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = hash(key);
+        int index = indexOf(key, hash);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+
+        index = insertSlot(hash);
+        int length = utf8Length(key);
+        ensureArena(length);
+        offsets[index] = arenaUsed;
+        lengths[index] = length;
+        arenaUsed = encode(key, arena, arenaUsed);
+        values[index] = value;
+    }
+
+    /** Add a value to the table based on a key given as UTF-8 bytes.
+     * @param bytes
+     * @param offset  start of the key in bytes
+     * @param length  length of the key in bytes
+     * @param value
+     */
+    public void add(byte[] bytes, int offset, int length, V value) {
+
+        // check key isn't null
+        if (bytes == null) throw new IllegalArgumentException("Key cannot be null");
+        checkSlice(bytes, offset, length);
+
+        int hash = hash(bytes, offset, length);
+        int index = indexOf(bytes, offset, length, hash);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+
+        index = insertSlot(hash);
+        ensureArena(length);
+        offsets[index] = arenaUsed;
+        lengths[index] = length;
+        System.arraycopy(bytes, offset, arena, arenaUsed, length);
+        arenaUsed += length;
+        values[index] = value;
+    }
+
+    // claims a slot for a new key with the given hash: the first tombstone
+    // or empty slot along its probe sequence
+    private int insertSlot(int hash) {
+
+        // check load factor to see if table needs to be resized
+        if ((double) (size + tombstones + 1) / states.length >= LOAD_FACTOR) {
+            rehash(((double) (size + 1) / states.length >= LOAD_FACTOR / 2)
+                    ? states.length * RESIZE_FACTOR : states.length);
+        }
+
+        modcount++;
+        int mask = states.length - 1;
+        int index = hash & mask;
+        while (states[index] == ACTIVE) index = (index + 1) & mask;
+        if (states[index] == TOMBSTONE) tombstones--;
+        states[index] = ACTIVE;
+        hashes[index] = hash;
+        // a reused tombstone still points at its old key's bytes, which are
+        // already counted as garbage; until the caller has stored the new
+        // key the slot must hold no bytes, or compactArena would copy them
+        offsets[index] = 0;
+        lengths[index] = 0;
+        size++;
+        return index;
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    @Override
+    public V find(CharSequence key) {
+        if (key == null) return null;
+        int index = indexOf(key, hash(key));
+        return (index < 0) ? null : valueAt(index);
+    }
+
+    /** Finds (gets) the value for a key given as UTF-8 bytes.
+     * @param bytes
+     * @param offset  start of the key in bytes
+     * @param length  length of the key in bytes
+     * @return value if key is found in table; null otherwise.
+     */
+    public V find(byte[] bytes, int offset, int length) {
+        if (bytes == null) return null;
+        checkSlice(bytes, offset, length);
+        int index = indexOf(bytes, offset, length, hash(bytes, offset, length));
+        return (index < 0) ? null : valueAt(index);
+    }
+
+    // values holds only what add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    // does the table hold this key?
+    public boolean containsKey(CharSequence key) {
+        return key != null && indexOf(key, hash(key)) >= 0;
+    }
+
+    // slot holding key, or -1
+    private int indexOf(CharSequence key, int hash) {
+        int mask = states.length - 1;
+        int index = hash & mask;
+        while (states[index] != EMPTY) {
+            if (states[index] == ACTIVE && hashes[index] == hash && equals(index, key)) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexOf(byte[] bytes, int offset, int length, int hash) {
+        int mask = states.length - 1;
+        int index = hash & mask;
+        while (states[index] != EMPTY) {
+            if (states[index] == ACTIVE && hashes[index] == hash && lengths[index] == length
+                    && equals(index, bytes, offset, length)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the value associated with the key from the table.  The slot is
+     * tombstoned and its key bytes become garbage in the arena.
+     * @param key
+     */
+    @Override
+    public void delete(CharSequence key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        remove(indexOf(key, hash(key)));
+    }
+
+    // removes a key given as UTF-8 bytes
+    public void delete(byte[] bytes, int offset, int length) {
+
+        // check key isn't null
+        if (bytes == null) throw new IllegalArgumentException("Key cannot be null");
+        checkSlice(bytes, offset, length);
+        remove(indexOf(bytes, offset, length, hash(bytes, offset, length)));
+    }
+
+    private void remove(int index) {
+        if (index < 0) return;
+        states[index] = TOMBSTONE;
+        values[index] = null;
+        garbage += lengths[index];
+        size--;
+        tombstones++;
+        modcount++;
+        if (garbage > arenaUsed / 2 && garbage > INITIAL_ARENA_SIZE) compactArena(0);
+    }
+
+    // move the active keys into a table of the given length, dropping the
+    // tombstones.  The cached hashes are reused, so no key is rehashed.
+    private void rehash(int tableSize) {
+        byte[] oldStates = states;
+        int[] oldHashes = hashes;
+        int[] oldOffsets = offsets;
+        int[] oldLengths = lengths;
+        Object[] oldValues = values;
+
+        allocate(tableSize);
+        tombstones = 0;
+        int mask = tableSize - 1;
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] != ACTIVE) continue;
+            int index = oldHashes[i] & mask;
+            while (states[index] != EMPTY) index = (index + 1) & mask;
+            states[index] = ACTIVE;
+            hashes[index] = oldHashes[i];
+            offsets[index] = oldOffsets[i];
+            lengths[index] = oldLengths[i];
+            values[index] = oldValues[i];
+        }
+        if (garbage > 0) compactArena(0);
+        modcount++;
+    }
+
+    // makes room for extra more bytes at the end of the arena
+    private void ensureArena(int extra) {
+        if (arenaUsed + extra <= arena.length) return;
+        if (garbage > arenaUsed / 2) {
+            compactArena(extra);
+            if (arenaUsed + extra <= arena.length) return;
+        }
+        long needed = (long) arenaUsed + extra;
+        if (needed > Integer.MAX_VALUE - 8) throw new IllegalStateException("Key arena is full");
+        arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, 2L * arena.length)));
+    }
+
+    // copies the live keys into a fresh arena, in slot order, with room
+    // for extra more bytes
+    private void compactArena(int extra) {
+        int live = arenaUsed - garbage;
+        byte[] compacted = new byte[Math.max(INITIAL_ARENA_SIZE, live + Math.max(extra, live / 2))];
+        int used = 0;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i] != ACTIVE) continue;
+            System.arraycopy(arena, offsets[i], compacted, used, lengths[i]);
+            offsets[i] = used;
+            used += lengths[i];
+        }
+        arena = compacted;
+        arenaUsed = used;
+        garbage = 0;
+    }
+
+    private static void checkSlice(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException("Key slice is out of bounds");
+        }
+    }
+
+    /***** UTF-8 HASHING AND COMPARISON ************/
+
+    // FNV-1a over the UTF-8 bytes, then mixed; equal to hash(CharSequence)
+    // for the same key
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (bytes[i] & 0xFF)) * 0x01000193;
+        }
+        return HashFunctions.mix(h);
+    }
+
+    private static int hash(CharSequence key) {
+        int h = 0x811C9DC5;
+        int n = key.length();
+        for (int i = 0; i < n; i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {  // ASCII fast path
+                h = (h ^ c) * 0x01000193;
+                continue;
+            }
+            int codePoint = codePointAt(key, i);
+            if (codePoint > 0xFFFF) i++;
+            int bytes = utf8Length(codePoint);
+            for (int b = 0; b < bytes; b++) {
+                h = (h ^ utf8Byte(codePoint, bytes, b)) * 0x01000193;
+            }
+        }
+        return HashFunctions.mix(h);
+    }
+
+    // does the key in slot index equal key, encoded as UTF-8?
+    private boolean equals(int index, CharSequence key) {
+        int pos = offsets[index];
+        int end = pos + lengths[index];
+        int n = key.length();
+        for (int i = 0; i < n; i++) {
+            char c = key.charAt(i);
+            if (c < 0x80) {
+                if (pos == end || arena[pos++] != c) return false;
+                continue;
+            }
+            int codePoint = codePointAt(key, i);
+            if (codePoint > 0xFFFF) i++;
+            int bytes = utf8Length(codePoint);
+            if (end - pos < bytes) return false;
+            for (int b = 0; b < bytes; b++) {
+                if ((arena[pos++] & 0xFF) != utf8Byte(codePoint, bytes, b)) return false;
+            }
+        }
+        return pos == end;
+    }
+
+    private boolean equals(int index, byte[] bytes, int offset, int length) {
+        int pos = offsets[index];
+        for (int i = 0; i < length; i++) {
+            if (arena[pos + i] != bytes[offset + i]) return false;
+        }
+        return true;
+    }
+
+    // code point starting at key[i]; an unpaired surrogate reads as '?'
+    private static int codePointAt(CharSequence key, int i) {
+        char c = key.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < key.length() && Character.isLowSurrogate(key.charAt(i + 1))) {
+            return Character.toCodePoint(c, key.charAt(i + 1));
+        }
+        return Character.isSurrogate(c) ? '?' : c;
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+
+    private static int utf8Length(CharSequence key) {
+        int length = 0;
+        int n = key.length();
+        for (int i = 0; i < n; i++) {
+            int codePoint = codePointAt(key, i);
+            if (codePoint > 0xFFFF) i++;
+            length += utf8Length(codePoint);
+        }
+        return length;
+    }
+
+    // byte b (0-based) of the bytes-long UTF-8 encoding of codePoint
+    private static int utf8Byte(int codePoint, int bytes, int b) {
+        if (bytes == 1) return codePoint;
+        if (b == 0) return (0xF00 >> bytes) & 0xFF | (codePoint >> (6 * (bytes - 1)));
+        return 0x80 | ((codePoint >> (6 * (bytes - 1 - b))) & 0x3F);
+    }
+
+    // writes key as UTF-8 into out at pos; returns the position after it
+    private static int encode(CharSequence key, byte[] out, int pos) {
+        int n = key.length();
+        for (int i = 0; i < n; i++) {
+            int codePoint = codePointAt(key, i);
+            if (codePoint > 0xFFFF) i++;
+            int bytes = utf8Length(codePoint);
+            for (int b = 0; b < bytes; b++) out[pos++] = (byte) utf8Byte(codePoint, bytes, b);
+        }
+        return pos;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return states.length;
+    }
+
+    // testing only: bytes allocated for keys, and bytes of deleted keys in it
+    public int getArenaLength() {
+        return arena.length;
+    }
+
+    public int getArenaGarbage() {
+        return garbage;
+    }
+
+    /**
+     * The keys in the table, decoded to Strings.  Unlike lookups, this
+     * allocates a String per key.
+     * @return keys of the table
+     */
+    public Iterable<String> keys() {
+        return () -> new HTIterator<String>() {
+            @Override
+            String get(int index) {
+                return new String(arena, offsets[index], lengths[index], StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator<V>() {
+            @Override
+            V get(int index) {
+                return valueAt(index);
+            }
+        };
+    }
+
+    /***** INNER CLASSES ************/
+
+    // iterator over the active slots; get picks what each slot yields
+    private abstract class HTIterator<T> implements Iterator<T> {
+
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        abstract T get(int index);
+
+        private void getNextIndex() {
+            while (index < states.length && states[index] != ACTIVE) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < states.length;
+        }
+
+        @Override
+        public T next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return get(i);
+        }
+    }
+
+}
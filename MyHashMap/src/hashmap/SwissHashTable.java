@@ -0,0 +1,284 @@
+package hashmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * HashTable in the style of Abseil's SwissTable.  Next to the key and value
+ * arrays sits one control byte per slot: the low 7 bits of the hash for a
+ * full slot, or a marker for an empty or deleted one.  Slots are probed in
+ * aligned groups of 8; the 8 control bytes of a group are read as a single
+ * long and compared with the hash fragment all at once (SWAR), so keys are
+ * only touched for slots whose fragment matches -- almost always just the
+ * right one on a hit and none on a miss.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class SwissHashTable<K, V> implements IHashTable<K, V> {
+
+    // constants for managing the table
+    private static final double LOAD_FACTOR = 0.875;
+    private static final int INITIAL_TABLE_SIZE = 16;
+    private static final int GROUP_SIZE = 8;
+
+    // control bytes; a full slot holds its 7-bit hash fragment (0..127)
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+
+    // SWAR constants
+    private static final long LSBS = 0x0101010101010101L;
+    private static final long MSBS = 0x8080808080808080L;
+
+    // reads 8 control bytes as one long, byte i of the group in bits 8i..8i+7
+    private static final VarHandle GROUP =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private byte[] ctrl;
+    private Object[] keys;
+    private Object[] values;
+
+    private int size; // number of full slots
+    private int deleted; // number of deleted slots
+    private int modcount;  // for fail-fast iterator
+
+    // constructor
+    public SwissHashTable() {
+        this(INITIAL_TABLE_SIZE);
+    }
+
+    public SwissHashTable(int tableSize) {
+        allocate(Math.max(GROUP_SIZE, HashFunctions.tableSizeFor(tableSize)));
+    }
+
+    private void allocate(int capacity) {
+        ctrl = new byte[capacity];
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        Arrays.fill(ctrl, EMPTY);
+    }
+
+    // get size of table
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // is table empty?
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        clear(INITIAL_TABLE_SIZE);
+    }
+
+    // overload for users who want to specify a starting table size
+    public void clear(int tableSize) {
+        allocate(Math.max(GROUP_SIZE, HashFunctions.tableSizeFor(tableSize)));
+        size = 0;
+        deleted = 0;
+        modcount++;
+    }
+
+    /** Add a value to the table based on a new key.  Keys must be unique.
+     * Adding an existing key will update the value associated with the key.
+     * @param key
+     * @param value
+     */
+    @Override
+    public void add(K key, V value) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int hash = HashFunctions.mix(key.hashCode());
+        int index = indexOf(key, hash);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+
+        // check load factor to see if table needs to be resized
+        if ((double) (size + deleted + 1) / ctrl.length > LOAD_FACTOR) {
+            resize();
+        }
+
+        modcount++;
+        index = findInsertSlot(hash);
+        if (ctrl[index] == DELETED) deleted--;
+        ctrl[index] = fragment(hash);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    /** Finds (gets) the value for a given key.
+     * @param key
+     * @return value if key is found in table; null otherwise.
+     */
+    @Override
+    public V find(K key) {
+        if (key == null) return null;
+        int index = indexOf(key, HashFunctions.mix(key.hashCode()));
+        return index < 0 ? null : valueAt(index);
+    }
+
+    // values holds only what add was given, so the cast is safe
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    // probes group by group; returns the slot holding key, or -1
+    private int indexOf(Object key, int hash) {
+        long pattern = LSBS * fragment(hash);
+        int groupMask = ctrl.length / GROUP_SIZE - 1;
+        int group = (hash >>> 7) & groupMask;
+
+        for (int step = 1; step <= groupMask + 1; step++) {
+            int base = group * GROUP_SIZE;
+            long word = (long) GROUP.get(ctrl, base);
+
+            for (long match = matchByte(word, pattern); match != 0; match &= match - 1) {
+                int index = base + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (key.equals(keys[index])) return index;
+            }
+
+            // a group with an empty slot ends every probe that reaches it
+            if (matchEmpty(word) != 0) return -1;
+            group = (group + step) & groupMask;  // triangular probing visits every group
+        }
+        return -1;
+    }
+
+    // first empty or deleted slot along the probe sequence of hash
+    private int findInsertSlot(int hash) {
+        int groupMask = ctrl.length / GROUP_SIZE - 1;
+        int group = (hash >>> 7) & groupMask;
+
+        for (int step = 1; ; step++) {
+            int base = group * GROUP_SIZE;
+            long free = (long) GROUP.get(ctrl, base) & MSBS;  // empty and deleted have the high bit set
+            if (free != 0) return base + (Long.numberOfTrailingZeros(free) >>> 3);
+            group = (group + step) & groupMask;
+        }
+    }
+
+    // high bit of each byte of word that equals the pattern byte.  May also
+    // flag a byte just above a true match; callers verify the key anyway.
+    private static long matchByte(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - LSBS) & ~x & MSBS;
+    }
+
+    // high bit of each EMPTY byte (0x80: high bit set, bit 1 clear)
+    private static long matchEmpty(long word) {
+        return word & ~(word << 6) & MSBS;
+    }
+
+    private static byte fragment(int hash) {
+        return (byte) (hash & 0x7F);
+    }
+
+    // grows the table, or rehashes at the same length when most of the
+    // used slots are deleted ones
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldCtrl = ctrl;
+
+        int capacity = (size + 1 > ctrl.length * LOAD_FACTOR / 2) ? ctrl.length * 2 : ctrl.length;
+        allocate(capacity);
+        deleted = 0;
+
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) {
+                int hash = HashFunctions.mix(oldKeys[i].hashCode());
+                int index = findInsertSlot(hash);
+                ctrl[index] = fragment(hash);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+        modcount++;
+    }
+
+    /**
+     * Removes the value associated with the key from the table.  The slot
+     * becomes empty again if its group already has an empty slot (no probe
+     * can run past such a group); otherwise it is marked deleted.
+     * @param key
+     */
+    @Override
+    public void delete(K key) {
+
+        // check key isn't null
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+
+        int index = indexOf(key, HashFunctions.mix(key.hashCode()));
+        if (index < 0) return;
+
+        int base = index & ~(GROUP_SIZE - 1);
+        if (matchEmpty((long) GROUP.get(ctrl, base)) != 0) {
+            ctrl[index] = EMPTY;
+        } else {
+            ctrl[index] = DELETED;
+            deleted++;
+        }
+        keys[index] = null;
+        values[index] = null;
+        size--;
+        modcount++;
+    }
+
+    // testing only
+    public int getTableLength() {
+        return ctrl.length;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new HTIterator();
+    }
+
+    /***** INNER CLASSES ************/
+
+    // iterator over values in the table
+    private class HTIterator implements Iterator<V> {
+
+        private int index;
+        private int origcount;
+
+        public HTIterator() {
+            origcount = modcount;
+            getNextIndex();
+        }
+
+        private void getNextIndex() {
+            while (index < ctrl.length && ctrl[index] < 0) index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < ctrl.length;
+        }
+
+        @Override
+        public V next() {
+            if (origcount != modcount) throw new ConcurrentModificationException("Cannot modify data during iteration");
+            if (!hasNext()) throw new NoSuchElementException();
+            int i = index;
+            index++;
+            getNextIndex();
+            return valueAt(i);
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package hashmap;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the current version of a PersistentHashMap for a set of readers and
+ * writers.  Readers take the current version with a single volatile read
+ * and never lock or wait; a version they hold never changes under them.
+ * Writers build a new version from the current one and publish it with a
+ * compare-and-set, retrying if another writer published first, so
+ * publishing never copies the map.
+ * @param <K> key  (for example, flight numbers)
+ * @param <V> value  (for example, flight data)
+ */
+public class VersionedHashMap<K, V> {
+
+    private final AtomicReference<PersistentHashMap<K, V>> current;
+
+    // constructor
+    public VersionedHashMap() {
+        this(PersistentHashMap.<K, V>empty());
+    }
+
+    public VersionedHashMap(PersistentHashMap<K, V> initial) {
+        if (initial == null) throw new IllegalArgumentException("Version cannot be null");
+        current = new AtomicReference<>(initial);
+    }
+
+    // the current version; read it once and use it for a consistent view
+    public PersistentHashMap<K, V> current() {
+        return current.get();
+    }
+
+    // finds key in the current version
+    public V find(K key) {
+        return current.get().find(key);
+    }
+
+    // size of the current version
+    public int size() {
+        return current.get().size();
+    }
+
+    /** Publishes a version with key mapped to value.
+     * @param key
+     * @param value
+     */
+    public void add(K key, V value) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        update(map -> map.add(key, value));
+    }
+
+    /** Publishes a version without key.
+     * @param key
+     */
+    public void delete(K key) {
+        if (key == null) throw new IllegalArgumentException("Key cannot be null");
+        update(map -> map.delete(key));
+    }
+
+    /**
+     * Publishes change(current) as the new version, applying change again
+     * to the newer version if another writer published in the meantime.
+     * change may run more than once, so it must have no side effects.
+     * Batching many updates into one change publishes them together.
+     * @param change
+     * @return the published version
+     */
+    public PersistentHashMap<K, V> update(UnaryOperator<PersistentHashMap<K, V>> change) {
+        while (true) {
+            PersistentHashMap<K, V> version = current.get();
+            PersistentHashMap<K, V> next = change.apply(version);
+            if (next == null) throw new IllegalArgumentException("Version cannot be null");
+            if (next == version || current.compareAndSet(version, next)) return next;
+        }
+    }
+
+    /**
+     * Replaces the current version outright, for a writer that built the
+     * next version on its own.
+     * @param version
+     */
+    public void publish(PersistentHashMap<K, V> version) {
+        if (version == null) throw new IllegalArgumentException("Version cannot be null");
+        current.set(version);
+    }
+
+    // publishes version only if expected is still current
+    public boolean compareAndPublish(PersistentHashMap<K, V> expected, PersistentHashMap<K, V> version) {
+        if (version == null) throw new IllegalArgumentException("Version cannot be null");
+        return current.compareAndSet(expected, version);
+    }
+
+}
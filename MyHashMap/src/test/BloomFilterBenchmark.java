@@ -0,0 +1,59 @@
+package test;
+
+import java.util.Random;
+import hashmap.BloomFilter;
+import hashmap.LPHashTable;
+
+/**
+ * find time for LPHashTable with and without a Bloom filter, on a workload
+ * of 60% misses.  The default 1.45M keys fill 2^21 slots to just under the
+ * load factor; then a third of the keys are deleted with compaction off, so
+ * misses probe through long runs of tombstones as they would in a table
+ * with heavy churn.  (In a half-empty table misses end quickly anyway and
+ * the filter's extra hash and cache line roughly cancel out.)
+ * Usage: BloomFilterBenchmark [keys] [lookups]
+ */
+public class BloomFilterBenchmark {
+
+    private static final double MISS_FRACTION = 0.6;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1450000;
+        int lookups = (args.length > 1) ? Integer.parseInt(args[1]) : 5000000;
+
+        Random random = new Random(7);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) keys[i] = random.nextInt() & ~1;  // even keys are inserted
+        Integer[] probes = new Integer[lookups];
+        for (int i = 0; i < lookups; i++) {
+            probes[i] = (random.nextDouble() < MISS_FRACTION) ? random.nextInt() | 1 : keys[random.nextInt(n)];
+        }
+
+        System.out.printf("%-14s %8s %10s %12s %12s%n", "filter", "ns/find", "found", "rejected", "false pos");
+        for (int round = 0; round < 3; round++) {  // first round is warm-up
+            boolean print = round > 0;
+            run(print, "none", 0, keys, probes);
+            run(print, "1%", 0.01, keys, probes);
+            run(print, "0.1%", 0.001, keys, probes);
+        }
+    }
+
+    private static void run(boolean print, String name, double rate, Integer[] keys, Integer[] probes) {
+        LPHashTable<Integer, Integer> table = new LPHashTable<>(16, true);
+        table.setCompactionThreshold(1);
+        for (Integer key : keys) table.add(key, key);
+        for (int i = 0; i < keys.length; i += 3) table.delete(keys[i]);
+        BloomFilter filter = (rate > 0) ? table.enableBloomFilter(rate) : null;
+
+        long start = System.nanoTime();
+        int found = 0;
+        for (Integer probe : probes) {
+            if (table.find(probe) != null) found++;
+        }
+        long nanos = System.nanoTime() - start;
+        if (print) {
+            System.out.printf("%-14s %8.1f %10d %12d %12d%n", name, (double) nanos / probes.length, found,
+                    (filter == null) ? 0 : filter.getRejections(), (filter == null) ? 0 : filter.getFalsePositives());
+        }
+    }
+}
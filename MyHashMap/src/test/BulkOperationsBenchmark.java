@@ -0,0 +1,83 @@
+package test;
+
+import java.util.Random;
+import hashmap.LPHashTable;
+
+/**
+ * Compares the bulk operations of LPHashTable with looped single calls:
+ * addAll against add, findAll against find (hits and misses).
+ * Usage: BulkOperationsBenchmark [numKeys]
+ */
+public class BulkOperationsBenchmark {
+
+    private static final int ROUNDS = 5;
+    private static final int BATCH_SIZE = 1024;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+
+        Random random = new Random(2017);
+        Integer[] keys = new Integer[n];
+        Integer[] values = new Integer[n];
+        Integer[] probes = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextInt();
+            values[i] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            probes[i] = (i % 2 == 0) ? keys[random.nextInt(n)] : random.nextInt();  // ~half misses
+        }
+
+        // lookups arrive in request-sized batches
+        Integer[][] batches = new Integer[(n + BATCH_SIZE - 1) / BATCH_SIZE][];
+        Integer[][] batchResults = new Integer[batches.length][];
+        for (int b = 0; b < batches.length; b++) {
+            int length = Math.min(BATCH_SIZE, n - b * BATCH_SIZE);
+            batches[b] = new Integer[length];
+            batchResults[b] = new Integer[length];
+            System.arraycopy(probes, b * BATCH_SIZE, batches[b], 0, length);
+        }
+
+        long loopAdd = Long.MAX_VALUE;
+        long bulkAdd = Long.MAX_VALUE;
+        long loopFind = Long.MAX_VALUE;
+        long bulkFind = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            LPHashTable<Integer, Integer> looped = new LPHashTable<>(7, true);
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++) looped.add(keys[i], values[i]);
+            loopAdd = Math.min(loopAdd, System.nanoTime() - start);
+
+            LPHashTable<Integer, Integer> bulk = new LPHashTable<>(7, true);
+            start = System.nanoTime();
+            bulk.addAll(keys, values);
+            bulkAdd = Math.min(bulkAdd, System.nanoTime() - start);
+
+            Integer[] results = new Integer[n];
+            int found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                results[i] = bulk.find(probes[i]);
+                if (results[i] != null) found++;
+            }
+            loopFind = Math.min(loopFind, System.nanoTime() - start);
+
+            int batchFound = 0;
+            start = System.nanoTime();
+            for (int b = 0; b < batches.length; b++) {
+                batchFound += bulk.findAll(batches[b], batchResults[b]);
+            }
+            bulkFind = Math.min(bulkFind, System.nanoTime() - start);
+
+            if (found != batchFound || looped.size() != bulk.size()) {
+                System.out.println("Mismatch: " + found + " vs " + batchFound);
+            }
+        }
+
+        System.out.printf("%-22s %10s%n", "operation", "ns/op");
+        System.out.printf("%-22s %10.1f%n", "add (looped)", (double) loopAdd / n);
+        System.out.printf("%-22s %10.1f%n", "addAll", (double) bulkAdd / n);
+        System.out.printf("%-22s %10.1f%n", "find (looped)", (double) loopFind / n);
+        System.out.printf("%-22s %10.1f%n", "findAll", (double) bulkFind / n);
+    }
+}
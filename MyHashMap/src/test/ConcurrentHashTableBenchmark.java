@@ -0,0 +1,87 @@
+package test;
+
+import java.util.Iterator;
+import java.util.concurrent.ThreadLocalRandom;
+import hashmap.ConcurrentLPHashTable;
+import hashmap.IHashTable;
+import hashmap.LPHashTable;
+
+/**
+ * Throughput of a read-mostly workload (find with a few percent add/delete)
+ * against one shared table, for a globally locked LPHashTable and for
+ * ConcurrentLPHashTable, at increasing thread counts.
+ * Usage: ConcurrentHashTableBenchmark [numKeys] [writePercent] [millisPerRun]
+ */
+public class ConcurrentHashTableBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        int writePercent = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+        long millis = (args.length > 2) ? Long.parseLong(args[2]) : 1000;
+
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) keys[i] = i * 7 + 1000;
+
+        System.out.printf("%-8s %22s %22s%n", "threads", "locked LPHashTable", "ConcurrentLPHashTable");
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(16, cores); threads *= 2) {
+            double locked = run(new LockedTable<>(new LPHashTable<>()), keys, threads, writePercent, millis);
+            double concurrent = run(new ConcurrentLPHashTable<>(), keys, threads, writePercent, millis);
+            System.out.printf("%-8d %16.1f Mop/s %16.1f Mop/s%n", threads, locked, concurrent);
+        }
+    }
+
+    // returns millions of operations per second over all threads
+    private static double run(IHashTable<Integer, Integer> table, Integer[] keys, int threads,
+                              int writePercent, long millis) throws InterruptedException {
+        for (Integer key : keys) table.add(key, key);
+
+        final long[] counts = new long[threads];
+        final long deadline = System.nanoTime() + millis * 1000000L;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                while ((ops & 1023) != 0 || System.nanoTime() < deadline) {
+                    Integer key = keys[random.nextInt(keys.length)];
+                    int dice = random.nextInt(100);
+                    if (dice < writePercent / 2) {
+                        table.delete(key);
+                    } else if (dice < writePercent) {
+                        table.add(key, key);
+                    } else {
+                        table.find(key);
+                    }
+                    ops++;
+                }
+                counts[id] = ops;
+            });
+        }
+        for (Thread worker : workers) worker.start();
+        for (Thread worker : workers) worker.join();
+
+        long total = 0;
+        for (long count : counts) total += count;
+        return total / (millis * 1000.0);
+    }
+
+    // the current practice: every call goes through one lock
+    private static class LockedTable<K, V> implements IHashTable<K, V> {
+
+        private final LPHashTable<K, V> table;
+
+        LockedTable(LPHashTable<K, V> table) {
+            this.table = table;
+        }
+
+        public synchronized void add(K key, V value) { table.add(key, value); }
+        public synchronized V find(K key) { return table.find(key); }
+        public synchronized void delete(K key) { table.delete(key); }
+        public synchronized int size() { return table.size(); }
+        public synchronized boolean isEmpty() { return table.isEmpty(); }
+        public synchronized void clear() { table.clear(); }
+        public Iterator<V> iterator() { return table.iterator(); }
+    }
+}
@@ -0,0 +1,82 @@
+package test;
+
+import java.util.Arrays;
+import java.util.Random;
+import hashmap.CuckooHashTable;
+import hashmap.IHashTable;
+import hashmap.LPHashTable;
+import hashmap.SwissHashTable;
+
+/**
+ * Tail latency of find at load factors from 0.5 to 0.95 for CuckooHashTable
+ * against LPHashTable (power-of-two mode) and SwissHashTable.  Each table
+ * is presized to the same number of slots and filled to the load factor;
+ * tables whose own load limit is lower are skipped at that load.  Every
+ * find is timed on its own (half hits, half misses), so the percentiles
+ * include about 20ns of timer overhead.
+ * Usage: CuckooLatencyBenchmark [log2 of slots] [lookups]
+ */
+public class CuckooLatencyBenchmark {
+
+    private static final double[] LOAD_FACTORS = {0.5, 0.6, 0.7, 0.8, 0.9, 0.95};
+
+    public static void main(String[] args) {
+        int slots = 1 << ((args.length > 0) ? Integer.parseInt(args[0]) : 20);
+        int lookups = (args.length > 1) ? Integer.parseInt(args[1]) : 2000000;
+
+        System.out.printf("%-6s %-20s %8s %8s %8s %8s %10s%n",
+                "load", "table", "p50 ns", "p99 ns", "p99.9 ns", "max ns", "max probe");
+        for (int round = 0; round < 2; round++) {  // first round is warm-up
+            for (double load : LOAD_FACTORS) {
+                int n = (int) (slots * load);
+                Random random = new Random(11);
+                Integer[] keys = new Integer[n];
+                for (int i = 0; i < n; i++) keys[i] = random.nextInt();
+                Integer[] probes = new Integer[lookups];
+                for (int i = 0; i < lookups; i++) {
+                    probes[i] = (i % 2 == 0) ? keys[random.nextInt(n)] : random.nextInt();
+                }
+
+                boolean print = round == 1;
+                run(print, load, "CuckooHashTable", new CuckooHashTable<>(slots, 0.99), keys, probes);
+                if (load < 0.7) run(print, load, "LPHashTable (pow2)", new LPHashTable<>(slots, true), keys, probes);
+                if (load < 0.875) run(print, load, "SwissHashTable", new SwissHashTable<>(slots), keys, probes);
+            }
+        }
+    }
+
+    private static void run(boolean print, double load, String name, IHashTable<Integer, Integer> table,
+                            Integer[] keys, Integer[] probes) {
+        for (Integer key : keys) table.add(key, key);
+
+        long[] nanos = new long[probes.length];
+        int found = 0;
+        for (int i = 0; i < probes.length; i++) {
+            long start = System.nanoTime();
+            Integer value = table.find(probes[i]);
+            nanos[i] = System.nanoTime() - start;
+            if (value != null) found++;
+        }
+        Arrays.sort(nanos);
+
+        // slots read by the longest probe; cuckoo reads at most two buckets
+        String maxProbe = "-";
+        if (table instanceof CuckooHashTable) {
+            maxProbe = (((CuckooHashTable<Integer, Integer>) table).getStashSize() > 0) ? "2 buckets+stash" : "2 buckets";
+        } else if (table instanceof LPHashTable) {
+            int max = 0;
+            for (Integer key : probes) max = Math.max(max, ((LPHashTable<Integer, Integer>) table).getProbeCount(key));
+            maxProbe = max + " slots";
+        }
+
+        if (print) {
+            System.out.printf("%-6.2f %-20s %8d %8d %8d %8d %10s   (found %d)%n", load, name,
+                    percentile(nanos, 0.5), percentile(nanos, 0.99), percentile(nanos, 0.999),
+                    nanos[nanos.length - 1], maxProbe, found);
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, p * sorted.length)];
+    }
+}
@@ -0,0 +1,123 @@
+package test;
+
+import hashmap.LPHashTable;
+import hashmap.MyHashMap;
+
+/**
+ * Compares the modulo table (lengths 7, 14, 28, ...) with the power-of-two
+ * table (mixed hash, masked probing) for sequential, clustered and strided
+ * integer keys, with the chained MyHashMap alongside.  Reports average/max
+ * probe count per successful find (slots, or chain/tree nodes for
+ * MyHashMap) and ns/op for add and find.
+ * Usage: HashIndexBenchmark [numKeys]
+ */
+public class HashIndexBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+
+        int[][] keySets = {sequentialKeys(n), flightNumberKeys(n), stridedKeys(n)};
+        String[] names = {"sequential", "flight numbers", "stride 1024"};
+
+        System.out.printf("%-16s %-22s %10s %10s %10s %10s%n",
+                "keys", "table", "avg probe", "max probe", "add ns/op", "find ns/op");
+        for (int k = 0; k < keySets.length; k++) {
+            Integer[] keys = box(keySets[k]);
+            runLPHashTable(names[k], "LPHashTable modulo", keys, false);
+            runLPHashTable(names[k], "LPHashTable pow2", keys, true);
+            runMyHashMap(names[k], "MyHashMap chained", keys);
+        }
+    }
+
+    private static void runLPHashTable(String keyName, String tableName, Integer[] keys, boolean powerOfTwo) {
+        LPHashTable<Integer, Integer> table = null;
+        long addNanos = 0;
+        long findNanos = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            table = new LPHashTable<>(7, powerOfTwo);
+            long start = System.nanoTime();
+            for (Integer key : keys) table.add(key, key);
+            addNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (Integer key : keys) sum += table.find(key);
+            findNanos = System.nanoTime() - start;
+            if (sum == 42) System.out.println();  // keep the loop alive
+        }
+
+        long probes = 0;
+        int maxProbes = 0;
+        for (Integer key : keys) {
+            int p = table.getProbeCount(key);
+            probes += p;
+            maxProbes = Math.max(maxProbes, p);
+        }
+        report(keyName, tableName, keys.length, probes, maxProbes, addNanos, findNanos);
+    }
+
+    // MyHashMap is presized to a load of 0.5 or less, so no resizes are timed
+    private static void runMyHashMap(String keyName, String tableName, Integer[] keys) {
+        MyHashMap<Integer, Integer> table = null;
+        long addNanos = 0;
+        long findNanos = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            table = new MyHashMap<>(keys.length * 2);
+            long start = System.nanoTime();
+            for (Integer key : keys) table.add(key, key);
+            addNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (Integer key : keys) sum += table.find(key);
+            findNanos = System.nanoTime() - start;
+            if (sum == 42) System.out.println();
+        }
+
+        long probes = 0;
+        int maxProbes = 0;
+        for (Integer key : keys) {
+            int p = table.getProbeCount(key);
+            probes += p;
+            maxProbes = Math.max(maxProbes, p);
+        }
+        report(keyName, tableName, keys.length, probes, maxProbes, addNanos, findNanos);
+    }
+
+    private static void report(String keyName, String tableName, int n, long probes, int maxProbes,
+                               long addNanos, long findNanos) {
+        System.out.printf("%-16s %-22s %10.2f %10d %10.1f %10.1f%n", keyName, tableName,
+                (double) probes / n, maxProbes, (double) addNanos / n, (double) findNanos / n);
+    }
+
+    private static int[] sequentialKeys(int n) {
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) keys[i] = i;
+        return keys;
+    }
+
+    // carrier code in the high digits, flight number in the low digits
+    private static int[] flightNumberKeys(int n) {
+        int carriers = 40;
+        int perCarrier = (n + carriers - 1) / carriers;
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = (i / perCarrier) * 100000 + (i % perCarrier) + 1;
+        }
+        return keys;
+    }
+
+    private static int[] stridedKeys(int n) {
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) keys[i] = i * 1024;
+        return keys;
+    }
+
+    private static Integer[] box(int[] keys) {
+        Integer[] boxed = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) boxed[i] = keys[i];
+        return boxed;
+    }
+}
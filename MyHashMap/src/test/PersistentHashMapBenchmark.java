@@ -0,0 +1,63 @@
+package test;
+
+import hashmap.LPHashTable;
+import hashmap.PersistentHashMap;
+
+/**
+ * Compares publishing a new version of a flight table by copying an
+ * LPHashTable with publishing one through PersistentHashMap, for a batch
+ * of updates, and the lookup cost of each.
+ * Usage: PersistentHashMapBenchmark [numKeys] [updatesPerVersion]
+ */
+public class PersistentHashMapBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        int updates = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+
+        LPHashTable<Integer, Integer> table = new LPHashTable<>(7, true);
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int flightNo = 0; flightNo < n; flightNo++) {
+            table.add(flightNo, flightNo);
+            map = map.add(flightNo, flightNo);
+        }
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            boolean print = round == WARMUP_ROUNDS;
+
+            // copy the whole table, then apply the batch to the copy
+            long start = System.nanoTime();
+            LPHashTable<Integer, Integer> copy = new LPHashTable<>(7, true);
+            copy.ensureCapacity(table.size());
+            table.forEach(copy::add);
+            for (int i = 0; i < updates; i++) copy.add(i * 997 % n, -i);
+            long copyNanos = System.nanoTime() - start;
+
+            // apply the batch to a new persistent version
+            start = System.nanoTime();
+            PersistentHashMap<Integer, Integer> version = map;
+            for (int i = 0; i < updates; i++) version = version.add(i * 997 % n, -i);
+            long persistentNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long sum = 0;
+            for (int flightNo = 0; flightNo < n; flightNo++) sum += table.find(flightNo);
+            long tableFindNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int flightNo = 0; flightNo < n; flightNo++) sum += version.find(flightNo);
+            long persistentFindNanos = System.nanoTime() - start;
+
+            if (print) {
+                System.out.printf("%d flights, %d updates per version%n", n, updates);
+                System.out.printf("%-20s %10.2f ms per version %8.1f ns/find%n", "LPHashTable copy",
+                        copyNanos / 1e6, (double) tableFindNanos / n);
+                System.out.printf("%-20s %10.2f ms per version %8.1f ns/find%n", "PersistentHashMap",
+                        persistentNanos / 1e6, (double) persistentFindNanos / n);
+                if (sum == 42) System.out.println();
+            }
+        }
+    }
+}
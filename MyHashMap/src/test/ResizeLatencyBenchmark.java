@@ -0,0 +1,54 @@
+package test;
+
+import java.util.Arrays;
+import hashmap.IHashTable;
+import hashmap.IncrementalLPHashTable;
+import hashmap.LPHashTable;
+
+/**
+ * Per-call latency of add (and of find, interleaved) while a table grows
+ * from empty, for LPHashTable (whole-table resize inside one add) and
+ * IncrementalLPHashTable (bounded migration per call).
+ * Usage: ResizeLatencyBenchmark [numKeys]
+ */
+public class ResizeLatencyBenchmark {
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) keys[i] = i * 31 + 7;
+
+        System.out.printf("%-24s %-5s %10s %10s %10s %12s%n", "table", "op", "p50 ns", "p99 ns", "p99.9 ns", "max ns");
+        for (int round = 0; round < 2; round++) {  // first round is warm-up
+            boolean print = round == 1;
+            run(print, "LPHashTable", new LPHashTable<>(), keys);
+            run(print, "IncrementalLPHashTable", new IncrementalLPHashTable<>(), keys);
+        }
+    }
+
+    private static void run(boolean print, String name, IHashTable<Integer, Integer> table, Integer[] keys) {
+        long[] addNanos = new long[keys.length];
+        long[] findNanos = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            table.add(keys[i], i);
+            long mid = System.nanoTime();
+            table.find(keys[i >>> 1]);
+            long end = System.nanoTime();
+            addNanos[i] = mid - start;
+            findNanos[i] = end - mid;
+        }
+        if (print) {
+            report(name, "add", addNanos);
+            report(name, "find", findNanos);
+        }
+    }
+
+    private static void report(String name, String op, long[] nanos) {
+        Arrays.sort(nanos);
+        System.out.printf("%-24s %-5s %10d %10d %10d %12d%n", name, op,
+                nanos[nanos.length / 2], nanos[(int) (nanos.length * 0.99)],
+                nanos[(int) (nanos.length * 0.999)], nanos[nanos.length - 1]);
+    }
+}
@@ -0,0 +1,73 @@
+package test;
+
+import hashmap.LPHashTable;
+import hashmap.SnapshotCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+
+/**
+ * Times saving and restoring a table of flights with the LPHashTable
+ * snapshot format, against Java serialization of an equivalent
+ * java.util.HashMap and against rebuilding the table with add.
+ * Usage: SnapshotBenchmark [numKeys]
+ */
+public class SnapshotBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+
+        LPHashTable<Integer, String> table = new LPHashTable<>(7, true);
+        HashMap<Integer, String> map = new HashMap<>();
+        for (int flightNo = 0; flightNo < n; flightNo++) {
+            table.add(flightNo, "Flight #" + flightNo);
+            map.put(flightNo, "Flight #" + flightNo);
+        }
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            boolean print = round == WARMUP_ROUNDS;
+
+            long start = System.nanoTime();
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            table.writeTo(snapshot, SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            long writeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            LPHashTable<Integer, String> restored = LPHashTable.readFrom(
+                    new ByteArrayInputStream(snapshot.toByteArray()), SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            long readNanos = System.nanoTime() - start;
+            if (print) report("snapshot", snapshot.size(), writeNanos, readNanos, restored.size());
+
+            start = System.nanoTime();
+            ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+                out.writeObject(map);
+            }
+            writeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            HashMap<?, ?> deserialized;
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized.toByteArray()))) {
+                deserialized = (HashMap<?, ?>) in.readObject();
+            }
+            readNanos = System.nanoTime() - start;
+            if (print) report("serialization", serialized.size(), writeNanos, readNanos, deserialized.size());
+
+            start = System.nanoTime();
+            LPHashTable<Integer, String> rebuilt = new LPHashTable<>(7, true);
+            for (int flightNo = 0; flightNo < n; flightNo++) rebuilt.add(flightNo, "Flight #" + flightNo);
+            if (print) report("rebuild with add", 0, 0, System.nanoTime() - start, rebuilt.size());
+        }
+    }
+
+    private static void report(String name, int bytes, long writeNanos, long readNanos, int size) {
+        System.out.printf("%-18s %12d bytes %10.1f ms write %10.1f ms read  (%d entries)%n",
+                name, bytes, writeNanos / 1e6, readNanos / 1e6, size);
+    }
+}
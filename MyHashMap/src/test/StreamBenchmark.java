@@ -0,0 +1,57 @@
+package test;
+
+import hashmap.LPHashTable;
+
+import java.util.Map;
+
+/**
+ * Sums the values of a table of flights by the value iterator, the entry
+ * iterator, forEach, a sequential stream and a parallel stream, to compare
+ * the traversal styles and show how the slot-range spliterator scales with
+ * the number of cores.
+ * Usage: StreamBenchmark [numKeys]
+ */
+public class StreamBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 2000000;
+
+        LPHashTable<Integer, Long> table = new LPHashTable<>(7, true);
+        for (int flightNo = 0; flightNo < n; flightNo++) table.add(flightNo, (long) flightNo);
+        System.out.println("Flights: " + n + ", cores: " + Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            boolean print = round == WARMUP_ROUNDS;
+
+            long start = System.nanoTime();
+            long sum = 0;
+            for (Long value : table) sum += value;
+            report(print, "value iterator", start, n, sum);
+
+            start = System.nanoTime();
+            sum = 0;
+            for (Map.Entry<Integer, Long> entry : table.entries()) sum += entry.getValue();
+            report(print, "entry iterator", start, n, sum);
+
+            start = System.nanoTime();
+            long[] total = new long[1];
+            table.forEach((key, value) -> total[0] += value);
+            report(print, "forEach", start, n, total[0]);
+
+            start = System.nanoTime();
+            sum = table.stream().mapToLong(Long::longValue).sum();
+            report(print, "stream", start, n, sum);
+
+            start = System.nanoTime();
+            sum = table.stream().parallel().mapToLong(Long::longValue).sum();
+            report(print, "parallel stream", start, n, sum);
+        }
+    }
+
+    private static void report(boolean print, String name, long start, int n, long sum) {
+        long nanos = System.nanoTime() - start;
+        if (print) System.out.printf("%-16s %8.2f ns/entry  (sum %d)%n", name, (double) nanos / n, sum);
+    }
+}
@@ -0,0 +1,76 @@
+package test;
+
+import hashmap.LPHashTable;
+import hashmap.StringKeyHashTable;
+
+/**
+ * Heap retained by, and find time of, StringKeyHashTable against
+ * LPHashTable<String, V> holding the same short flight codes.  The heap
+ * figure is the growth in used heap after a full GC, so it includes the
+ * key Strings for LPHashTable and the arena for StringKeyHashTable.  Lookups
+ * go through one reused StringBuilder, which only StringKeyHashTable can
+ * accept without copying to a String first.
+ * Usage: StringKeyBenchmark [keys]
+ */
+public class StringKeyBenchmark {
+
+    private static Object keep;  // stops a table from being collected while measured
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        Integer value = 42;
+
+        long before = usedHeap();
+        LPHashTable<String, Integer> lpTable = new LPHashTable<>(16, true);
+        for (int i = 0; i < n; i++) lpTable.add(TestStringKeyHashTable.flightCode(i), value);
+        keep = lpTable;
+        long lpBytes = usedHeap() - before;
+        System.out.printf("%-20s %8.1f bytes/entry%n", "LPHashTable<String>", (double) lpBytes / n);
+
+        lpTable = null;
+        keep = null;
+        before = usedHeap();
+        StringKeyHashTable<Integer> skTable = new StringKeyHashTable<>();
+        for (int i = 0; i < n; i++) skTable.add(TestStringKeyHashTable.flightCode(i), value);
+        keep = skTable;
+        long skBytes = usedHeap() - before;
+        System.out.printf("%-20s %8.1f bytes/entry%n", "StringKeyHashTable", (double) skBytes / n);
+
+        lpTable = new LPHashTable<>(16, true);
+        for (int i = 0; i < n; i++) lpTable.add(TestStringKeyHashTable.flightCode(i), value);
+
+        StringBuilder code = new StringBuilder();
+        for (int round = 0; round < 5; round++) {  // first rounds are warm-up
+            long start = System.nanoTime();
+            int found = 0;
+            for (int i = 0; i < n; i++) {
+                setFlightCode(code, i);
+                if (lpTable.find(code.toString()) != null) found++;
+            }
+            long lpNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                setFlightCode(code, i);
+                if (skTable.find(code) != null) found++;
+            }
+            long skNanos = System.nanoTime() - start;
+            if (round >= 2) {
+                System.out.printf("find: LPHashTable %5.1f ns, StringKeyHashTable %5.1f ns  (%d found)%n",
+                        (double) lpNanos / n, (double) skNanos / n, found);
+            }
+        }
+    }
+
+    // the same code as TestStringKeyHashTable.flightCode, built in place
+    private static void setFlightCode(StringBuilder code, int n) {
+        code.setLength(0);
+        code.append((char) ('A' + n % 26)).append((char) ('A' + (n / 26) % 26)).append(1000 + n / 676);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
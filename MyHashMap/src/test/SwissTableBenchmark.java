@@ -0,0 +1,72 @@
+package test;
+
+import java.util.Random;
+import hashmap.IHashTable;
+import hashmap.LPHashTable;
+import hashmap.RobinHoodHashTable;
+import hashmap.SwissHashTable;
+
+/**
+ * find throughput of SwissHashTable against the linear probing tables on a
+ * hit-heavy workload (every key present) and a miss-heavy one (10% present),
+ * after churn that leaves tombstones behind.
+ * Usage: SwissTableBenchmark [numKeys]
+ */
+public class SwissTableBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+
+        Random random = new Random(7);
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) keys[i] = random.nextInt();
+        Integer[] hits = new Integer[n];
+        Integer[] misses = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            hits[i] = keys[random.nextInt(n)];
+            misses[i] = (i % 10 == 0) ? keys[random.nextInt(n)] : random.nextInt();
+        }
+
+        System.out.printf("%-22s %12s %12s %12s%n", "table", "add ns/op", "hit ns/op", "miss ns/op");
+        for (int round = 0; round < 2; round++) {  // first round is warm-up
+            run(round == 1, "LPHashTable (pow2)", new LPHashTable<>(7, true), keys, hits, misses);
+            run(round == 1, "RobinHoodHashTable", new RobinHoodHashTable<>(), keys, hits, misses);
+            run(round == 1, "SwissHashTable", new SwissHashTable<>(), keys, hits, misses);
+        }
+    }
+
+    private static void run(boolean print, String name, IHashTable<Integer, Integer> table,
+                            Integer[] keys, Integer[] hits, Integer[] misses) {
+        long start = System.nanoTime();
+        for (Integer key : keys) table.add(key, key);
+        long addNanos = System.nanoTime() - start;
+
+        // churn: delete and re-add a tenth of the keys
+        for (int i = 0; i < keys.length; i += 10) table.delete(keys[i]);
+        for (int i = 0; i < keys.length; i += 10) table.add(keys[i], keys[i]);
+
+        long hitNanos = Long.MAX_VALUE;
+        long missNanos = Long.MAX_VALUE;
+        int found = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            start = System.nanoTime();
+            for (Integer key : hits) {
+                if (table.find(key) != null) found++;
+            }
+            hitNanos = Math.min(hitNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (Integer key : misses) {
+                if (table.find(key) != null) found++;
+            }
+            missNanos = Math.min(missNanos, System.nanoTime() - start);
+        }
+
+        if (print) {
+            System.out.printf("%-22s %12.1f %12.1f %12.1f   (found %d)%n", name, (double) addNanos / keys.length,
+                    (double) hitNanos / hits.length, (double) missNanos / misses.length, found);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package test;
+
+import hashmap.ClockCache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestClockCache {
+
+    public static void main(String[] args) throws InterruptedException {
+        ClockCache<Integer, String> cache = new ClockCache<>(1000);
+
+        // fill past the bound; the hot flights are read between adds so the
+        // clock gives them a second chance
+        for (int flightNo = 1; flightNo <= 5000; flightNo++) {
+            cache.add(flightNo, "Flight #" + flightNo);
+            for (int hot = 1; hot <= 10; hot++) cache.find(hot);
+        }
+        int hotCached = 0;
+        for (int hot = 1; hot <= 10; hot++) {
+            if (("Flight #" + hot).equals(cache.find(hot))) hotCached++;
+        }
+        System.out.println("Cache size: " + cache.size() + " (bound 1000)");
+        System.out.println("Evictions: " + cache.getEvictionCount());
+        System.out.println("Hot flights still cached: " + hotCached + " of 10");
+
+        // weight-bounded: the weigher estimates bytes per entry
+        ClockCache<Integer, String> byBytes = new ClockCache<>(10000, (key, value) -> 16 + 2L * value.length());
+        for (int flightNo = 1; flightNo <= 5000; flightNo++) {
+            byBytes.add(flightNo, "Flight #" + flightNo);
+        }
+        System.out.println("Weighted cache: " + byBytes.size() + " entries, " + byBytes.weight() + " bytes (bound 10000)");
+
+        // time to live
+        ClockCache<Integer, String> expiring = new ClockCache<>(100);
+        expiring.setTimeToLive(50, TimeUnit.MILLISECONDS);
+        expiring.add(1, "Flight #1");
+        String beforeExpiry = expiring.find(1);
+        Thread.sleep(100);
+        String afterExpiry = expiring.find(1);
+        System.out.println("Before expiry: " + beforeExpiry + ", after expiry: " + afterExpiry
+                + ", expirations: " + expiring.getExpirationCount());
+
+        // turning expiry on leaves entries that were added before alone
+        ClockCache<Integer, String> later = new ClockCache<>(100);
+        later.add(1, "Flight #1");
+        later.setTimeToLive(1, TimeUnit.HOURS);
+        System.out.println("Added before time to live: " + later.find(1)
+                + ", expirations: " + later.getExpirationCount());
+
+        // loader: concurrent misses on the same key share one load
+        ClockCache<Integer, String> loaded = new ClockCache<>(100);
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        String[] results = new String[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                results[id] = loaded.find(42, key -> {
+                    loaderCalls.incrementAndGet();
+                    try {
+                        Thread.sleep(100);  // slow backing store
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "Flight #" + key;
+                });
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+        int wrong = 0;
+        for (String result : results) {
+            if (!"Flight #42".equals(result)) wrong++;
+        }
+        System.out.println("Loader calls for 8 concurrent misses: " + loaderCalls.get() + ", wrong results: " + wrong);
+
+        // a failing loader is reported and nothing is cached
+        try {
+            loaded.find(7, key -> {
+                throw new IllegalStateException("backing store down");
+            });
+            System.out.println("Loader failure was swallowed");
+        } catch (IllegalStateException e) {
+            System.out.println("Loader failure: " + e.getMessage() + ", cached: " + loaded.find(7));
+        }
+        System.out.println(loaded);
+
+        // an add while a load is in progress wins over the loaded value
+        ClockCache<Integer, String> racing = new ClockCache<>(100);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch added = new CountDownLatch(1);
+        String[] loadResult = new String[1];
+        Thread loader = new Thread(() -> loadResult[0] = racing.find(7, key -> {
+            loadStarted.countDown();
+            try {
+                added.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "stale";
+        }));
+        loader.start();
+        loadStarted.await();
+        racing.add(7, "fresh");
+        added.countDown();
+        loader.join();
+        System.out.println("Add during load: loader got " + loadResult[0] + ", cached: " + racing.find(7));
+    }
+}
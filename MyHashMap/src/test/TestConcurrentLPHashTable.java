@@ -0,0 +1,54 @@
+package test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import hashmap.ConcurrentLPHashTable;
+
+public class TestConcurrentLPHashTable {
+
+    public static void main(String[] args) throws InterruptedException {
+        final int writers = 4;
+        final int perWriter = 200000;
+        final ConcurrentLPHashTable<Integer, Integer> hashTbl = new ConcurrentLPHashTable<>();
+        final AtomicInteger badReads = new AtomicInteger();
+
+        // each writer adds its own range of flight numbers, then deletes the odd ones
+        Thread[] threads = new Thread[writers * 2];
+        for (int w = 0; w < writers; w++) {
+            final int base = w * perWriter;
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) hashTbl.add(base + i, base + i);
+                for (int i = 1; i < perWriter; i += 2) hashTbl.delete(base + i);
+            });
+        }
+
+        // readers run alongside; a value found must always match its key
+        for (int r = 0; r < writers; r++) {
+            threads[writers + r] = new Thread(() -> {
+                for (int pass = 0; pass < 3; pass++) {
+                    for (int key = 0; key < writers * perWriter; key++) {
+                        Integer value = hashTbl.find(key);
+                        if (value != null && value != key) badReads.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        int missing = 0;
+        for (int key = 0; key < writers * perWriter; key++) {
+            Integer value = hashTbl.find(key);
+            if ((key % 2 == 0) != (value != null)) missing++;
+        }
+
+        int iterated = 0;
+        for (Integer value : hashTbl) iterated++;
+
+        System.out.println("Table size: " + hashTbl.size() + " (expected " + writers * perWriter / 2 + ")");
+        System.out.println("Iterated values: " + iterated);
+        System.out.println("Table length: " + hashTbl.getTableLength());
+        System.out.println("Inconsistent reads: " + badReads.get());
+        System.out.println("Wrong final lookups: " + missing);
+    }
+}
@@ -0,0 +1,92 @@
+package test;
+
+import java.util.HashMap;
+import java.util.Random;
+import hashmap.CuckooHashTable;
+
+public class TestCuckooHashTable {
+
+    public static void main(String[] args) {
+
+        // fill a presized table to 0.95 load without growing it
+        int capacity = 1 << 16;
+        CuckooHashTable<Integer, Integer> hashTbl = new CuckooHashTable<>(capacity, 0.95);
+        Random random = new Random(42);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        while (expected.size() < (int) (capacity * 0.95)) {
+            int flightNo = random.nextInt();
+            hashTbl.add(flightNo, flightNo);
+            expected.put(flightNo, flightNo);
+        }
+        System.out.println("Table size: " + hashTbl.size() + " (expected " + expected.size() + ")");
+        System.out.println("Table length: " + hashTbl.getTableLength() + " (presized " + capacity + ")");
+        System.out.println("Stash size: " + hashTbl.getStashSize());
+
+        int wrong = 0;
+        for (Integer flightNo : expected.keySet()) {
+            if (!flightNo.equals(hashTbl.find(flightNo))) wrong++;
+        }
+        for (int i = 0; i < 100000; i++) {
+            int flightNo = random.nextInt();
+            if (!expected.containsKey(flightNo) && hashTbl.find(flightNo) != null) wrong++;
+        }
+        System.out.println("Wrong lookups: " + wrong);
+
+        // delete half, then grow well past the original capacity
+        int deleted = 0;
+        for (Integer flightNo : expected.keySet().toArray(new Integer[0])) {
+            if (deleted++ % 2 == 0) {
+                hashTbl.delete(flightNo);
+                expected.remove(flightNo);
+            }
+        }
+        for (int i = 0; i < 200000; i++) {
+            int flightNo = random.nextInt();
+            hashTbl.add(flightNo, -flightNo);
+            expected.put(flightNo, -flightNo);
+        }
+        wrong = 0;
+        for (Integer flightNo : expected.keySet()) {
+            if (!expected.get(flightNo).equals(hashTbl.find(flightNo))) wrong++;
+        }
+        int iterated = 0;
+        for (Integer value : hashTbl) iterated++;
+        System.out.println("Table size after deletes and growth: " + hashTbl.size() + " (expected " + expected.size() + ")");
+        System.out.println("Table length: " + hashTbl.getTableLength());
+        System.out.println("Iterated values: " + iterated);
+        System.out.println("Wrong lookups: " + wrong);
+
+        // keys with equal hash codes all share two buckets; the rest go to the stash
+        CuckooHashTable<Flight, String> flights = new CuckooHashTable<>();
+        for (int flightNo = 0; flightNo < 50; flightNo++) {
+            flights.add(new Flight(flightNo), "Flight #" + flightNo);
+        }
+        for (int flightNo = 0; flightNo < 50; flightNo += 2) flights.delete(new Flight(flightNo));
+        wrong = 0;
+        for (int flightNo = 0; flightNo < 50; flightNo++) {
+            String value = flights.find(new Flight(flightNo));
+            if ((flightNo % 2 == 1) != ("Flight #" + flightNo).equals(value)) wrong++;
+        }
+        System.out.println("Colliding keys: " + flights.size() + ", table length: " + flights.getTableLength()
+                + ", wrong lookups: " + wrong);
+    }
+
+    // every flight hashes to the same code
+    private static class Flight {
+        private final int flightNo;
+
+        public Flight(int flightNo) {
+            this.flightNo = flightNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Flight && ((Flight) o).flightNo == flightNo;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+    }
+}
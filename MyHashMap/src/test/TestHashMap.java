@@ -1,5 +1,6 @@
 package test;
 
+import java.util.Objects;
 import hashmap.MyHashMap;
 
 public class TestHashMap {
@@ -28,7 +29,103 @@ public class TestHashMap {
         }
         System.out.println();
         System.out.println("Table size: " + hashTbl.size());
+        System.out.println();
+
+        // grow well past the initial table, then mass-delete and shrink
+        MyHashMap<Integer, Integer> bigTbl = new MyHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            bigTbl.add(i, i);
+        }
+        System.out.println("Table size: " + bigTbl.size());
+        System.out.println("Table length: " + bigTbl.getTableLength());
+        for (int i = 0; i < 990; i++) {
+            bigTbl.delete(i);
+        }
+        bigTbl.trimToSize();
+        System.out.println("Table size after deletes: " + bigTbl.size());
+        System.out.println("Table length after trimToSize: " + bigTbl.getTableLength());
+        System.out.println("Find 995: " + bigTbl.find(995));
+        System.out.println("Find 5: " + bigTbl.find(5));
+        System.out.println();
+
+        // legacy composite keys whose hash codes all collide: the bin turns
+        // into a tree, so lookups stay logarithmic for Comparable keys (keys
+        // with no ordering still work, but each lookup searches the whole tree)
+        MyHashMap<RouteKey, Integer> routeTbl = new MyHashMap<>();
+        MyHashMap<LegacyKey, Integer> legacyTbl = new MyHashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            routeTbl.add(new RouteKey(i), i);
+            if (i < 2000) legacyTbl.add(new LegacyKey(i), i);
+        }
+        int wrong = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (!Objects.equals(routeTbl.find(new RouteKey(i)), i)) wrong++;
+            if (i < 2000 && !Objects.equals(legacyTbl.find(new LegacyKey(i)), i)) wrong++;
+        }
+        System.out.println("Colliding keys: " + routeTbl.size() + " comparable, " + legacyTbl.size() + " not");
+        System.out.println("Tree bins: " + routeTbl.getTreeBinCount() + ", " + legacyTbl.getTreeBinCount());
+        System.out.println("Probes for a comparable key: " + routeTbl.getProbeCount(new RouteKey(1234)));
+        System.out.println("Wrong lookups: " + wrong);
 
+        for (int i = 0; i < 10000; i += 2) {
+            routeTbl.delete(new RouteKey(i));
+            legacyTbl.delete(new LegacyKey(i));
+        }
+        for (int i = 10; i < 10000; i++) {
+            routeTbl.delete(new RouteKey(i));
+            legacyTbl.delete(new LegacyKey(i));
+        }
+        wrong = 0;
+        for (int i = 0; i < 10; i++) {
+            Integer expected = (i % 2 == 1) ? i : null;
+            if (!Objects.equals(routeTbl.find(new RouteKey(i)), expected)) wrong++;
+            if (!Objects.equals(legacyTbl.find(new LegacyKey(i)), expected)) wrong++;
+        }
+        System.out.println("After deletes: " + routeTbl.size() + " and " + legacyTbl.size()
+                + " keys, tree bins: " + routeTbl.getTreeBinCount() + ", wrong lookups: " + wrong);
+    }
+
+    // composite key with a constant hash code, but Comparable
+    private static class RouteKey implements Comparable<RouteKey> {
+        private final int id;
+
+        public RouteKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RouteKey && ((RouteKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public int compareTo(RouteKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    // composite key with a constant hash code and no ordering
+    private static class LegacyKey {
+        private final int id;
+
+        public LegacyKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LegacyKey && ((LegacyKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
     }
 
     private static class Flight {
@@ -0,0 +1,34 @@
+package test;
+
+import java.util.Arrays;
+import hashmap.HashTableStats;
+import hashmap.LPHashTable;
+
+public class TestHashTableStats {
+
+    public static void main(String[] args) throws Exception {
+        LPHashTable<Integer, String> hashTbl = new LPHashTable<>();
+        HashTableStats stats = hashTbl.enableStats();
+        stats.registerMBean("flights");
+
+        // flight numbers clustered by carrier
+        for (int carrier = 1; carrier <= 20; carrier++) {
+            for (int flightNo = 1; flightNo <= 500; flightNo++) {
+                hashTbl.add(carrier * 1000 + flightNo, "Flight #" + (carrier * 1000 + flightNo));
+            }
+        }
+        for (int carrier = 1; carrier <= 20; carrier += 2) {
+            for (int flightNo = 1; flightNo <= 500; flightNo++) {
+                hashTbl.delete(carrier * 1000 + flightNo);
+            }
+        }
+        for (int key = 0; key < 25000; key++) {
+            hashTbl.find(key);
+        }
+
+        System.out.println(stats);
+        System.out.println("Find probe histogram: " + Arrays.toString(stats.getFindProbeHistogram()));
+        System.out.println("Add probe histogram: " + Arrays.toString(stats.getAddProbeHistogram()));
+        System.out.println("Load factor samples: " + Arrays.toString(stats.getLoadFactorSamples()));
+    }
+}
@@ -0,0 +1,81 @@
+package test;
+
+import hashmap.IncrementalLPHashTable;
+
+public class TestIncrementalLPHashTable {
+
+    public static void main(String[] args) {
+        IncrementalLPHashTable<Integer, String> hashTbl = new IncrementalLPHashTable<>();
+
+        // grow through several resizes, checking lookups while migrations are in progress
+        int wrongDuringResize = 0;
+        int checksDuringResize = 0;
+        for (int flightNo = 1; flightNo <= 100000; flightNo++) {
+            hashTbl.add(flightNo, "Flight #" + flightNo);
+            if (hashTbl.isResizing()) {
+                checksDuringResize++;
+                if (!("Flight #" + (flightNo / 2 + 1)).equals(hashTbl.find(flightNo / 2 + 1))) wrongDuringResize++;
+            }
+        }
+        System.out.println("Table size: " + hashTbl.size());
+        System.out.println("Table length: " + hashTbl.getTableLength());
+        System.out.println("Lookups during resize: " + checksDuringResize + ", wrong: " + wrongDuringResize);
+
+        // delete and update keys that may still sit in the old table
+        for (int flightNo = 1; flightNo <= 100000; flightNo += 3) {
+            hashTbl.delete(flightNo);
+        }
+        for (int flightNo = 2; flightNo <= 100000; flightNo += 3) {
+            hashTbl.add(flightNo, "Delayed #" + flightNo);
+        }
+        hashTbl.finishResize();
+
+        int wrong = 0;
+        for (int flightNo = 1; flightNo <= 100000; flightNo++) {
+            String value = hashTbl.find(flightNo);
+            String expected;
+            if (flightNo % 3 == 1) {
+                expected = null;
+            } else if (flightNo % 3 == 2) {
+                expected = "Delayed #" + flightNo;
+            } else {
+                expected = "Flight #" + flightNo;
+            }
+            if (expected == null ? value != null : !expected.equals(value)) wrong++;
+        }
+        int iterated = 0;
+        for (String value : hashTbl) iterated++;
+
+        System.out.println("Table size after deletes: " + hashTbl.size());
+        System.out.println("Iterated values: " + iterated);
+        System.out.println("Wrong lookups: " + wrong);
+
+        // churn: tombstones alone must not grow the table, and a table
+        // that empties out shrinks again
+        IncrementalLPHashTable<Integer, Integer> churnTbl = new IncrementalLPHashTable<>();
+        for (int i = 0; i < 2000000; i++) {
+            churnTbl.add(i, i);
+            churnTbl.delete(i);
+        }
+        System.out.println("Add/delete churn: size " + churnTbl.size() + ", table length "
+                + churnTbl.getTableLength() + " (expected 8)");
+
+        int maxLength = 0;
+        wrong = 0;
+        for (int i = 0; i < 2000000; i++) {
+            churnTbl.add(i, i);
+            if (i >= 1000) churnTbl.delete(i - 1000);  // 1000 live keys
+            maxLength = Math.max(maxLength, churnTbl.getTableLength());
+            if (i % 1000 == 999 && churnTbl.find(i - 500) != i - 500) wrong++;
+        }
+        System.out.println("Churn with 1000 live keys: size " + churnTbl.size() + ", max table length "
+                + maxLength + " (expected 4096 at most), wrong lookups " + wrong);
+
+        for (int i = 1999000; i < 2000000; i++) churnTbl.delete(i);
+        for (int i = 0; i < 20000; i++) {
+            churnTbl.add(-i, i);
+            churnTbl.delete(-i);
+        }
+        System.out.println("After emptying: table length " + churnTbl.getTableLength() + " (expected 8)");
+    }
+}
@@ -1,6 +1,11 @@
 package test;
 
+import java.util.AbstractMap;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
 import hashmap.LPHashTable;
 
 public class TestLPHashTable {
@@ -52,8 +57,62 @@ public class TestLPHashTable {
         System.out.println("Table length: " + hashTbl.getTableLength());
         System.out.println();
         System.out.println("Deleting flight #444");
+        hashTbl.delete(444);
         System.out.println("Table size: " + hashTbl.size());
+        System.out.println();
+
+        // keys, entries and forEach walk the same slots as the value iterator
+        for (Integer flightNo : hashTbl.keys()) {
+            System.out.print(flightNo + " ");
+        }
+        System.out.println();
+        for (Map.Entry<Integer, Flight> entry : hashTbl.entries()) {
+            System.out.println(entry.getKey() + " -> " + entry.getValue());
+        }
+        hashTbl.forEach((flightNo, flight) -> {
+            if (flightNo != flight.flightNo) System.out.println("Mismatched entry for flight #" + flightNo);
+        });
+        System.out.println("Flights from SEA: "
+                + hashTbl.stream().filter(flight -> flight.origination.equals("SEA")).count());
+        System.out.println("Sum of flight numbers (parallel): "
+                + hashTbl.keyStream().parallel().mapToLong(Integer::longValue).sum());
 
+        // entries follow the Map.Entry contract, so they compare equal to
+        // any other entry with the same key and value
+        int entryMismatches = 0;
+        for (Map.Entry<Integer, Flight> entry : hashTbl.entries()) {
+            Map.Entry<Integer, Flight> copy = new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue());
+            if (!entry.equals(copy) || !copy.equals(entry) || entry.hashCode() != copy.hashCode()) entryMismatches++;
+        }
+        System.out.println("Entries unequal to a copy: " + entryMismatches);
+
+        // null values are allowed, so the value spliterator is not NONNULL
+        LPHashTable<Integer, String> withNull = new LPHashTable<>();
+        withNull.add(1, null);
+        withNull.add(2, "two");
+        System.out.println("Values NONNULL: " + withNull.spliterator().hasCharacteristics(Spliterator.NONNULL)
+                + ", null values streamed: " + withNull.stream().filter(Objects::isNull).count());
+
+        // a split half checks for changes against the table its parent saw
+        Spliterator<String> parent = withNull.spliterator();
+        withNull.add(3, "three");
+        Spliterator<String> half = parent.trySplit();
+        try {
+            half.forEachRemaining(value -> { });
+            System.out.println("Modification before split was not detected");
+        } catch (ConcurrentModificationException e) {
+            System.out.println("Caught after split: " + e.getMessage());
+        }
+
+        // modifying the table while iterating fails fast
+        try {
+            for (Integer flightNo : hashTbl.keys()) {
+                hashTbl.delete(flightNo);
+            }
+            System.out.println("Modification during iteration was not detected");
+        } catch (ConcurrentModificationException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
 
     }
 
@@ -0,0 +1,80 @@
+package test;
+
+import java.util.HashMap;
+import java.util.Random;
+import hashmap.BloomFilter;
+import hashmap.LPHashTable;
+
+public class TestLPHashTableBloomFilter {
+
+    public static void main(String[] args) {
+
+        // random adds and deletes through resizes and compactions: the filter
+        // must never hide a key that is present
+        Random random = new Random(42);
+        LPHashTable<Integer, Integer> table = new LPHashTable<>(16, true);
+        BloomFilter filter = table.enableBloomFilter(0.01);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        int wrong = 0;
+        for (int i = 0; i < 300000; i++) {
+            int key = random.nextInt(100000);
+            if (random.nextInt(3) == 0) {
+                table.delete(key);
+                expected.remove(key);
+            } else {
+                table.add(key, i);
+                expected.put(key, i);
+            }
+            if (i % 1000 == 0) {
+                Integer probe = random.nextInt(100000);
+                Integer value = table.find(probe);
+                if ((value == null) ? expected.containsKey(probe) : !value.equals(expected.get(probe))) wrong++;
+            }
+        }
+        for (int key = 0; key < 100000; key++) {
+            Integer value = table.find(key);
+            if ((value == null) ? expected.containsKey(key) : !value.equals(expected.get(key))) wrong++;
+        }
+        System.out.println("Table size: " + table.size() + " (expected " + expected.size() + ")");
+        System.out.println("Wrong lookups: " + wrong);
+
+        // findAll goes through the filter too
+        Integer[] keys = new Integer[1000];
+        Integer[] out = new Integer[keys.length];
+        int expectedFound = 0;
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 150;
+            if (expected.containsKey(keys[i])) expectedFound++;
+        }
+        System.out.println("findAll found: " + table.findAll(keys, out) + " (expected " + expectedFound + ")");
+
+        // misses only: the observed rate should be near the configured one
+        for (double rate : new double[]{0.1, 0.01, 0.001}) {
+            LPHashTable<Integer, Integer> present = new LPHashTable<>(16, true);
+            BloomFilter f = present.enableBloomFilter(rate);
+            for (int key = 0; key < 200000; key++) present.add(key, key);
+            for (int key = 200000; key < 1200000; key++) present.find(key);
+            System.out.printf("Target %.3f: observed %.4f, %d hashes, %.1f bits per key%n",
+                    rate, f.getObservedFalsePositiveRate(), f.getHashCount(), (double) f.getBitCount() / present.size());
+        }
+
+        // a key present with a null value is not a false positive, and a
+        // deleted key still in the bits is a stale hit
+        LPHashTable<Integer, Integer> churned = new LPHashTable<>(16, true);
+        BloomFilter g = churned.enableBloomFilter(0.01);
+        churned.add(-1, null);
+        for (int key = 0; key < 1000; key++) churned.add(key, key);
+        for (int key = 0; key < 200; key++) churned.delete(key);
+        for (int key = -1; key < 200; key++) churned.find(key);
+        System.out.println("Null value and deleted keys: false positives " + g.getFalsePositives()
+                + ", stale hits " + g.getStaleHits() + " (expected 0, 200)");
+
+        // clear empties the filter; disabling it turns it off
+        table.clear();
+        table.add(1, 1);
+        System.out.println("After clear: find(1) = " + table.find(1) + ", find(2) = " + table.find(2));
+        table.disableBloomFilter();
+        System.out.println("Filter after disable: " + table.getBloomFilter());
+        System.out.println(filter);
+    }
+}
@@ -0,0 +1,129 @@
+package test;
+
+import hashmap.LPHashTable;
+import hashmap.SnapshotCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class TestLPHashTableSnapshot {
+
+    public static void main(String[] args) throws IOException {
+        LPHashTable<Integer, String> hashTbl = new LPHashTable<>(7, true);
+        for (int flightNo = 1; flightNo <= 100000; flightNo++) {
+            hashTbl.add(flightNo, "Flight #" + flightNo);
+        }
+        for (int flightNo = 1; flightNo <= 100000; flightNo += 4) {
+            hashTbl.delete(flightNo);
+        }
+        hashTbl.add(-5, null);  // null values survive too
+
+        // round trip through a stream
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hashTbl.writeTo(bytes, SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+        LPHashTable<Integer, String> restored = LPHashTable.readFrom(
+                new ByteArrayInputStream(bytes.toByteArray()), SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+        System.out.println("Snapshot bytes: " + bytes.size());
+        System.out.println("Original size: " + hashTbl.size() + ", restored size: " + restored.size());
+        System.out.println("Restored table length: " + restored.getTableLength()
+                + " (original " + hashTbl.getTableLength() + ")");
+        System.out.println("Wrong lookups: " + countWrong(restored));
+
+        // round trip through a file channel
+        Path file = Files.createTempFile("flights", ".snapshot");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                hashTbl.writeTo(channel, SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                restored = LPHashTable.readFrom(channel, SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            }
+            System.out.println("File snapshot size: " + restored.size() + ", wrong lookups: " + countWrong(restored));
+        } finally {
+            Files.delete(file);
+        }
+
+        // a flipped byte in a block is caught by its checksum
+        byte[] corrupt = bytes.toByteArray();
+        corrupt[corrupt.length / 2] ^= 1;
+        try {
+            LPHashTable.readFrom(new ByteArrayInputStream(corrupt), SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            System.out.println("Corruption was not detected");
+        } catch (IOException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
+
+        // as is a truncated snapshot, and one read with the wrong codec
+        try {
+            LPHashTable.readFrom(new ByteArrayInputStream(bytes.toByteArray(), 0, bytes.size() - 20),
+                    SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            System.out.println("Truncation was not detected");
+        } catch (IOException e) {
+            System.out.println("Caught: " + e);
+        }
+        try {
+            LPHashTable.readFrom(new ByteArrayInputStream(bytes.toByteArray()), SnapshotCodec.LONG, SnapshotCodec.STRING);
+            System.out.println("Codec mismatch was not detected");
+        } catch (IOException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
+
+        // a corrupt block length is reported, not allocated; the header of
+        // an empty table's snapshot is followed by just the 12-byte end marker
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        new LPHashTable<Integer, String>().writeTo(empty, SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+        int lengthField = empty.size() - 12 + 4;  // after the first block's entry count
+        byte[] badLength = bytes.toByteArray();
+        badLength[lengthField] = 0x7F;
+        try {
+            LPHashTable.readFrom(new ByteArrayInputStream(badLength), SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            System.out.println("Bad block length was not detected");
+        } catch (IOException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
+
+        // a string length past the end of its block, in a block whose
+        // checksum is valid
+        LPHashTable<Integer, String> one = new LPHashTable<>();
+        one.add(1, "Flight #1");
+        ByteArrayOutputStream badString = new ByteArrayOutputStream();
+        one.writeTo(badString, SnapshotCodec.INTEGER, new SnapshotCodec<String>() {
+            public String name() {
+                return SnapshotCodec.STRING.name();
+            }
+
+            public void write(DataOutput out, String value) throws IOException {
+                out.writeInt(Integer.MAX_VALUE - 8);  // claims far more bytes than follow
+            }
+
+            public String read(DataInput in) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        try {
+            LPHashTable.readFrom(new ByteArrayInputStream(badString.toByteArray()), SnapshotCodec.INTEGER,
+                    SnapshotCodec.STRING);
+            System.out.println("Bad string length was not detected");
+        } catch (IOException e) {
+            System.out.println("Caught: " + e.getMessage());
+        }
+    }
+
+    private static int countWrong(LPHashTable<Integer, String> table) {
+        int wrong = 0;
+        for (int flightNo = 1; flightNo <= 100000; flightNo++) {
+            String expected = (flightNo % 4 == 1) ? null : "Flight #" + flightNo;
+            String value = table.find(flightNo);
+            if (expected == null ? value != null : !expected.equals(value)) wrong++;
+        }
+        if (table.find(-5) != null || table.size() != 75001) wrong++;
+        return wrong;
+    }
+}
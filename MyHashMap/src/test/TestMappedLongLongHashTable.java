@@ -0,0 +1,55 @@
+package test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
+import hashmap.MappedLongLongHashTable;
+
+public class TestMappedLongLongHashTable {
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("flights", ".lpht");
+        Files.delete(file);  // let the table create it
+
+        // flight number -> record offset
+        MappedLongLongHashTable hashTbl = MappedLongLongHashTable.open(file);
+        for (long flightNo = 1; flightNo <= 100000; flightNo++) {
+            hashTbl.add(flightNo, flightNo * 512);
+        }
+        for (long flightNo = 1; flightNo <= 100000; flightNo += 4) {
+            hashTbl.delete(flightNo);
+        }
+        System.out.println("Table size: " + hashTbl.size());
+        System.out.println("Table length: " + hashTbl.getTableLength());
+        hashTbl.close();
+        System.out.println("File size: " + Files.size(file));
+
+        // reopen: everything should still be there without re-adding
+        long start = System.nanoTime();
+        hashTbl = MappedLongLongHashTable.open(file);
+        System.out.println("Reopened in " + (System.nanoTime() - start) / 1000 + " us");
+        System.out.println("Table size: " + hashTbl.size());
+
+        int wrong = 0;
+        for (long flightNo = 1; flightNo <= 100000; flightNo++) {
+            long expected = (flightNo % 4 == 1) ? hashTbl.getNoValue() : flightNo * 512;
+            if (hashTbl.find(flightNo) != expected) wrong++;
+        }
+        System.out.println("Wrong lookups: " + wrong);
+
+        hashTbl.add(1, 42);
+        System.out.println("Flight #1 re-added: " + hashTbl.find(1));
+
+        long total = 0;
+        int iterated = 0;
+        PrimitiveIterator.OfLong offsets = hashTbl.iterator();
+        while (offsets.hasNext()) {
+            total += offsets.nextLong();
+            iterated++;
+        }
+        System.out.println("Iterated values: " + iterated + ", sum: " + total);
+        hashTbl.close();
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,117 @@
+package test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import hashmap.PersistentHashMap;
+import hashmap.VersionedHashMap;
+
+public class TestPersistentHashMap {
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // random adds and deletes, checked against java.util.HashMap; every
+        // 1000th version is kept and checked again at the end
+        Random random = new Random(42);
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> oldVersion = null;
+        HashMap<Integer, Integer> oldExpected = null;
+        int wrong = 0;
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(50000) - 10000;
+            if (random.nextInt(3) == 0) {
+                map = map.delete(key);
+                expected.remove(key);
+            } else {
+                map = map.add(key, i);
+                expected.put(key, i);
+            }
+            if (i == 100000) {
+                oldVersion = map;
+                oldExpected = new HashMap<>(expected);
+            }
+            if (map.size() != expected.size()) wrong++;
+        }
+        for (int key = -10000; key < 40000; key++) {
+            if (!same(expected.get(key), map.find(key))) wrong++;
+            if (!same(oldExpected.get(key), oldVersion.find(key))) wrong++;
+        }
+        int iterated = 0;
+        for (Integer value : map) iterated++;
+        System.out.println("Map size: " + map.size() + " (expected " + expected.size() + ")");
+        System.out.println("Old version size: " + oldVersion.size() + " (expected " + oldExpected.size() + ")");
+        System.out.println("Iterated values: " + iterated);
+        System.out.println("Trie depth: " + map.getDepth());
+        System.out.println("Wrong lookups: " + wrong);
+
+        // keys with equal hash codes share a collision node
+        PersistentHashMap<Flight, String> flights = PersistentHashMap.empty();
+        for (int flightNo = 0; flightNo < 100; flightNo++) {
+            flights = flights.add(new Flight(flightNo), "Flight #" + flightNo);
+        }
+        PersistentHashMap<Flight, String> fewer = flights;
+        for (int flightNo = 0; flightNo < 100; flightNo += 2) fewer = fewer.delete(new Flight(flightNo));
+        wrong = 0;
+        for (int flightNo = 0; flightNo < 100; flightNo++) {
+            if (!("Flight #" + flightNo).equals(flights.find(new Flight(flightNo)))) wrong++;
+            if ((flightNo % 2 == 1) != (fewer.find(new Flight(flightNo)) != null)) wrong++;
+        }
+        System.out.println("Colliding keys: " + flights.size() + " then " + fewer.size() + ", wrong lookups: " + wrong);
+
+        // readers see whole versions while writers publish new ones
+        final VersionedHashMap<Integer, Integer> published = new VersionedHashMap<>();
+        final AtomicInteger badReads = new AtomicInteger();
+        final int writers = 2;
+        final int perWriter = 50000;
+        Thread[] threads = new Thread[writers * 2];
+        for (int w = 0; w < writers; w++) {
+            final int base = w * perWriter;
+            threads[w] = new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) published.add(base + i, base + i);
+                for (int i = 1; i < perWriter; i += 2) published.delete(base + i);
+            });
+        }
+        for (int r = 0; r < writers; r++) {
+            threads[writers + r] = new Thread(() -> {
+                for (int pass = 0; pass < 20; pass++) {
+                    PersistentHashMap<Integer, Integer> version = published.current();
+                    int count = 0;
+                    for (Integer value : version) count++;
+                    if (count != version.size()) badReads.incrementAndGet();
+                    for (int key = 0; key < writers * perWriter; key += 97) {
+                        Integer value = version.find(key);
+                        if (value != null && value != key) badReads.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        System.out.println("Published size: " + published.size() + " (expected " + writers * perWriter / 2 + ")");
+        System.out.println("Inconsistent reads: " + badReads.get());
+    }
+
+    private static boolean same(Integer a, Integer b) {
+        return (a == null) ? b == null : a.equals(b);
+    }
+
+    // every flight hashes to the same code
+    private static class Flight {
+        private final int flightNo;
+
+        public Flight(int flightNo) {
+            this.flightNo = flightNo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Flight && ((Flight) o).flightNo == flightNo;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package test;
+
+import java.util.PrimitiveIterator;
+import hashmap.IntIntHashTable;
+import hashmap.IntObjectHashTable;
+import hashmap.LongLongHashTable;
+
+public class TestPrimitiveHashTables {
+
+    public static void main(String[] args) {
+        int[] flightNos = {123, 456, 333, 444, 555, 666, 777, 888};
+        String[] routes = {"DTW-SEA", "SEA-DTW", "FLG-SEA", "SEA-FLG",
+                "LAX-SEA", "SEA-LAX", "SFO-SEA", "SEA-SFO"};
+
+        // int -> Object
+        IntObjectHashTable<String> routeTbl = new IntObjectHashTable<>();
+        for (int i = 0; i < flightNos.length; i++) {
+            routeTbl.add(flightNos[i], routes[i]);
+        }
+        System.out.println("Flight #333: " + routeTbl.find(333));
+        System.out.println("Flight #999: " + routeTbl.find(999));
+        System.out.println("Table size: " + routeTbl.size());
+        System.out.println("Table length: " + routeTbl.getTableLength());
+        System.out.println("Deleting flight #444");
+        routeTbl.delete(444);
+        System.out.println("Flight #444: " + routeTbl.find(444));
+        System.out.println("Table size: " + routeTbl.size());
+        for (String route : routeTbl) {
+            System.out.println(route);
+        }
+        System.out.println();
+
+        // long -> long
+        LongLongHashTable offsetTbl = new LongLongHashTable();
+        for (int i = 0; i < flightNos.length; i++) {
+            offsetTbl.add(flightNos[i], i * 4096L);
+        }
+        System.out.println("Offset of flight #555: " + offsetTbl.find(555));
+        System.out.println("Offset of flight #999: " + offsetTbl.find(999));
+        offsetTbl.delete(555);
+        offsetTbl.add(555, 1L << 40);
+        System.out.println("Offset of flight #555 after update: " + offsetTbl.find(555));
+        System.out.println("Table size: " + offsetTbl.size());
+        PrimitiveIterator.OfLong offsets = offsetTbl.iterator();
+        long total = 0;
+        while (offsets.hasNext()) {
+            total += offsets.nextLong();
+        }
+        System.out.println("Sum of offsets: " + total);
+        System.out.println();
+
+        // int -> int, with many entries to force resizes
+        IntIntHashTable gateTbl = new IntIntHashTable(7, 0);
+        for (int i = 0; i < 100000; i++) {
+            gateTbl.add(i, i % 50 + 1);
+        }
+        for (int i = 0; i < 100000; i += 2) {
+            gateTbl.delete(i);
+        }
+        int missing = 0;
+        for (int i = 0; i < 100000; i++) {
+            int expected = (i % 2 == 0) ? 0 : i % 50 + 1;
+            if (gateTbl.find(i) != expected) missing++;
+        }
+        System.out.println("Table size: " + gateTbl.size());
+        System.out.println("Table length: " + gateTbl.getTableLength());
+        System.out.println("Mismatched lookups: " + missing);
+    }
+}
@@ -0,0 +1,133 @@
+package test;
+
+import hashmap.IHashTable;
+import hashmap.RobinHoodHashTable;
+
+public class TestRobinHoodHashTable {
+
+    public static void main(String[] args) {
+        Flight[] flights = new Flight[8];
+        flights[0] = new Flight(123, "DTW", "SEA");
+        flights[1] = new Flight(456, "SEA", "DTW");
+        flights[2] = new Flight(333, "FLG", "SEA");
+        flights[3] = new Flight(444, "SEA", "FLG");
+        flights[4] = new Flight(555, "LAX", "SEA");
+        flights[5] = new Flight(666, "SEA", "LAX");
+        flights[6] = new Flight(777, "SFO", "SEA");
+        flights[7] = new Flight(888, "SEA", "SFO");
+
+        RobinHoodHashTable<Integer, Flight> hashTbl = new RobinHoodHashTable<>();
+
+        for (Flight flight : flights) {
+            System.out.println("Adding " + flight);
+            hashTbl.add(flight.flightNo, flight);
+        }
+        System.out.println();
+
+        for (Flight flight : flights) {
+            System.out.println(hashTbl.find(flight.flightNo));
+        }
+        System.out.println();
+        System.out.println("Table size: " + hashTbl.size());
+        System.out.println("Table length: " + hashTbl.getTableLength());
+        System.out.println();
+
+        System.out.println("Deleting flight #444");
+        hashTbl.delete(444);
+        System.out.println("Find flight #444: " + hashTbl.find(444));
+        System.out.println("Table size: " + hashTbl.size());
+        System.out.println();
+
+        for (Flight flight : hashTbl) {
+            System.out.println(flight);
+        }
+        System.out.println();
+
+        // churn with colliding keys: every 8 keys share a hash code, so
+        // runs are long and backward shifts cross other keys' home slots
+        RobinHoodHashTable<Collider, Integer> churnTbl = new RobinHoodHashTable<>();
+        int mismatches = 0;
+        int violations = 0;
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 10000; i++) {
+                churnTbl.add(new Collider(round * 10000 + i), i);
+            }
+            for (int i = 0; i < 5000; i++) {
+                churnTbl.delete(new Collider(round * 10000 + i));  // first half of this round
+                if (round > 0) churnTbl.delete(new Collider((round - 1) * 10000 + 5000 + i));  // rest of last round
+            }
+            violations += churnTbl.getProbeOrderViolations();
+            for (int i = 0; i < 10000; i++) {
+                Integer value = churnTbl.find(new Collider(round * 10000 + i));
+                if ((i < 5000) ? value != null : (value == null || value != i)) mismatches++;
+            }
+        }
+        System.out.println("Churn table size: " + churnTbl.size() + " (expected 5000)");
+        System.out.println("Churn mismatches: " + mismatches);
+        System.out.println("Probe order violations: " + violations);
+        System.out.println("Max probe distance: " + churnTbl.getMaxProbeDistance());
+
+        // deletes inside one cluster: 12 keys with home slot 5 followed by
+        // 6 with home slot 6, all in one run; each delete shifts the rest
+        // of the run back, and every key left must still be found
+        RobinHoodHashTable<Collider, Integer> clusterTbl = new RobinHoodHashTable<>(64);
+        IHashTable<Collider, Integer> cluster = clusterTbl;
+        for (int i = 0; i < 12; i++) cluster.add(new Collider(5, i), i);
+        for (int i = 0; i < 6; i++) cluster.add(new Collider(6, 100 + i), 100 + i);
+        int[] deleted = {0, 5, 11, 102};
+        mismatches = 0;
+        for (int id : deleted) {
+            cluster.delete(new Collider(id < 100 ? 5 : 6, id));
+            if (clusterTbl.getProbeOrderViolations() != 0) mismatches++;
+        }
+        for (int i = 0; i < 18; i++) {
+            int id = (i < 12) ? i : 100 + i - 12;
+            Integer value = cluster.find(new Collider(id < 100 ? 5 : 6, id));
+            boolean gone = false;
+            for (int d : deleted) gone |= (d == id);
+            if (gone ? value != null : (value == null || value != id)) mismatches++;
+        }
+        System.out.println("Cluster size: " + cluster.size() + " (expected 14), mismatches: " + mismatches
+                + ", max probe distance: " + clusterTbl.getMaxProbeDistance());
+    }
+
+    // a key with a given hash code; by default the 8 keys with the same
+    // id / 8 share one, scattered over the table
+    private static class Collider {
+        private final int hash;
+        private final int id;
+
+        public Collider(int id) {
+            this((id / 8) * 0x9E3779B1, id);
+        }
+
+        public Collider(int hash, int id) {
+            this.hash = hash;
+            this.id = id;
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object other) {
+            return other instanceof Collider && ((Collider) other).id == id;
+        }
+    }
+
+    private static class Flight {
+        private int flightNo;
+        private String destination;
+        private String origination;
+
+        public Flight(int flightNo, String dest, String orig) {
+            this.flightNo = flightNo;
+            this.destination = dest;
+            this.origination = orig;
+        }
+
+        public String toString() {
+            return "Flight #" + flightNo + " to " + destination + " from " + origination;
+        }
+    }
+}
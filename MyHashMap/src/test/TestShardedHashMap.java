@@ -0,0 +1,154 @@
+package test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import hashmap.IShard;
+import hashmap.LocalShard;
+import hashmap.ShardedHashMap;
+
+public class TestShardedHashMap {
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // random adds and deletes, checked against java.util.HashMap
+        Random random = new Random(42);
+        ShardedHashMap<Integer, Integer> map = new ShardedHashMap<>(4);
+        HashMap<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(50000);
+            if (random.nextInt(3) == 0) {
+                map.delete(key);
+                expected.remove(key);
+            } else {
+                map.add(key, i);
+                expected.put(key, i);
+            }
+        }
+        System.out.println("Map size: " + map.size() + " (expected " + expected.size() + ")");
+        System.out.println("Wrong lookups: " + wrongLookups(map, expected, 50000));
+        for (ShardedHashMap.ShardMetrics metrics : map.getShardMetrics()) System.out.println("  " + metrics);
+
+        // add a shard while readers check stable keys and a writer changes others
+        final ShardedHashMap<Integer, Integer> live = new ShardedHashMap<>(4);
+        final int stable = 100000;
+        for (int key = 0; key < stable; key++) live.add(key, key);
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger misses = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            Random r = new Random(1);
+            while (!done.get()) {
+                int key = r.nextInt(stable);
+                Integer value = live.find(key);
+                if (value == null || value != key) misses.incrementAndGet();
+            }
+        });
+        Thread writer = new Thread(() -> {
+            for (int round = 0; !done.get(); round++) {
+                for (int key = stable; key < stable + 1000; key++) live.add(key, round);
+                for (int key = stable; key < stable + 1000; key += 2) live.delete(key);
+            }
+        });
+        reader.start();
+        writer.start();
+        live.addShard(new LocalShard<>("shard-4")).join();
+        done.set(true);
+        reader.join();
+        writer.join();
+        HashMap<Integer, Integer> liveExpected = new HashMap<>();
+        for (int key = 0; key < stable; key++) liveExpected.put(key, key);
+        int wrong = wrongLookups(live, liveExpected, stable);
+        int odd = 0;
+        for (int key = stable + 1; key < stable + 1000; key += 2) if (live.find(key) != null) odd++;
+        long moved = 0;
+        for (ShardedHashMap.ShardMetrics metrics : live.getShardMetrics()) moved += metrics.getMigratedIn();
+        System.out.println("After adding a shard: size " + live.size() + " (expected " + (stable + 500) + "), moved "
+                + moved + " of " + stable + ", odd keys left " + odd + " (expected 500)");
+        System.out.println("Misses during migration: " + misses.get() + ", wrong lookups after: " + wrong);
+
+        // remove a shard: its keys go to the others, nothing else moves
+        live.removeShard("shard-1").join();
+        wrong = wrongLookups(live, liveExpected, stable);
+        System.out.println("After removing a shard: " + live.getShardMetrics().size() + " shards, wrong lookups " + wrong);
+        for (ShardedHashMap.ShardMetrics metrics : live.getShardMetrics()) System.out.println("  " + metrics);
+
+        // a shard that fails during migration leaves every key findable until rebalance
+        FlakyShard flaky = new FlakyShard("flaky");
+        ShardedHashMap<Integer, Integer> failing = new ShardedHashMap<>(
+                Arrays.asList(new LocalShard<>("a"), new LocalShard<>("b")), 64, ForkJoinPool.commonPool());
+        HashMap<Integer, Integer> failingExpected = new HashMap<>();
+        for (int key = 0; key < 10000; key++) {
+            failing.add(key, -key);
+            failingExpected.put(key, -key);
+        }
+        flaky.failAfter = 100;
+        CompletableFuture<Void> migration = failing.addShard(flaky);
+        boolean failed = false;
+        try {
+            migration.join();
+        } catch (RuntimeException e) {
+            failed = true;
+        }
+        int wrongWhileStuck = wrongLookups(failing, failingExpected, 10000);
+        boolean stuck = failing.isMigrating();
+        flaky.failAfter = Integer.MAX_VALUE;
+        failing.rebalance().join();
+        System.out.println("Failed migration: failed " + failed + ", still migrating " + stuck
+                + ", wrong lookups " + wrongWhileStuck + ", after rebalance " + wrongLookups(failing, failingExpected, 10000)
+                + ", migrating " + failing.isMigrating());
+    }
+
+    private static int wrongLookups(ShardedHashMap<Integer, Integer> map, HashMap<Integer, Integer> expected, int keys) {
+        int wrong = 0;
+        for (int key = 0; key < keys; key++) {
+            Integer a = expected.get(key);
+            Integer b = map.find(key);
+            if ((a == null) ? b != null : !a.equals(b)) wrong++;
+        }
+        return wrong;
+    }
+
+    // a local shard whose adds start failing after failAfter of them
+    private static class FlakyShard implements IShard<Integer, Integer> {
+        private final LocalShard<Integer, Integer> shard;
+        private volatile int failAfter = Integer.MAX_VALUE;
+        private final AtomicInteger adds = new AtomicInteger();
+
+        public FlakyShard(String id) {
+            shard = new LocalShard<>(id);
+        }
+
+        public String id() {
+            return shard.id();
+        }
+
+        public void add(Integer key, Integer value) {
+            if (adds.incrementAndGet() > failAfter) throw new IllegalStateException("Shard unreachable");
+            shard.add(key, value);
+        }
+
+        public Integer find(Integer key) {
+            return shard.find(key);
+        }
+
+        public void delete(Integer key) {
+            shard.delete(key);
+        }
+
+        public int size() {
+            return shard.size();
+        }
+
+        public void clear() {
+            shard.clear();
+        }
+
+        public Iterable<Integer> keys() {
+            return shard.keys();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+import hashmap.StringKeyHashTable;
+
+public class TestStringKeyHashTable {
+
+    public static void main(String[] args) {
+
+        // random adds and deletes of flight codes, checked against java.util.HashMap
+        Random random = new Random(42);
+        StringKeyHashTable<Integer> table = new StringKeyHashTable<>();
+        HashMap<String, Integer> expected = new HashMap<>();
+        int wrong = 0;
+        for (int i = 0; i < 200000; i++) {
+            String code = flightCode(random.nextInt(50000));
+            if (random.nextInt(3) == 0) {
+                table.delete(code);
+                expected.remove(code);
+            } else {
+                table.add(code, i);
+                expected.put(code, i);
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        byte[] buffer = new byte[16];
+        for (int n = 0; n < 50000; n++) {
+            String code = flightCode(n);
+            builder.setLength(0);
+            builder.append(code);
+            byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(bytes, 0, buffer, 3, bytes.length);
+            Integer value = expected.get(code);
+            if (!same(value, table.find(code))) wrong++;
+            if (!same(value, table.find(builder))) wrong++;
+            if (!same(value, table.find(buffer, 3, bytes.length))) wrong++;
+        }
+        int iterated = 0;
+        for (Integer value : table) iterated++;
+        int keysFound = 0;
+        for (String key : table.keys()) if (expected.containsKey(key)) keysFound++;
+        System.out.println("Table size: " + table.size() + " (expected " + expected.size() + ")");
+        System.out.println("Iterated values: " + iterated + ", keys: " + keysFound);
+        System.out.println("Arena length: " + table.getArenaLength() + ", garbage: " + table.getArenaGarbage());
+        System.out.println("Wrong lookups: " + wrong);
+
+        // non-ASCII keys: String, CharSequence and UTF-8 bytes all agree
+        StringKeyHashTable<String> cities = new StringKeyHashTable<>();
+        String[] names = {"Z\u00FCrich", "S\u00E3o Paulo", "\u6771\u4EAC", "Reykjav\u00EDk", "\uD83D\uDEEB gate", ""};
+        for (String name : names) cities.add(name, name.toUpperCase());
+        wrong = 0;
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            if (!name.toUpperCase().equals(cities.find(new StringBuilder(name)))) wrong++;
+            if (!name.toUpperCase().equals(cities.find(bytes, 0, bytes.length))) wrong++;
+        }
+        cities.add("bad \uD800 surrogate", "?");
+        if (!"?".equals(cities.find("bad ? surrogate"))) wrong++;
+        byte[] tokyo = names[2].getBytes(StandardCharsets.UTF_8);
+        cities.delete(tokyo, 0, tokyo.length);
+        if (cities.find(names[2]) != null) wrong++;
+        System.out.println("Unicode keys: " + cities.size() + ", wrong lookups: " + wrong);
+
+        // deleted keys' bytes are reclaimed
+        StringKeyHashTable<Integer> churn = new StringKeyHashTable<>();
+        for (int n = 0; n < 100000; n++) {
+            churn.add(flightCode(n), n);
+            if (n >= 100) churn.delete(flightCode(n - 100));
+        }
+        System.out.println("After churn: size " + churn.size() + ", arena length " + churn.getArenaLength()
+                + ", garbage " + churn.getArenaGarbage());
+
+        // a new key that reuses a deleted key's tombstone while the arena
+        // has to grow: the old key's bytes must not be copied again
+        String first = repeat('a', 250);
+        String second = repeat('b', 200);
+        int failures = 0;
+        for (int n = 0; n < 2000; n++) {
+            String third = repeat('c', 57) + (100000 + n);
+            StringKeyHashTable<Integer> reuse = new StringKeyHashTable<>();
+            try {
+                reuse.add(first, 1);
+                reuse.add(second, 2);
+                reuse.delete(first);
+                reuse.add(third, 3);
+                if (reuse.find(first) != null || !same(2, reuse.find(second)) || !same(3, reuse.find(third))) {
+                    failures++;
+                }
+            } catch (RuntimeException e) {
+                failures++;
+            }
+        }
+        System.out.println("Tombstone reuse: failures " + failures);
+    }
+
+    private static String repeat(char c, int n) {
+        char[] chars = new char[n];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    // short ASCII codes like "UA1234"
+    static String flightCode(int n) {
+        return (char) ('A' + n % 26) + "" + (char) ('A' + (n / 26) % 26) + (1000 + n / 676);
+    }
+
+    private static boolean same(Integer a, Integer b) {
+        return (a == null) ? b == null : a.equals(b);
+    }
+}